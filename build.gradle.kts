@@ -2,6 +2,7 @@ plugins {
     `java-library`
     `maven-publish`
     signing
+    id("me.champeau.jmh") version "0.6.6"
 }
 
 group = "eu.lestard"
@@ -26,6 +27,16 @@ dependencies {
     testImplementation("org.junit.jupiter:junit-jupiter-api:5.8.2")
     testImplementation("org.junit.jupiter:junit-jupiter-engine:5.8.2")
     testImplementation("org.assertj:assertj-core:3.22.0")
+    testAnnotationProcessor(project(":easy-di-processor"))
+}
+
+jmh {
+    jmhVersion.set("1.34")
+    // the coffee example of the test sources is part of the benchmarks
+    includeTests.set(true)
+    benchmarkMode.set(listOf("thrpt", "avgt"))
+    // the gc profiler reports the allocation rate
+    profilers.set(listOf("gc"))
 }
 
 
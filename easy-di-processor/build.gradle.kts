@@ -0,0 +1,30 @@
+plugins {
+    `java-library`
+    `maven-publish`
+}
+
+group = "eu.lestard"
+version = "0.6.0"
+
+java {
+    withJavadocJar()
+    withSourcesJar()
+}
+
+repositories {
+    mavenCentral()
+}
+
+publishing {
+    publications {
+        create<MavenPublication>("easy-di-processor") {
+            artifactId = "easy-di-processor"
+            from(components["java"])
+
+            pom {
+                name.set("easy-di-processor")
+                description.set("Annotation processor that generates reflection-free factories for EasyDI")
+            }
+        }
+    }
+}
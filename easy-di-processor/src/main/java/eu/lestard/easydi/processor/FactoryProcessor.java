@@ -0,0 +1,476 @@
+package eu.lestard.easydi.processor;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardLocation;
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.annotation.RetentionPolicy;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Annotation processor that generates a factory for every class that EasyDI is able to instantiate
+ * with a constructor.
+ * <p>
+ * A factory is generated for all top-level and static nested classes that have exactly one public constructor
+ * or exactly one public constructor annotated with {@code jakarta.inject.Inject}. This is the same constructor that
+ * EasyDI would choose at runtime. The factory implements {@code eu.lestard.easydi.GeneratedFactory} and calls the
+ * constructor directly.
+ * <p>
+ * The factory also describes the constructor parameters (their types, type arguments and qualifiers) and whether
+ * the class is a singleton or has a scope. EasyDI uses this description instead of inspecting the class by
+ * reflection. When a part of the description can't be written as source code (i.e. a type argument that isn't
+ * accessible from the package of the class), the factory only describes the parameter types and EasyDI inspects
+ * the class by reflection.
+ * <p>
+ * All generated factories are listed in the index file {@value #INDEX}. EasyDI reads this index at runtime and
+ * uses the factories instead of reflection.
+ * Classes for which no factory can be generated (for example non-static inner classes) are skipped.
+ * EasyDI uses reflection for them like before.
+ */
+public class FactoryProcessor extends AbstractProcessor {
+
+    /**
+     * The location of the index file that maps class names to the names of their factories.
+     */
+    static final String INDEX = "META-INF/easydi/factories";
+
+    static final String FACTORY_SUFFIX = "_EasyDIFactory";
+
+    private static final String INJECT_ANNOTATION = "jakarta.inject.Inject";
+
+    private static final String SINGLETON_ANNOTATION = "jakarta.inject.Singleton";
+
+    private static final String SCOPE_ANNOTATION = "jakarta.inject.Scope";
+
+    private static final String QUALIFIER_ANNOTATION = "jakarta.inject.Qualifier";
+
+    private static final String NAMED_ANNOTATION = "jakarta.inject.Named";
+
+    /**
+     * The generated factories of all rounds: binary class name to factory class name.
+     */
+    private final Map<String, String> factories = new TreeMap<>();
+
+    @Override
+    public Set<String> getSupportedAnnotationTypes() {
+        return Set.of("*");
+    }
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        for (TypeElement type : ElementFilter.typesIn(roundEnv.getRootElements())) {
+            processType(type);
+        }
+
+        if (roundEnv.processingOver() && !factories.isEmpty()) {
+            writeIndex();
+        }
+
+        // we don't claim any annotations so that other processors still see them.
+        return false;
+    }
+
+    private void processType(TypeElement type) {
+        if (isInstantiable(type)) {
+            final ExecutableElement constructor = findConstructor(type);
+
+            if (constructor != null && canBeCalledFromFactory(constructor, type)) {
+                generateFactory(type, constructor);
+            }
+        }
+
+        // nested classes aren't part of the root elements
+        for (TypeElement nested : ElementFilter.typesIn(type.getEnclosedElements())) {
+            processType(nested);
+        }
+    }
+
+    /**
+     * Only concrete classes that are either top-level or static nested classes can be created by a factory.
+     */
+    private boolean isInstantiable(TypeElement type) {
+        if (type.getKind() != ElementKind.CLASS && type.getKind() != ElementKind.RECORD) {
+            return false;
+        }
+
+        if (type.getModifiers().contains(Modifier.ABSTRACT)) {
+            return false;
+        }
+
+        // the generated factories of earlier rounds
+        if (type.getSimpleName().toString().endsWith(FACTORY_SUFFIX)) {
+            return false;
+        }
+
+        if (type.getNestingKind() == NestingKind.MEMBER && !type.getModifiers().contains(Modifier.STATIC)) {
+            return false;
+        }
+
+        return type.getNestingKind() == NestingKind.TOP_LEVEL || type.getNestingKind() == NestingKind.MEMBER;
+    }
+
+    /**
+     * The same rules as {@code EasyDI.findConstructor}: If there is only one public constructor, it is used.
+     * Otherwise exactly one public constructor has to be annotated with {@code @Inject}.
+     *
+     * @return the constructor or {@code null} if EasyDI can't decide which constructor to use.
+     */
+    private ExecutableElement findConstructor(TypeElement type) {
+        final List<ExecutableElement> publicConstructors = ElementFilter.constructorsIn(type.getEnclosedElements())
+            .stream()
+            .filter(constructor -> constructor.getModifiers().contains(Modifier.PUBLIC))
+            .toList();
+
+        if (publicConstructors.size() == 1) {
+            return publicConstructors.get(0);
+        }
+
+        final List<ExecutableElement> constructorsWithInject = publicConstructors.stream()
+            .filter(this::hasInjectAnnotation)
+            .toList();
+
+        if (constructorsWithInject.size() == 1) {
+            return constructorsWithInject.get(0);
+        }
+
+        return null;
+    }
+
+    private boolean hasInjectAnnotation(Element element) {
+        return hasAnnotation(element, INJECT_ANNOTATION);
+    }
+
+    private static boolean hasAnnotation(Element element, String annotationName) {
+        return element.getAnnotationMirrors().stream()
+            .anyMatch(annotation -> nameOf(annotation).equals(annotationName));
+    }
+
+    private static String nameOf(AnnotationMirror annotation) {
+        return ((TypeElement) annotation.getAnnotationType().asElement()).getQualifiedName().toString();
+    }
+
+    /**
+     * EasyDI only sees annotations with runtime retention.
+     */
+    private static boolean isVisibleAtRuntime(TypeElement annotationType) {
+        for (AnnotationMirror annotation : annotationType.getAnnotationMirrors()) {
+            if (nameOf(annotation).equals("java.lang.annotation.Retention")) {
+                return annotation.getElementValues().values().stream()
+                    .anyMatch(value -> value.getValue().toString().equals(RetentionPolicy.RUNTIME.name()));
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * A factory lives in the package of the class. Because of this the class, all parameter types and all
+     * thrown exceptions have to be accessible from this package.
+     */
+    private boolean canBeCalledFromFactory(ExecutableElement constructor, TypeElement type) {
+        final PackageElement pkg = processingEnv.getElementUtils().getPackageOf(type);
+
+        if (!isAccessible(type, pkg)) {
+            return false;
+        }
+
+        for (VariableElement parameter : constructor.getParameters()) {
+            if (!isAccessible(erasure(parameter.asType()), pkg)) {
+                return false;
+            }
+        }
+
+        final TypeMirror exception = processingEnv.getElementUtils().getTypeElement("java.lang.Exception").asType();
+        final TypeMirror error = processingEnv.getElementUtils().getTypeElement("java.lang.Error").asType();
+
+        for (TypeMirror thrownType : constructor.getThrownTypes()) {
+            if (!processingEnv.getTypeUtils().isAssignable(thrownType, exception)
+                && !processingEnv.getTypeUtils().isAssignable(thrownType, error)) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private boolean isAccessible(TypeMirror type, PackageElement pkg) {
+        if (type.getKind().isPrimitive()) {
+            return true;
+        }
+
+        if (type instanceof ArrayType arrayType) {
+            return isAccessible(arrayType.getComponentType(), pkg);
+        }
+
+        if (type instanceof DeclaredType declaredType) {
+            return isAccessible((TypeElement) declaredType.asElement(), pkg);
+        }
+
+        return false;
+    }
+
+    private boolean isAccessible(TypeElement type, PackageElement pkg) {
+        final Set<Modifier> modifiers = type.getModifiers();
+
+        if (modifiers.contains(Modifier.PRIVATE)) {
+            return false;
+        }
+
+        final boolean samePackage = processingEnv.getElementUtils().getPackageOf(type).equals(pkg);
+
+        if (!samePackage && !modifiers.contains(Modifier.PUBLIC)) {
+            return false;
+        }
+
+        if (type.getEnclosingElement() instanceof TypeElement enclosingType) {
+            return isAccessible(enclosingType, pkg);
+        }
+
+        return true;
+    }
+
+    private TypeMirror erasure(TypeMirror type) {
+        return type.getKind() == TypeKind.TYPEVAR || type.getKind() == TypeKind.DECLARED
+            ? processingEnv.getTypeUtils().erasure(type)
+            : type;
+    }
+
+    private void generateFactory(TypeElement type, ExecutableElement constructor) {
+        final String packageName = processingEnv.getElementUtils().getPackageOf(type).getQualifiedName().toString();
+        final String binaryName = processingEnv.getElementUtils().getBinaryName(type).toString();
+
+        final String simpleBinaryName = packageName.isEmpty()
+            ? binaryName
+            : binaryName.substring(packageName.length() + 1);
+
+        final String factorySimpleName = simpleBinaryName.replace('$', '_') + FACTORY_SUFFIX;
+        final String factoryName = packageName.isEmpty() ? factorySimpleName : packageName + "." + factorySimpleName;
+
+        final String typeName = processingEnv.getTypeUtils().erasure(type.asType()).toString();
+
+        final StringBuilder arguments = new StringBuilder();
+        final List<? extends VariableElement> parameters = constructor.getParameters();
+        for (int i = 0; i < parameters.size(); i++) {
+            if (i > 0) {
+                arguments.append(", ");
+            }
+            arguments.append("(").append(erasure(parameters.get(i).asType())).append(") arguments[").append(i).append("]");
+        }
+
+        final PackageElement pkg = processingEnv.getElementUtils().getPackageOf(type);
+
+        final StringBuilder parameterTypes = new StringBuilder();
+        for (int i = 0; i < parameters.size(); i++) {
+            if (i > 0) {
+                parameterTypes.append(", ");
+            }
+            parameterTypes.append(erasure(parameters.get(i).asType())).append(".class");
+        }
+
+        final Description description = describe(type, parameters, pkg);
+
+        final StringBuilder source = new StringBuilder();
+        if (!packageName.isEmpty()) {
+            source.append("package ").append(packageName).append(";\n\n");
+        }
+        source.append("/**\n")
+            .append(" * Factory for {@link ").append(typeName).append("}.\n")
+            .append(" * Generated by the EasyDI annotation processor. Do not edit.\n")
+            .append(" */\n")
+            .append("@SuppressWarnings({\"unchecked\", \"rawtypes\"})\n")
+            .append("public final class ").append(factorySimpleName)
+            .append(" implements eu.lestard.easydi.GeneratedFactory<").append(typeName).append("> {\n\n")
+            .append("    @Override\n")
+            .append("    public ").append(typeName).append(" newInstance(Object[] arguments) throws Exception {\n")
+            .append("        return new ").append(typeName).append("(").append(arguments).append(");\n")
+            .append("    }\n\n")
+            .append("    @Override\n")
+            .append("    public Class<?>[] parameterTypes() {\n")
+            .append("        return new Class<?>[] {").append(parameterTypes).append("};\n")
+            .append("    }\n\n")
+            .append("    @Override\n")
+            .append("    public Class<?>[][] typeArguments() {\n")
+            .append("        return ").append(description == null ? "null" : "new Class<?>[][] {" + description.typeArguments + "}")
+            .append(";\n")
+            .append("    }\n\n")
+            .append("    @Override\n")
+            .append("    public Object[] qualifiers() {\n")
+            .append("        return ").append(description == null ? "null" : "new Object[] {" + description.qualifiers + "}")
+            .append(";\n")
+            .append("    }\n\n")
+            .append("    @Override\n")
+            .append("    public boolean singleton() {\n")
+            .append("        return ").append(description != null && description.singleton).append(";\n")
+            .append("    }\n\n")
+            .append("    @Override\n")
+            .append("    public Class<? extends java.lang.annotation.Annotation> scopeAnnotation() {\n")
+            .append("        return ").append(description == null ? "null" : description.scopeAnnotation).append(";\n")
+            .append("    }\n")
+            .append("}\n");
+
+        try {
+            final JavaFileObject file = processingEnv.getFiler().createSourceFile(factoryName, type);
+            try (Writer writer = file.openWriter()) {
+                writer.write(source.toString());
+            }
+            factories.put(binaryName, factoryName);
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                "EasyDI can't generate the factory " + factoryName + ": " + e.getMessage(), type);
+        }
+    }
+
+    /**
+     * The source code of the description of a class and its constructor parameters, see
+     * {@code eu.lestard.easydi.GeneratedFactory}.
+     */
+    private record Description(String typeArguments, String qualifiers, boolean singleton, String scopeAnnotation) {
+    }
+
+    /**
+     * Describe the class and its constructor parameters the same way as EasyDI finds them by reflection.
+     *
+     * @return the description or {@code null} if a part of it can't be accessed from the package of the class.
+     */
+    private Description describe(TypeElement type, List<? extends VariableElement> parameters, PackageElement pkg) {
+        final StringBuilder typeArguments = new StringBuilder();
+        final StringBuilder qualifiers = new StringBuilder();
+
+        for (int i = 0; i < parameters.size(); i++) {
+            if (i > 0) {
+                typeArguments.append(", ");
+                qualifiers.append(", ");
+            }
+
+            final String parameterTypeArguments = describeTypeArguments(parameters.get(i).asType(), pkg);
+            final String qualifier = describeQualifier(parameters.get(i), pkg);
+            if (parameterTypeArguments == null || qualifier == null) {
+                return null;
+            }
+
+            typeArguments.append("{").append(parameterTypeArguments).append("}");
+            qualifiers.append(qualifier);
+        }
+
+        boolean singleton = false;
+        String scopeAnnotation = "null";
+
+        // inherited annotations are included as they are by reflection.
+        for (AnnotationMirror annotation : processingEnv.getElementUtils().getAllAnnotationMirrors(type)) {
+            final TypeElement annotationType = (TypeElement) annotation.getAnnotationType().asElement();
+
+            if (nameOf(annotation).equals(SINGLETON_ANNOTATION)) {
+                singleton = true;
+            } else if (scopeAnnotation.equals("null") && hasAnnotation(annotationType, SCOPE_ANNOTATION)
+                && isVisibleAtRuntime(annotationType)) {
+                if (!isAccessible(annotationType, pkg)) {
+                    return null;
+                }
+                scopeAnnotation = annotationType.getQualifiedName() + ".class";
+            }
+        }
+
+        return new Description(typeArguments.toString(), qualifiers.toString(), singleton, scopeAnnotation);
+    }
+
+    /**
+     * @return the class literals of the type arguments of the given type. Type arguments that are no class types
+     * (i.e. wildcards) are {@code null}. The result is {@code null} if a type argument can't be written as class
+     * literal.
+     */
+    private String describeTypeArguments(TypeMirror type, PackageElement pkg) {
+        if (!(type instanceof DeclaredType declaredType)) {
+            return "";
+        }
+
+        final StringBuilder typeArguments = new StringBuilder();
+
+        for (TypeMirror typeArgument : declaredType.getTypeArguments()) {
+            if (typeArguments.length() > 0) {
+                typeArguments.append(", ");
+            }
+
+            if (typeArgument.getKind() == TypeKind.WILDCARD || typeArgument.getKind() == TypeKind.TYPEVAR) {
+                typeArguments.append("null");
+            } else if (typeArgument instanceof DeclaredType && isAccessible(typeArgument, pkg)) {
+                typeArguments.append(erasure(typeArgument)).append(".class");
+            } else {
+                return null;
+            }
+        }
+
+        return typeArguments.toString();
+    }
+
+    /**
+     * @return the qualifier of the given parameter as it is passed to EasyDI: {@code null}, the name of a
+     * {@code jakarta.inject.Named} qualifier as string literal or the class literal of a qualifier without members.
+     * The result is {@code null} if the qualifier can't be described this way.
+     */
+    private String describeQualifier(VariableElement parameter, PackageElement pkg) {
+        for (AnnotationMirror annotation : parameter.getAnnotationMirrors()) {
+            final TypeElement annotationType = (TypeElement) annotation.getAnnotationType().asElement();
+
+            if (!hasAnnotation(annotationType, QUALIFIER_ANNOTATION) || !isVisibleAtRuntime(annotationType)) {
+                continue;
+            }
+
+            if (nameOf(annotation).equals(NAMED_ANNOTATION)) {
+                for (AnnotationValue value : annotation.getElementValues().values()) {
+                    return processingEnv.getElementUtils().getConstantExpression(value.getValue());
+                }
+            }
+
+            if (!ElementFilter.methodsIn(annotationType.getEnclosedElements()).isEmpty()
+                || !isAccessible(annotationType, pkg)) {
+                return null;
+            }
+
+            return annotationType.getQualifiedName() + ".class";
+        }
+
+        return "null";
+    }
+
+    private void writeIndex() {
+        try {
+            final FileObject file = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "", INDEX);
+            try (Writer writer = file.openWriter()) {
+                for (Map.Entry<String, String> entry : factories.entrySet()) {
+                    writer.write(entry.getKey() + "=" + entry.getValue() + "\n");
+                }
+            }
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                "EasyDI can't write the factory index " + INDEX + ": " + e.getMessage());
+        }
+    }
+}
@@ -1 +1,3 @@
 rootProject.name = "easy-di"
+
+include("easy-di-processor")
@@ -0,0 +1,72 @@
+package eu.lestard.easydi.benchmarks;
+
+import eu.lestard.easydi.EasyDI;
+import jakarta.inject.Singleton;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the cost of a child container per request: Creating the child, overriding a binding and
+ * requesting a type that depends on the override and on shared singletons of the parent.
+ */
+@State(Scope.Benchmark)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ChildContainerBenchmark {
+
+    public static class User {
+    }
+
+    @Singleton
+    public static class Database {
+    }
+
+    public static class Repository {
+        public Repository(Database database) {
+        }
+    }
+
+    public static class RequestHandler {
+        public RequestHandler(User user, Repository repository) {
+        }
+    }
+
+    private EasyDI easyDI;
+
+    private final User user = new User();
+
+    @Setup
+    public void setup() {
+        easyDI = new EasyDI();
+        easyDI.bindInstance(User.class, new User());
+        easyDI.getInstance(RequestHandler.class);
+    }
+
+    @Benchmark
+    public EasyDI createChild() {
+        return easyDI.createChild();
+    }
+
+    @Benchmark
+    public RequestHandler childWithOverride() {
+        try (EasyDI child = easyDI.createChild()) {
+            child.bindInstance(User.class, user);
+            return child.getInstance(RequestHandler.class);
+        }
+    }
+
+    @Benchmark
+    public RequestHandler parentOnly() {
+        return easyDI.getInstance(RequestHandler.class);
+    }
+}
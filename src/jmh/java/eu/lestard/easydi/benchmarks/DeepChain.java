@@ -0,0 +1,263 @@
+package eu.lestard.easydi.benchmarks;
+
+/**
+ * A chain of {@value #DEPTH} classes where every class depends on the next one.
+ * Requesting {@link Chain0} creates the whole chain.
+ */
+public final class DeepChain {
+
+    public static final int DEPTH = 50;
+
+    private DeepChain() {
+    }
+
+    public static class Chain0 {
+        public Chain0(Chain1 next) {
+        }
+    }
+
+    public static class Chain1 {
+        public Chain1(Chain2 next) {
+        }
+    }
+
+    public static class Chain2 {
+        public Chain2(Chain3 next) {
+        }
+    }
+
+    public static class Chain3 {
+        public Chain3(Chain4 next) {
+        }
+    }
+
+    public static class Chain4 {
+        public Chain4(Chain5 next) {
+        }
+    }
+
+    public static class Chain5 {
+        public Chain5(Chain6 next) {
+        }
+    }
+
+    public static class Chain6 {
+        public Chain6(Chain7 next) {
+        }
+    }
+
+    public static class Chain7 {
+        public Chain7(Chain8 next) {
+        }
+    }
+
+    public static class Chain8 {
+        public Chain8(Chain9 next) {
+        }
+    }
+
+    public static class Chain9 {
+        public Chain9(Chain10 next) {
+        }
+    }
+
+    public static class Chain10 {
+        public Chain10(Chain11 next) {
+        }
+    }
+
+    public static class Chain11 {
+        public Chain11(Chain12 next) {
+        }
+    }
+
+    public static class Chain12 {
+        public Chain12(Chain13 next) {
+        }
+    }
+
+    public static class Chain13 {
+        public Chain13(Chain14 next) {
+        }
+    }
+
+    public static class Chain14 {
+        public Chain14(Chain15 next) {
+        }
+    }
+
+    public static class Chain15 {
+        public Chain15(Chain16 next) {
+        }
+    }
+
+    public static class Chain16 {
+        public Chain16(Chain17 next) {
+        }
+    }
+
+    public static class Chain17 {
+        public Chain17(Chain18 next) {
+        }
+    }
+
+    public static class Chain18 {
+        public Chain18(Chain19 next) {
+        }
+    }
+
+    public static class Chain19 {
+        public Chain19(Chain20 next) {
+        }
+    }
+
+    public static class Chain20 {
+        public Chain20(Chain21 next) {
+        }
+    }
+
+    public static class Chain21 {
+        public Chain21(Chain22 next) {
+        }
+    }
+
+    public static class Chain22 {
+        public Chain22(Chain23 next) {
+        }
+    }
+
+    public static class Chain23 {
+        public Chain23(Chain24 next) {
+        }
+    }
+
+    public static class Chain24 {
+        public Chain24(Chain25 next) {
+        }
+    }
+
+    public static class Chain25 {
+        public Chain25(Chain26 next) {
+        }
+    }
+
+    public static class Chain26 {
+        public Chain26(Chain27 next) {
+        }
+    }
+
+    public static class Chain27 {
+        public Chain27(Chain28 next) {
+        }
+    }
+
+    public static class Chain28 {
+        public Chain28(Chain29 next) {
+        }
+    }
+
+    public static class Chain29 {
+        public Chain29(Chain30 next) {
+        }
+    }
+
+    public static class Chain30 {
+        public Chain30(Chain31 next) {
+        }
+    }
+
+    public static class Chain31 {
+        public Chain31(Chain32 next) {
+        }
+    }
+
+    public static class Chain32 {
+        public Chain32(Chain33 next) {
+        }
+    }
+
+    public static class Chain33 {
+        public Chain33(Chain34 next) {
+        }
+    }
+
+    public static class Chain34 {
+        public Chain34(Chain35 next) {
+        }
+    }
+
+    public static class Chain35 {
+        public Chain35(Chain36 next) {
+        }
+    }
+
+    public static class Chain36 {
+        public Chain36(Chain37 next) {
+        }
+    }
+
+    public static class Chain37 {
+        public Chain37(Chain38 next) {
+        }
+    }
+
+    public static class Chain38 {
+        public Chain38(Chain39 next) {
+        }
+    }
+
+    public static class Chain39 {
+        public Chain39(Chain40 next) {
+        }
+    }
+
+    public static class Chain40 {
+        public Chain40(Chain41 next) {
+        }
+    }
+
+    public static class Chain41 {
+        public Chain41(Chain42 next) {
+        }
+    }
+
+    public static class Chain42 {
+        public Chain42(Chain43 next) {
+        }
+    }
+
+    public static class Chain43 {
+        public Chain43(Chain44 next) {
+        }
+    }
+
+    public static class Chain44 {
+        public Chain44(Chain45 next) {
+        }
+    }
+
+    public static class Chain45 {
+        public Chain45(Chain46 next) {
+        }
+    }
+
+    public static class Chain46 {
+        public Chain46(Chain47 next) {
+        }
+    }
+
+    public static class Chain47 {
+        public Chain47(Chain48 next) {
+        }
+    }
+
+    public static class Chain48 {
+        public Chain48(Chain49 next) {
+        }
+    }
+
+    public static class Chain49 {
+        public Chain49() {
+        }
+    }
+}
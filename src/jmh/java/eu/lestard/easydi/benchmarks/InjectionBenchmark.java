@@ -0,0 +1,306 @@
+package eu.lestard.easydi.benchmarks;
+
+import eu.lestard.easydi.EasyDI;
+import eu.lestard.easydi.Key;
+import eu.lestard.easydi.Pool;
+import eu.lestard.easydi.examples.coffee.BeanContainer;
+import eu.lestard.easydi.examples.coffee.CoffeeMachine;
+import eu.lestard.easydi.examples.coffee.WaterSupply;
+import eu.lestard.easydi.examples.coffee.WaterTank;
+import jakarta.inject.Inject;
+import jakarta.inject.Named;
+import jakarta.inject.Provider;
+import jakarta.inject.Singleton;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for the hot paths of {@link EasyDI#getInstance(Class)}.
+ * <p>
+ * The benchmark modes (throughput and average time) and the {@code gc} profiler for the allocation rate
+ * are configured in the {@code jmh} block of the gradle build. Run with {@code ./gradlew jmh}.
+ * <p>
+ * Benchmarks of optional features get a container of their own (see the nested states), so that their
+ * configuration doesn't change the common container of the other benchmarks.
+ */
+@State(Scope.Benchmark)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class InjectionBenchmark {
+
+    @Singleton
+    public static class CachedSingleton {
+    }
+
+    public static class A {
+    }
+
+    public static class B {
+    }
+
+    public static class C {
+    }
+
+    public static class NoParams {
+        public NoParams() {
+        }
+    }
+
+    public static class ThreeParams {
+        public ThreeParams(A a, B b, C c) {
+        }
+    }
+
+    public static class TenParams {
+        public TenParams(A a1, B b1, C c1, A a2, B b2, C c2, A a3, B b3, C c3, A a4) {
+        }
+    }
+
+    public interface Configured {
+    }
+
+    public static class ConfiguredImpl implements Configured {
+    }
+
+    public static class WithProvider {
+        final Provider<ThreeParams> provider;
+
+        public WithProvider(Provider<ThreeParams> provider) {
+            this.provider = provider;
+        }
+    }
+
+    public static class QualifiedParams {
+        public QualifiedParams(@Named("first") Configured first, @Named("second") Configured second) {
+        }
+    }
+
+    public static class AllHandlers {
+        public AllHandlers(List<CachedSingleton> handlers) {
+        }
+    }
+
+    public static class FieldInjected {
+        @Inject
+        A a;
+
+        @Inject
+        B b;
+
+        @Inject
+        C c;
+    }
+
+    public static class WithPool {
+        final Pool<TenParams> pool;
+
+        public WithPool(Pool<TenParams> pool) {
+            this.pool = pool;
+        }
+    }
+
+    /**
+     * Qualified bindings of {@link Configured}, kept apart from the common container so that they don't change
+     * the other benchmarks.
+     */
+    @State(Scope.Benchmark)
+    public static class QualifierState {
+
+        static final Key<Configured> FIRST = Key.of(Configured.class, "first");
+
+        EasyDI easyDI;
+
+        @Setup
+        public void setup() {
+            easyDI = new EasyDI();
+
+            final ConfiguredImpl configured = new ConfiguredImpl();
+            easyDI.bindInstance(FIRST, configured);
+            easyDI.bindInstance(Key.of(Configured.class, "second"), configured);
+        }
+    }
+
+    /**
+     * A container with a set multibinding of {@link CachedSingleton}.
+     */
+    @State(Scope.Benchmark)
+    public static class MultibindingState {
+
+        EasyDI easyDI;
+
+        @Setup
+        public void setup() {
+            easyDI = new EasyDI();
+            easyDI.bindIntoSet(CachedSingleton.class, CachedSingleton.class);
+        }
+    }
+
+    /**
+     * A container with member injection, which the common container doesn't use.
+     */
+    @State(Scope.Benchmark)
+    public static class MemberInjectionState {
+
+        EasyDI easyDI;
+
+        @Setup
+        public void setup() {
+            easyDI = new EasyDI();
+            easyDI.setMemberInjection(true);
+        }
+    }
+
+    /**
+     * A container of its own for comparing single requests with bulk creation.
+     */
+    @State(Scope.Benchmark)
+    public static class BulkState {
+
+        EasyDI easyDI;
+
+        @Setup
+        public void setup() {
+            easyDI = new EasyDI();
+        }
+    }
+
+    /**
+     * The pool of {@link TenParams} of a container of its own.
+     */
+    @State(Scope.Benchmark)
+    public static class PoolState {
+
+        Pool<TenParams> pool;
+
+        @Setup
+        public void setup() {
+            pool = new EasyDI().getInstance(WithPool.class).pool;
+        }
+    }
+
+    private EasyDI easyDI;
+
+    private Provider<ThreeParams> injectedProvider;
+
+    private PrintStream originalOut;
+
+    @Setup
+    public void setup() {
+        // the coffee example prints to stdout in its constructors
+        originalOut = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+
+        easyDI = new EasyDI();
+
+        easyDI.bindInterface(WaterSupply.class, WaterTank.class);
+        easyDI.bindProvider(BeanContainer.class, BeanContainer::new);
+
+        final ConfiguredImpl configured = new ConfiguredImpl();
+        easyDI.bindProvider(Configured.class, () -> configured);
+
+        injectedProvider = easyDI.getInstance(WithProvider.class).provider;
+
+        easyDI.getInstance(CachedSingleton.class);
+    }
+
+    @TearDown
+    public void tearDown() {
+        System.setOut(originalOut);
+    }
+
+    @Benchmark
+    public CachedSingleton cachedSingleton() {
+        return easyDI.getInstance(CachedSingleton.class);
+    }
+
+    @Benchmark
+    public NoParams prototypeWithoutParameters() {
+        return easyDI.getInstance(NoParams.class);
+    }
+
+    @Benchmark
+    public ThreeParams prototypeWithThreeParameters() {
+        return easyDI.getInstance(ThreeParams.class);
+    }
+
+    @Benchmark
+    public TenParams prototypeWithTenParameters() {
+        return easyDI.getInstance(TenParams.class);
+    }
+
+    @Benchmark
+    public DeepChain.Chain0 deepChain() {
+        return easyDI.getInstance(DeepChain.Chain0.class);
+    }
+
+    @Benchmark
+    public CoffeeMachine coffeeExample() {
+        return easyDI.getInstance(CoffeeMachine.class);
+    }
+
+    @Benchmark
+    public Configured bindProviderLookup() {
+        return easyDI.getInstance(Configured.class);
+    }
+
+    @Benchmark
+    public Configured qualifiedLookup(QualifierState state) {
+        return state.easyDI.getInstance(QualifierState.FIRST);
+    }
+
+    @Benchmark
+    public QualifiedParams prototypeWithQualifiedParameters(QualifierState state) {
+        return state.easyDI.getInstance(QualifiedParams.class);
+    }
+
+    @Benchmark
+    public AllHandlers multibindingOfSingletons(MultibindingState state) {
+        return state.easyDI.getInstance(AllHandlers.class);
+    }
+
+    @Benchmark
+    public FieldInjected prototypeWithInjectedFields(MemberInjectionState state) {
+        return state.easyDI.getInstance(FieldInjected.class);
+    }
+
+    @Benchmark
+    public List<ThreeParams> hundredPrototypesInLoop(BulkState state) {
+        final List<ThreeParams> instances = new ArrayList<>(100);
+        for (int i = 0; i < 100; i++) {
+            instances.add(state.easyDI.getInstance(ThreeParams.class));
+        }
+        return instances;
+    }
+
+    @Benchmark
+    public List<ThreeParams> hundredPrototypesInBulk(BulkState state) {
+        return state.easyDI.getInstances(ThreeParams.class, 100);
+    }
+
+    @Benchmark
+    public TenParams pooledBorrowAndReturn(PoolState state) {
+        try (Pool.Lease<TenParams> lease = state.pool.borrow()) {
+            return lease.get();
+        }
+    }
+
+    @Benchmark
+    public ThreeParams injectedProviderGet() {
+        return injectedProvider.get();
+    }
+}
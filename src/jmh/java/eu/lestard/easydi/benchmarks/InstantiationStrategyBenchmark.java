@@ -0,0 +1,90 @@
+package eu.lestard.easydi.benchmarks;
+
+import eu.lestard.easydi.EasyDI;
+import eu.lestard.easydi.InstantiationStrategy;
+import eu.lestard.easydi.Instantiator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the reflective instantiation with the method handle based instantiation,
+ * both for a single instantiator and for a complete {@link EasyDI#getInstance(Class)} call.
+ * A direct constructor call is used as baseline.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class InstantiationStrategyBenchmark {
+
+    public static class A {
+        public A() {
+        }
+    }
+
+    public static class B {
+        public B() {
+        }
+    }
+
+    public static class C {
+        public C() {
+        }
+    }
+
+    public static class Example {
+        public Example(A a, B b, C c) {
+        }
+    }
+
+    @Param({"REFLECTION", "METHOD_HANDLES"})
+    public String strategy;
+
+    private EasyDI easyDI;
+
+    private Instantiator<Example> instantiator;
+
+    private Object[] arguments;
+
+    @Setup
+    public void setup() throws Exception {
+        final InstantiationStrategy instantiationStrategy = "REFLECTION".equals(strategy)
+            ? InstantiationStrategy.REFLECTION
+            : InstantiationStrategy.METHOD_HANDLES;
+
+        easyDI = new EasyDI();
+        easyDI.setInstantiationStrategy(instantiationStrategy);
+
+        instantiator = instantiationStrategy.createInstantiator(
+            Example.class.getConstructor(A.class, B.class, C.class));
+        arguments = new Object[] {new A(), new B(), new C()};
+    }
+
+    @Benchmark
+    public Example directConstructorCall() {
+        return new Example((A) arguments[0], (B) arguments[1], (C) arguments[2]);
+    }
+
+    @Benchmark
+    public Example instantiator() throws Exception {
+        return instantiator.newInstance(arguments);
+    }
+
+    @Benchmark
+    public Example getInstance() {
+        return easyDI.getInstance(Example.class);
+    }
+}
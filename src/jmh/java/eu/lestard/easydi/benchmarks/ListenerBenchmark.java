@@ -0,0 +1,76 @@
+package eu.lestard.easydi.benchmarks;
+
+import eu.lestard.easydi.EasyDI;
+import eu.lestard.easydi.InjectionListener;
+import eu.lestard.easydi.InjectionMetrics;
+import jakarta.inject.Singleton;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the overhead of an {@link InjectionListener}. With {@code NONE} there must be no difference to
+ * the corresponding benchmarks of {@link InjectionBenchmark}.
+ */
+@State(Scope.Benchmark)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ListenerBenchmark {
+
+    @Singleton
+    public static class CachedSingleton {
+    }
+
+    public static class A {
+    }
+
+    public static class B {
+    }
+
+    public static class C {
+    }
+
+    public static class ThreeParams {
+        public ThreeParams(A a, B b, C c) {
+        }
+    }
+
+    @Param({"NONE", "NO_OP", "METRICS"})
+    public String listener;
+
+    private EasyDI easyDI;
+
+    @Setup
+    public void setup() {
+        easyDI = new EasyDI();
+
+        switch (listener) {
+            case "NO_OP" -> easyDI.setInjectionListener(new InjectionListener() {
+            });
+            case "METRICS" -> easyDI.setInjectionListener(new InjectionMetrics());
+            default -> easyDI.setInjectionListener(null);
+        }
+
+        easyDI.getInstance(CachedSingleton.class);
+    }
+
+    @Benchmark
+    public CachedSingleton cachedSingleton() {
+        return easyDI.getInstance(CachedSingleton.class);
+    }
+
+    @Benchmark
+    public ThreeParams prototypeWithThreeParameters() {
+        return easyDI.getInstance(ThreeParams.class);
+    }
+}
@@ -0,0 +1,81 @@
+package eu.lestard.easydi.benchmarks;
+
+import eu.lestard.easydi.EasyDI;
+import eu.lestard.easydi.examples.coffee.BeanContainer;
+import eu.lestard.easydi.examples.coffee.CoffeeMachine;
+import eu.lestard.easydi.examples.coffee.WaterSupply;
+import eu.lestard.easydi.examples.coffee.WaterTank;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the startup of a new {@link EasyDI} instance that resolves the dependency graph with reflection
+ * with one that loads a snapshot of the graph ({@link EasyDI#loadSnapshot(java.io.InputStream)}).
+ * <p>
+ * Every invocation creates a new EasyDI instance and requests the root types once, so all
+ * caches of EasyDI are cold. The reflection data that the JVM caches per class is warm after the first invocation.
+ */
+@State(Scope.Benchmark)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StartupBenchmark {
+
+    private byte[] snapshot;
+
+    private PrintStream originalOut;
+
+    @Setup
+    public void setup() throws IOException {
+        // the coffee example prints to stdout in its constructors
+        originalOut = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+        configure(new EasyDI()).writeSnapshot(output, DeepChain.Chain0.class, CoffeeMachine.class);
+        snapshot = output.toByteArray();
+    }
+
+    @TearDown
+    public void tearDown() {
+        System.setOut(originalOut);
+    }
+
+    private static EasyDI configure(EasyDI easyDI) {
+        easyDI.bindInterface(WaterSupply.class, WaterTank.class);
+        easyDI.bindProvider(BeanContainer.class, BeanContainer::new);
+        return easyDI;
+    }
+
+    @Benchmark
+    public Object coldReflection() {
+        final EasyDI easyDI = configure(new EasyDI());
+
+        easyDI.getInstance(DeepChain.Chain0.class);
+        return easyDI.getInstance(CoffeeMachine.class);
+    }
+
+    @Benchmark
+    public Object fromSnapshot() throws IOException {
+        final EasyDI easyDI = configure(new EasyDI());
+        easyDI.loadSnapshot(new ByteArrayInputStream(snapshot));
+
+        easyDI.getInstance(DeepChain.Chain0.class);
+        return easyDI.getInstance(CoffeeMachine.class);
+    }
+}
@@ -0,0 +1,382 @@
+package eu.lestard.easydi;
+
+import jakarta.inject.Provider;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+
+/**
+ * A {@link Scope} that caches the instances of expensive types, i.e. parsers with large dictionaries, but in
+ * contrast to singletons doesn't keep them forever.
+ * <p>
+ * The scope keeps at most the given number of instances. When another instance is added to a full cache, the least
+ * recently used instance is evicted. When an expiry is given, instances are evicted when they are older than the
+ * expiry and a new instance is created on the next request.
+ *
+ * <pre>{@code
+ * CacheScope cacheScope = new CacheScope(100, Duration.ofMinutes(10));
+ * easyDI.bindScope(Cached.class, cacheScope);
+ * }</pre>
+ *<p>
+ * As a {@link Scope} the cache only gets the class type of the requested instance and keeps one instance per class.
+ * Several instances of the same class, i.e. one client per tenant, are cached with an additional key by
+ * {@link #get(Class, Object, Provider)}, typically in a provider:
+ *
+ * <pre>{@code
+ * easyDI.bindProvider(TenantClient.class,
+ *     () -> cacheScope.get(TenantClient.class, currentTenant(), () -> new TenantClient(currentTenant())));
+ * }</pre>
+ *<p>
+ * Evicted instances are passed to the disposer. By default instances that implement {@link AutoCloseable} are
+ * closed. The disposer is called by the thread whose request caused the eviction and should return quickly.
+ * Exceptions of the disposer are thrown to this thread.
+ *<p>
+ * Requests of cached instances only read a concurrent map and don't lock. They record the access in a small ring
+ * buffer that is applied to an access-ordered map when an instance is added, so finding the least recently used
+ * instance doesn't depend on the size of the cache. Only adding and evicting instances takes a lock. The order is
+ * approximate: When there are more hits between two insertions than the buffer holds, the oldest hits are dropped.
+ * The instances are created and disposed outside of the lock: When two threads create an instance for the same key
+ * at the same time, one of them is cached and the other one is disposed right away.
+ */
+public final class CacheScope implements Scope {
+
+    /**
+     * The number of hits that are recorded between two insertions. Has to be a power of two.
+     */
+    private static final int ACCESS_BUFFER_SIZE = 64;
+
+    private final int maximumSize;
+
+    private final long expireAfterNanos;
+
+    private final Consumer<Object> disposer;
+
+    private final LongSupplier clock;
+
+    /**
+     * The cached entries by their class type or, for instances with an additional key, their {@link CacheKey}.
+     */
+    private final Map<Object, Entry> entries = new ConcurrentHashMap<>();
+
+    /**
+     * The cached entries from the least to the most recently used one. Guarded by {@link #evictionLock}.
+     */
+    private final Map<Object, Entry> usageOrder = new LinkedHashMap<>(16, 0.75f, true);
+
+    private final ReentrantLock evictionLock = new ReentrantLock();
+
+    /**
+     * The last hits as ring buffer. Hits overwrite older ones without a lock, so hits may be lost.
+     */
+    private final AtomicReferenceArray<Entry> accessBuffer = new AtomicReferenceArray<>(ACCESS_BUFFER_SIZE);
+
+    private final AtomicLong accessCount = new AtomicLong();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * The key of an instance that is cached with an additional key.
+     */
+    private record CacheKey(Class<?> type, Object key) {
+    }
+
+    /**
+     * A cached instance with the time of its creation.
+     */
+    private static final class Entry {
+        final Object key;
+        final Class<?> type;
+        final Object instance;
+        final long created;
+
+        Entry(Object key, Class<?> type, Object instance, long created) {
+            this.key = key;
+            this.type = type;
+            this.instance = instance;
+            this.created = created;
+        }
+    }
+
+    /**
+     * Create a cache scope whose instances don't expire.
+     *
+     * @param maximumSize the maximum number of cached instances.
+     * @throws java.lang.IllegalArgumentException if the size isn't positive.
+     */
+    public CacheScope(int maximumSize) {
+        this(maximumSize, Duration.ZERO);
+    }
+
+    /**
+     * Create a cache scope whose evicted instances are closed if they implement {@link AutoCloseable}.
+     *
+     * @param maximumSize the maximum number of cached instances.
+     * @param expireAfter the time after the creation of an instance when it's evicted. {@link Duration#ZERO} for
+     *                    instances that don't expire.
+     * @throws java.lang.IllegalArgumentException if the size isn't positive or the expiry is negative.
+     */
+    public CacheScope(int maximumSize, Duration expireAfter) {
+        this(maximumSize, expireAfter, CacheScope::close);
+    }
+
+    /**
+     * @param maximumSize the maximum number of cached instances.
+     * @param expireAfter the time after the creation of an instance when it's evicted. {@link Duration#ZERO} for
+     *                    instances that don't expire.
+     * @param disposer    is called with every instance that is evicted.
+     * @throws java.lang.IllegalArgumentException if the size isn't positive or the expiry is negative.
+     */
+    public CacheScope(int maximumSize, Duration expireAfter, Consumer<Object> disposer) {
+        this(maximumSize, expireAfter, disposer, System::nanoTime);
+    }
+
+    CacheScope(int maximumSize, Duration expireAfter, Consumer<Object> disposer, LongSupplier clock) {
+        if (maximumSize <= 0) {
+            throw new IllegalArgumentException("The maximum size has to be positive, but was " + maximumSize + ".");
+        }
+        if (expireAfter.isNegative()) {
+            throw new IllegalArgumentException("The expiry must not be negative, but was " + expireAfter + ".");
+        }
+
+        this.maximumSize = maximumSize;
+        this.expireAfterNanos = expireAfter.toNanos();
+        this.disposer = disposer;
+        this.clock = clock;
+    }
+
+    @Override
+    public <T> T get(Class<T> type, Provider<T> unscopedProvider) {
+        return getOrCreate(type, type, unscopedProvider);
+    }
+
+    /**
+     * Get the cached instance of the given type for the given key, i.e. the client of a tenant. Instances with
+     * different keys are cached separately and each counts towards the maximum size.
+     *
+     * @param type             the class type of the instance.
+     * @param key              the additional key. Keys are compared with {@link Object#equals(Object)}. With
+     *                         {@code null} the instance of the scope is returned.
+     * @param unscopedProvider creates a new instance when none is cached for the type and key.
+     * @param <T>              the generic type of the class.
+     * @return the cached or new instance.
+     */
+    public <T> T get(Class<T> type, Object key, Provider<T> unscopedProvider) {
+        return getOrCreate(cacheKey(type, key), type, unscopedProvider);
+    }
+
+    private <T> T getOrCreate(Object key, Class<T> type, Provider<T> unscopedProvider) {
+        final long now = clock.getAsLong();
+
+        final Entry entry = entries.get(key);
+        if (entry != null) {
+            if (!isExpired(entry, now)) {
+                hits.increment();
+                recordAccess(entry);
+                return type.cast(entry.instance);
+            }
+            evict(entry);
+        }
+
+        misses.increment();
+
+        // computeIfAbsent can't be used because the creation may request other instances of the scope
+        final T instance = unscopedProvider.get();
+        if (instance == null) {
+            return null;
+        }
+
+        final Entry newEntry = new Entry(key, type, instance, clock.getAsLong());
+        final Entry otherEntry = entries.putIfAbsent(key, newEntry);
+
+        if (otherEntry != null) {
+            disposer.accept(instance);
+            recordAccess(otherEntry);
+            return type.cast(otherEntry.instance);
+        }
+
+        final List<Entry> evictedEntries = new ArrayList<>(1);
+
+        evictionLock.lock();
+        try {
+            drainAccessBuffer();
+
+            // the entry may have been invalidated in the meantime.
+            if (entries.get(key) == newEntry) {
+                usageOrder.put(key, newEntry);
+            }
+
+            final Iterator<Entry> leastRecentlyUsed = usageOrder.values().iterator();
+            while (usageOrder.size() > maximumSize && leastRecentlyUsed.hasNext()) {
+                final Entry evictedEntry = leastRecentlyUsed.next();
+                leastRecentlyUsed.remove();
+
+                if (entries.remove(evictedEntry.key, evictedEntry)) {
+                    evictedEntries.add(evictedEntry);
+                }
+            }
+        } finally {
+            evictionLock.unlock();
+        }
+
+        evictedEntries.forEach(this::dispose);
+        return instance;
+    }
+
+    /**
+     * Instances of the scope are keyed by their class type only, so that hits don't allocate.
+     */
+    private static Object cacheKey(Class<?> type, Object key) {
+        return key == null ? type : new CacheKey(type, key);
+    }
+
+    private boolean isExpired(Entry entry, long now) {
+        return expireAfterNanos > 0 && now - entry.created >= expireAfterNanos;
+    }
+
+    private void recordAccess(Entry entry) {
+        accessBuffer.lazySet((int) (accessCount.getAndIncrement() & (ACCESS_BUFFER_SIZE - 1)), entry);
+    }
+
+    /**
+     * Apply the recorded hits to the usage order, from the oldest to the newest one. Is called with the
+     * {@link #evictionLock}.
+     */
+    private void drainAccessBuffer() {
+        final long end = accessCount.get();
+
+        for (long index = end - ACCESS_BUFFER_SIZE; index < end; index++) {
+            final Entry entry = accessBuffer.getAndSet((int) (index & (ACCESS_BUFFER_SIZE - 1)), null);
+
+            // a hit of an evicted entry doesn't count for a new entry of the same key.
+            if (entry != null && entries.get(entry.key) == entry) {
+                // the access-ordered map moves the entry to the end
+                usageOrder.get(entry.key);
+            }
+        }
+    }
+
+    /**
+     * Evict all instances that are expired. Expired instances are evicted anyway when they are requested.
+     * This method can be called regularly to dispose them earlier.
+     */
+    public void cleanUp() {
+        final long now = clock.getAsLong();
+
+        for (Entry entry : entries.values()) {
+            if (isExpired(entry, now)) {
+                evict(entry);
+            }
+        }
+    }
+
+    /**
+     * Evict the instances of the given type if they are cached, including those that are cached with
+     * an additional key.
+     *
+     * @param type the class type of the instances.
+     */
+    public void invalidate(Class<?> type) {
+        for (Entry entry : entries.values()) {
+            if (entry.type == type) {
+                evict(entry);
+            }
+        }
+    }
+
+    /**
+     * Evict the instance of the given type and key if it is cached.
+     *
+     * @param type the class type of the instance.
+     * @param key  the additional key of the instance, see {@link #get(Class, Object, Provider)}. With
+     *             {@code null} the instance of the scope is evicted.
+     */
+    public void invalidate(Class<?> type, Object key) {
+        final Entry entry = entries.get(cacheKey(type, key));
+
+        if (entry != null) {
+            evict(entry);
+        }
+    }
+
+    /**
+     * Evict all instances, i.e. when the application is shut down.
+     */
+    public void invalidateAll() {
+        for (Entry entry : entries.values()) {
+            evict(entry);
+        }
+    }
+
+    private void evict(Entry entry) {
+        // only the thread that actually removes the entry disposes the instance
+        if (entries.remove(entry.key, entry)) {
+            evictionLock.lock();
+            try {
+                usageOrder.remove(entry.key, entry);
+            } finally {
+                evictionLock.unlock();
+            }
+
+            dispose(entry);
+        }
+    }
+
+    private void dispose(Entry entry) {
+        evictions.increment();
+        disposer.accept(entry.instance);
+    }
+
+    /**
+     * @return the number of instances that are cached at the moment.
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * @return how often a cached instance was returned.
+     */
+    public long hits() {
+        return hits.sum();
+    }
+
+    /**
+     * @return how often a new instance had to be created because none was cached.
+     */
+    public long misses() {
+        return misses.sum();
+    }
+
+    /**
+     * @return how many instances were evicted because of the size, the expiry or an invalidation.
+     */
+    public long evictions() {
+        return evictions.sum();
+    }
+
+    private static void close(Object instance) {
+        if (instance instanceof AutoCloseable closeable) {
+            try {
+                closeable.close();
+            } catch (RuntimeException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new IllegalStateException("The evicted instance of [" + instance.getClass().getName()
+                    + "] couldn't be closed.", e);
+            }
+        }
+    }
+}
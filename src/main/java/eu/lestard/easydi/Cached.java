@@ -0,0 +1,25 @@
+package eu.lestard.easydi;
+
+import jakarta.inject.Scope;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Classes with this annotation are expensive to create but shouldn't be kept forever like singletons.
+ * It is typically bound to a {@link CacheScope} that defines how many instances are kept and for how long:
+ *
+ * <pre>{@code
+ * CacheScope cacheScope = new CacheScope(100, Duration.ofMinutes(10));
+ * easyDI.bindScope(Cached.class, cacheScope);
+ * }</pre>
+ */
+@Scope
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface Cached {
+}
@@ -2,19 +2,46 @@ package eu.lestard.easydi;
 
 import jakarta.inject.Inject;
 import jakarta.inject.Provider;
+import jakarta.inject.Qualifier;
 import jakarta.inject.Singleton;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.annotation.Annotation;
 import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Member;
+import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.lang.reflect.Parameter;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * EasyDI main class.
@@ -26,319 +53,2708 @@ import java.util.Set;
  *
  * MyClass instance = easyDI.getInstance(MyClass.class);
  * }</pre>
+ *<p>
+ * EasyDI is thread-safe. Existing singletons are returned without any locking. When multiple threads request
+ * the same singleton for the first time at once, only one of them creates the instance and the others wait for it.
+ * Instances of unrelated types are created in parallel.
+ *<p>
+ * The creation of instances is reported to Java Flight Recorder with the events {@code EasyDI.Instantiate},
+ * {@code EasyDI.ProviderCall} and {@code EasyDI.SingletonCreated}.
  */
-public class EasyDI {
+public class EasyDI implements Injector, AutoCloseable {
+
+    /**
+     * The types that are currently requested by the calling thread. This is used to find cyclic dependencies
+     * that are caused by constructors or providers that request instances from EasyDI themselves.
+     * Child containers share the stacks of their parent.
+     */
+    private final ThreadLocal<ResolutionStack> resolutionStacks;
+
+    /**
+     * The parent of a child container that was created with {@link #createChild()} or {@code null}.
+     */
+    private final EasyDI parent;
+
+    /**
+     * The configuration version of the parent (see {@link #effectiveConfigurationVersion()}) that the cached plans
+     * of a child container were created with.
+     */
+    private volatile int parentConfigurationVersion;
+
+    /**
+     * A map with all classes that are marked as singleton and the actual singleton instance.
+     * The keys are the identities of the plans (see {@link ResolutionPlan#id}).
+     * A frozen injector shares this map with the instance it was created from.
+     */
+    private final Map<Object, Object> singletonInstances;
+
+    /**
+     * The singletons that are currently created by some thread. Other threads that request
+     * the same singleton wait for the future instead of creating a second instance.
+     * A frozen injector shares this map with the instance it was created from.
+     */
+    private final Map<Object, SingletonCreation> singletonsInCreation;
+
+    /**
+     * A set of classes that are marked to be treated as singleton even if they aren't annotated as singleton.
+     */
+    private final Set<Class<?>> singletonClasses;
+
+    /**
+     * This map stores the implementation type (value) that should be used for an interface type or
+     * the {@link Key} of a qualified binding (key).
+     */
+    private final Map<Object, Class> interfaceMappings;
+
+    /**
+     * This map stores providers for given class types and {@link Key}s of qualified bindings.
+     */
+    private final Map<Object, Provider> providers;
+
+    /**
+     * This map stores the implementing classes that are bound with {@link #bindIntoSet(Class, Class)}
+     * (value) for the element type (key).
+     */
+    private final Map<Class<?>, List<Class<?>>> setBindings;
+
+    /**
+     * This map stores the implementing classes by their names that are bound with
+     * {@link #bindIntoMap(Class, String, Class)} (value) for the element type (key).
+     */
+    private final Map<Class<?>, Map<String, Class<?>>> mapBindings;
+
+    /**
+     * This map stores the scope (value) that is used for the classes with a scope annotation (key).
+     */
+    private final Map<Class<? extends Annotation>, Scope> scopes;
+
+    /**
+     * The maximum number of idle instances (value) of the pools of a type (key), see {@link #setPoolSize(Class, int)}.
+     */
+    private final Map<Class<?>, Integer> poolSizes;
+
+    /**
+     * The pools that were injected by this instance. The keys are the requested types of the pools
+     * (see {@link ResolutionPlan.Dependency#requested}).
+     */
+    private final Map<Object, Pool<?>> pools = new ConcurrentHashMap<>();
+
+    /**
+     * This map caches the resolution plan for every class type and {@link Key} that was requested.
+     * It is cleared every time the configuration is changed.
+     */
+    private final Map<Object, ResolutionPlan<?>> plans = new ConcurrentHashMap<>();
+
+    /**
+     * Is incremented every time the configuration is changed. Injected providers use this to
+     * find out if their cached resolution is still valid.
+     */
+    private volatile int configurationVersion;
+
+    /**
+     * The strategy that is used to create the instantiators for constructors.
+     */
+    private volatile InstantiationStrategy instantiationStrategy = InstantiationStrategy.GENERATED_FACTORIES;
+
+    /**
+     * {@code true} if fields and methods that are annotated with {@link jakarta.inject.Inject} are injected.
+     */
+    private volatile boolean memberInjection;
+
+    /**
+     * The listener that is notified about the work of EasyDI or {@code null} if there is none.
+     */
+    private volatile InjectionListener injectionListener;
+
+    /**
+     * The trace that records all constructions or {@code null} if tracing is disabled.
+     */
+    private volatile InjectionTrace injectionTrace;
+
+    /**
+     * The snapshot of the dependency graph that was loaded with {@link #loadSnapshot(InputStream)}.
+     */
+    private volatile GraphSnapshot snapshot = GraphSnapshot.EMPTY;
+
+    /**
+     * {@code true} if this instance was created by {@link #freeze()}. The configuration of
+     * a frozen instance can't be changed anymore.
+     */
+    private final boolean frozen;
+
+    /**
+     * {@code true} after {@link #close()} was called.
+     */
+    private volatile boolean closed;
+
+    /**
+     * Create a new EasyDI instance with an empty configuration.
+     */
+    public EasyDI() {
+        resolutionStacks = ThreadLocal.withInitial(ResolutionStack::new);
+        parent = null;
+        singletonInstances = new ConcurrentHashMap<>();
+        singletonsInCreation = new ConcurrentHashMap<>();
+        singletonClasses = ConcurrentHashMap.newKeySet();
+        interfaceMappings = new ConcurrentHashMap<>();
+        providers = new ConcurrentHashMap<>();
+        setBindings = new ConcurrentHashMap<>();
+        mapBindings = new ConcurrentHashMap<>();
+        scopes = new ConcurrentHashMap<>();
+        poolSizes = new ConcurrentHashMap<>();
+        frozen = false;
+    }
+
+    /**
+     * Create a child container of the given EasyDI instance with an empty configuration of its own.
+     * None of the maps allocates its table before something is put into it.
+     */
+    private EasyDI(EasyDI parent, int parentConfigurationVersion) {
+        resolutionStacks = parent.resolutionStacks;
+        this.parent = parent;
+        this.parentConfigurationVersion = parentConfigurationVersion;
+        singletonInstances = new ConcurrentHashMap<>();
+        singletonsInCreation = new ConcurrentHashMap<>();
+        singletonClasses = ConcurrentHashMap.newKeySet();
+        interfaceMappings = new ConcurrentHashMap<>();
+        providers = new ConcurrentHashMap<>();
+        setBindings = new ConcurrentHashMap<>();
+        mapBindings = new ConcurrentHashMap<>();
+        scopes = new ConcurrentHashMap<>();
+        poolSizes = new ConcurrentHashMap<>();
+        instantiationStrategy = parent.instantiationStrategy;
+        memberInjection = parent.memberInjection;
+        snapshot = parent.snapshot;
+        injectionListener = parent.injectionListener;
+        injectionTrace = parent.injectionTrace;
+        frozen = false;
+    }
+
+    /**
+     * Create a frozen copy of the given EasyDI instance.
+     */
+    private EasyDI(EasyDI configuration) {
+        resolutionStacks = configuration.resolutionStacks;
+        parent = configuration.parent;
+        parentConfigurationVersion = configuration.parentConfigurationVersion;
+        singletonInstances = configuration.singletonInstances;
+        singletonsInCreation = configuration.singletonsInCreation;
+        singletonClasses = Set.copyOf(configuration.singletonClasses);
+        interfaceMappings = Map.copyOf(configuration.interfaceMappings);
+        providers = Map.copyOf(configuration.providers);
+        setBindings = new HashMap<>();
+        configuration.setBindings.forEach((type, implementations) -> setBindings.put(type, List.copyOf(implementations)));
+        mapBindings = new HashMap<>();
+        configuration.mapBindings.forEach((type, implementations) -> mapBindings.put(type, Map.copyOf(implementations)));
+        scopes = Map.copyOf(configuration.scopes);
+        poolSizes = Map.copyOf(configuration.poolSizes);
+        instantiationStrategy = configuration.instantiationStrategy;
+        memberInjection = configuration.memberInjection;
+        snapshot = configuration.snapshot;
+        injectionListener = configuration.injectionListener;
+        injectionTrace = configuration.injectionTrace;
+        frozen = true;
+
+        // the plans were created with the same configuration so they are still valid.
+        plans.putAll(configuration.plans);
+    }
+
+    /**
+     * Get an instance of the given class type.
+     *
+     * @param requestedType the class type of which an instance is retrieved.
+     * @param <T>           the generic type of the class.
+     * @return an instance of the given type.
+     * @throws java.lang.IllegalArgumentException if there is a misconfiguration or a requested class can't be instantiated.
+     */
+    @Override
+    public <T> T getInstance(Class<T> requestedType) {
+        try {
+            return getInstanceAsRoot(resolvablePlanFor(requestedType));
+        } catch (EasyDiException rootCause) {
+            throw createHierarchyException(requestedType, null, rootCause);
+        }
+    }
+
+    /**
+     * Get an instance of the given qualified type.
+     *
+     * @param key the type together with its qualifier.
+     * @param <T> the generic type of the class.
+     * @return an instance of the given type.
+     * @throws java.lang.IllegalStateException if there is no binding for the qualifier or the bound type
+     *                                         can't be instantiated.
+     */
+    @Override
+    public <T> T getInstance(Key<T> key) {
+        try {
+            return getInstanceAsRoot(resolvablePlanFor(key));
+        } catch (EasyDiException rootCause) {
+            throw createHierarchyException(key.type(), null, rootCause);
+        }
+    }
+
+    /**
+     * Get an instance of the given class type if the type can be resolved.
+     *<p>
+     * In contrast to {@link #getInstance(Class)} a missing binding or an otherwise unresolvable type is not an error
+     * here. The result for an unresolvable type is cached, so probing for it again doesn't create any exceptions.
+     * Cyclic dependencies and exceptions that are thrown by constructors or providers are still thrown.
+     *
+     * @param requestedType the class type of which an instance is retrieved.
+     * @param <T>           the generic type of the class.
+     * @return an instance of the given type or an empty optional if the type can't be resolved.
+     * @throws java.lang.IllegalStateException if the type can be resolved but the instantiation fails.
+     */
+    @Override
+    public <T> Optional<T> tryGetInstance(Class<T> requestedType) {
+        final ResolutionPlan<T> plan = linkedPlanFor(requestedType);
+
+        if (!plan.resolvable()) {
+            return Optional.empty();
+        }
+
+        try {
+            return Optional.ofNullable(getInstanceAsRoot(plan));
+        } catch (EasyDiException rootCause) {
+            throw createHierarchyException(requestedType, null, rootCause);
+        }
+    }
+
+    /**
+     * Get the given number of instances of the given class type, i.e. to fill an object pool.
+     *<p>
+     * The type is resolved only once for all instances. Singleton dependencies and injected providers are taken
+     * once and passed to every constructor call, only the other dependencies are created for each instance.
+     * For singletons the list contains the singleton instance the given number of times.
+     *
+     * @param requestedType the class type of which the instances are retrieved.
+     * @param count         the number of instances.
+     * @param <T>           the generic type of the class.
+     * @return a list with the instances.
+     * @throws java.lang.IllegalArgumentException if the count is negative.
+     * @throws java.lang.IllegalStateException    if the type can't be instantiated.
+     */
+    public <T> List<T> getInstances(Class<T> requestedType, int count) {
+        if (count < 0) {
+            throw new IllegalArgumentException("The number of instances must not be negative, but was " + count + ".");
+        }
+        if (count == 0) {
+            return new ArrayList<>();
+        }
+
+        try {
+            final ResolutionPlan<T> plan = resolvablePlanFor(requestedType);
+            final Supplier<T> factory = instanceFactory(plan);
+
+            final ResolutionStack stack = resolutionStacks.get();
+            if (!stack.push(plan.id)) {
+                throw new EasyDiException(createErrorMessageStart(plan.type)
+                    + "A cyclic dependency was detected: " + stack.describeCycle(plan.id));
+            }
+
+            try {
+                final List<T> instances = new ArrayList<>(count);
+                for (int i = 0; i < count; i++) {
+                    instances.add(factory.get());
+                }
+                return instances;
+            } finally {
+                stack.pop();
+            }
+        } catch (EasyDiException rootCause) {
+            throw createHierarchyException(requestedType, null, rootCause);
+        }
+    }
+
+    /**
+     * Get an infinite stream of instances of the given class type. Use {@link java.util.stream.Stream#limit(long)}
+     * to get a certain number of instances. The stream can be {@link java.util.stream.Stream#parallel() parallel}
+     * to create the instances concurrently.
+     *<p>
+     * As with {@link #getInstances(Class, int)} the type is resolved only once and singleton dependencies
+     * and injected providers are shared by all instances. This is done when the stream is created.
+     *
+     * @param requestedType the class type of which the instances are retrieved.
+     * @param <T>           the generic type of the class.
+     * @return a stream of instances. When an instance can't be created, the terminal operation of the stream
+     * throws an {@link java.lang.IllegalStateException}.
+     * @throws java.lang.IllegalStateException if the type can't be instantiated.
+     */
+    public <T> Stream<T> instances(Class<T> requestedType) {
+        final ResolutionPlan<T> plan;
+        final Supplier<T> factory;
+        try {
+            plan = resolvablePlanFor(requestedType);
+            factory = instanceFactory(plan);
+        } catch (EasyDiException rootCause) {
+            throw createHierarchyException(requestedType, null, rootCause);
+        }
+
+        return Stream.generate(() -> {
+            final ResolutionStack stack = resolutionStacks.get();
+            if (!stack.push(plan.id)) {
+                throw createHierarchyException(requestedType, null, new EasyDiException(
+                    createErrorMessageStart(plan.type)
+                        + "A cyclic dependency was detected: " + stack.describeCycle(plan.id)));
+            }
+
+            try {
+                return factory.get();
+            } catch (EasyDiException rootCause) {
+                throw createHierarchyException(requestedType, null, rootCause);
+            } finally {
+                stack.pop();
+            }
+        });
+    }
+
+    /**
+     * Create a factory for instances of the given plan that is used to create many instances in a row.
+     * The singleton dependencies and injected providers of a constructor are only taken once. Other plans
+     * are requested as usual for every instance.
+     */
+    private <T> Supplier<T> instanceFactory(ResolutionPlan<T> plan) {
+        if (closed) {
+            throw new IllegalStateException("This EasyDI instance is closed.");
+        }
+
+        final EasyDI owner = parent == null ? this : ownerOf(plan);
+
+        if (plan.singleton || plan.scope != null || plan.usesProvider()) {
+            return () -> owner.getInstance(plan, null, 0);
+        }
+
+        final ResolutionPlan.Dependency[] dependencies = plan.dependencies;
+        final Object[] sharedArguments = new Object[dependencies.length];
+        final boolean[] shared = new boolean[dependencies.length];
+
+        for (int i = 0; i < dependencies.length; i++) {
+            final ResolutionPlan.Dependency dependency = dependencies[i];
+
+            if (dependency.kind == ResolutionPlan.Kind.PROVIDER) {
+                sharedArguments[i] = owner.getProviderArgument(dependency);
+                shared[i] = true;
+            } else if (dependency.kind == ResolutionPlan.Kind.POOL) {
+                sharedArguments[i] = owner.getPoolArgument(dependency);
+                shared[i] = true;
+            } else if (dependency.kind == ResolutionPlan.Kind.OPTIONAL) {
+                if (!dependency.plan.resolvable()) {
+                    sharedArguments[i] = Optional.empty();
+                    shared[i] = true;
+                } else if (dependency.plan.singleton) {
+                    sharedArguments[i] = Optional.ofNullable(owner.getDependencyInstance(dependency, plan.type, 1));
+                    shared[i] = true;
+                }
+            } else if (dependency.plan.singleton) {
+                sharedArguments[i] = owner.getDependencyInstance(dependency, plan.type, 1);
+                shared[i] = true;
+            }
+        }
+
+        return () -> {
+            final InjectionTrace trace = owner.injectionTrace;
+            final long traceStart = trace != null ? System.nanoTime() : 0;
+
+            final Object[] arguments = sharedArguments.clone();
+
+            for (int i = 0; i < arguments.length; i++) {
+                if (!shared[i]) {
+                    final ResolutionPlan.Dependency dependency = dependencies[i];
+
+                    arguments[i] = dependency.kind == ResolutionPlan.Kind.OPTIONAL
+                        ? Optional.ofNullable(owner.getDependencyInstance(dependency, plan.type, 1))
+                        : owner.getDependencyInstance(dependency, plan.type, 1);
+                }
+            }
+
+            return owner.instantiate(plan, arguments, null, 0, trace, traceStart);
+        };
+    }
+
+    /**
+     * Get an instance of the given class type asynchronously with the default executor. The default executor
+     * starts a virtual thread for every task when the JVM supports them, otherwise it uses a cached pool of
+     * daemon threads.
+     *
+     * @param requestedType the class type of which an instance is retrieved.
+     * @param <T>           the generic type of the class.
+     * @return a future that is completed with the instance.
+     * @see #getInstanceAsync(Class, Executor)
+     */
+    public <T> CompletableFuture<T> getInstanceAsync(Class<T> requestedType) {
+        return getInstanceAsync(requestedType, DefaultExecutor.INSTANCE);
+    }
+
+    /**
+     * Get an instance of the given class type asynchronously.
+     *<p>
+     * Providers are called with the given executor, so providers that block (i.e. because they read a remote
+     * configuration) run concurrently when they don't depend on each other. A constructor is called as soon as all
+     * of its arguments are available, by the thread that completed the last argument. Constructors whose arguments
+     * are all created without a provider run directly in the calling thread.
+     *<p>
+     * Scoped types are created synchronously by the calling thread, so a {@link RequestScope} that is active
+     * for the calling thread is used for them.
+     *<p>
+     * Singletons are still created only once: A request for a singleton that is currently created by another
+     * request waits for that creation.
+     *
+     * @param requestedType the class type of which an instance is retrieved.
+     * @param executor      the executor that calls the providers.
+     * @param <T>           the generic type of the class.
+     * @return a future that is completed with the instance. When the type can't be resolved or the instantiation
+     * fails, the future is completed exceptionally with an {@link java.lang.IllegalStateException}.
+     */
+    public <T> CompletableFuture<T> getInstanceAsync(Class<T> requestedType, Executor executor) {
+        final CompletableFuture<T> future;
+
+        try {
+            final ResolutionPlan<T> plan = resolvablePlanFor(requestedType);
+
+            if (closed) {
+                throw new IllegalStateException("This EasyDI instance is closed.");
+            }
+
+            future = parent == null
+                ? getInstanceAsync(plan, null, 0, executor, null)
+                : ownerOf(plan).getInstanceAsync(plan, null, 0, executor, null);
+        } catch (EasyDiException rootCause) {
+            return CompletableFuture.failedFuture(createHierarchyException(requestedType, null, rootCause));
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+
+        return future.handle((instance, e) -> {
+            if (e == null) {
+                return instance;
+            }
+
+            final Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+            if (cause instanceof EasyDiException rootCause) {
+                throw createHierarchyException(requestedType, null, rootCause);
+            }
+            throw e instanceof CompletionException completionException
+                ? completionException
+                : new CompletionException(e);
+        });
+    }
+
+    /**
+     * Get an instance of the given plan for a request from outside of the dependency graph, i.e. a call of
+     * {@link #getInstance(Class)} or of an injected provider.
+     *<p>
+     * As such requests may be made by a constructor or provider that is currently executed, the id of the plan is
+     * pushed onto the {@link ResolutionStack} of the thread to find cyclic dependencies. Qualified bindings of the
+     * same class have different ids, so one of them may request another one.
+     */
+    @SuppressWarnings("unchecked")
+    private <T> T getInstanceAsRoot(ResolutionPlan<T> plan) {
+        final Class<T> type = plan.type;
+
+        // If we have an existing singleton instance for this type we immediately return it.
+        final Object singletonInstance = plan.singleton ? singletonInstances.get(plan.id) : null;
+        if (singletonInstance != null) {
+            final InjectionListener listener = injectionListener;
+            if (listener != null) {
+                listener.singletonHit(type);
+            }
+            return (T) singletonInstance;
+        }
+
+        if (closed) {
+            throw new IllegalStateException("This EasyDI instance is closed.");
+        }
+
+        final ResolutionStack stack = resolutionStacks.get();
+
+        // If this thread is already creating an instance of this type or key, this means a cyclic dependency
+        if (!stack.push(plan.id)) {
+            throw new EasyDiException(createErrorMessageStart(type)
+                + "A cyclic dependency was detected: " + stack.describeCycle(plan.id));
+        }
+
+        try {
+            return parent == null ? getInstance(plan, null, 0) : ownerOf(plan).getInstance(plan, null, 0);
+        } finally {
+            stack.pop();
+        }
+    }
+
+    /**
+     * Get an instance of the given plan: Either the existing singleton instance or a newly created instance.
+     *<p>
+     * The plan has to be linked. Because of this the plans of the constructor parameters are known and
+     * there can be no cyclic dependency between them.
+     *
+     * @param parent the type whose constructor parameter is created or {@code null} for requests from outside
+     *               of the dependency graph.
+     * @param depth  the depth in the dependency graph, 0 for requests from outside of the dependency graph.
+     */
+    @SuppressWarnings("unchecked")
+    private <T> T getInstance(ResolutionPlan<T> plan, Class<?> parent, int depth) {
+        // If we have an existing singleton instance for this type we immediately return it.
+        final Object singletonInstance = plan.singleton ? singletonInstances.get(plan.id) : null;
+        if (singletonInstance != null) {
+            final InjectionListener listener = injectionListener;
+            if (listener != null) {
+                listener.singletonHit(plan.type);
+            }
+            return (T) singletonInstance;
+        }
+
+        if (plan.singleton) {
+            return getOrCreateSingleton(plan, parent, depth);
+        }
+
+        if (plan.scope != null) {
+            return plan.scope.get(plan.type, () -> createInstance(plan, parent, depth));
+        }
+
+        return createInstance(plan, parent, depth);
+    }
+
+    /**
+     * Create the exception that is thrown when the requested type can't be instantiated.
+     */
+    private IllegalStateException createHierarchyException(Class<?> requestedType, Class<?> parent,
+                                                           EasyDiException rootCause) {
+        String errorMessage = "EasyDI wasn't able to create your class hierarchy. ";
+
+        if (parent != null) {
+            errorMessage += "\nCannot instantiate the class [" + parent.getName() + "]. "
+                + "At least one of the constructor parameters of type [" + requestedType
+                + "] can't be instantiated. ";
+        }
+        errorMessage += "See the root cause exception for a detailed explanation.";
+
+        return new IllegalStateException(errorMessage, rootCause);
+    }
+
+    /**
+     * Get the singleton instance of the given plan. When no other thread is creating the singleton at the moment,
+     * it is created by the calling thread. Otherwise the calling thread waits for the other thread to finish
+     * so that only one instance is ever created.
+     *<p>
+     * Singletons that are created as constructor parameters aren't on the {@link ResolutionStack}. When such a
+     * singleton is requested again by the thread that creates it (i.e. by a provider of one of its dependencies),
+     * this is a cyclic dependency: Waiting for the creation would block the thread forever. The same is true for
+     * a singleton that an asynchronous request creates when one of its own constructors or providers requests it
+     * (see {@link AsyncPath}).
+     */
+    @SuppressWarnings("unchecked")
+    private <T> T getOrCreateSingleton(ResolutionPlan<T> plan, Class<?> parent, int depth) {
+        final Class<T> type = plan.type;
+
+        final SingletonCreation future = new SingletonCreation(Thread.currentThread());
+        final SingletonCreation otherFuture = singletonsInCreation.putIfAbsent(plan.id, future);
+
+        if (otherFuture != null) {
+            final AsyncPath asyncPath = resolutionStacks.get().asyncPath;
+            if (otherFuture.creator == Thread.currentThread()
+                || asyncPath != null && asyncPath.contains(otherFuture.creator)) {
+                throw new EasyDiException(createErrorMessageStart(type)
+                    + "A cyclic dependency was detected: The singleton is requested again while it is created ("
+                    + resolutionStacks.get().describe() + ").");
+            }
+
+            try {
+                return (T) otherFuture.join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException cause) {
+                    throw cause;
+                }
+                throw e;
+            }
+        }
+
+        try {
+            // the singleton may have been finished by another thread in the meantime.
+            Object instance = singletonInstances.get(plan.id);
+
+            if (instance == null) {
+                final InjectionListener listener = injectionListener;
+                if (listener != null) {
+                    listener.singletonMiss(type);
+                }
+
+                final SingletonCreatedEvent event = FlightRecorderEvents.AVAILABLE ? new SingletonCreatedEvent() : null;
+                if (event != null) {
+                    event.begin();
+                }
+
+                instance = createInstance(plan, parent, depth);
+
+                if (instance != null) {
+                    singletonInstances.put(plan.id, instance);
+                }
+
+                if (event != null && event.shouldCommit()) {
+                    event.type = type;
+                    event.parentType = parent;
+                    event.depth = depth;
+                    event.commit();
+                }
+            }
+
+            future.complete(instance);
+            return (T) instance;
+        } catch (RuntimeException | Error e) {
+            future.completeExceptionally(e);
+            throw e;
+        } finally {
+            singletonsInCreation.remove(plan.id, future);
+        }
+    }
+
+    /**
+     * Create an instance of the given plan either with the provider or with the constructor.
+     */
+    private <T> T createInstance(ResolutionPlan<T> plan, Class<?> parent, int depth) {
+        if (plan.usesProvider()) {
+            return getInstanceFromProvider(plan, parent, depth);
+        }
+
+        return createNewInstance(plan, parent, depth);
+    }
+
+    /**
+     * Get an instance for the given constructor parameter. Parameters whose plan is shared with the parent
+     * of a child container are created by the parent so that its singletons are shared too.
+     */
+    private Object getDependencyInstance(ResolutionPlan.Dependency dependency, Class<?> parent, int depth) {
+        final EasyDI container = dependency.container;
+
+        return container == null
+            ? getInstance(dependency.plan, parent, depth)
+            : container.getInstance(dependency.plan, parent, depth);
+    }
+
+    /**
+     * The asynchronous counterpart of {@link #getInstance(ResolutionPlan, Class, int)}.
+     *
+     * @param path the path of the parent plan or {@code null} for the requested type.
+     */
+    @SuppressWarnings("unchecked")
+    private <T> CompletableFuture<T> getInstanceAsync(ResolutionPlan<T> plan, Class<?> parent, int depth,
+                                                     Executor executor, AsyncPath path) {
+        final Object singletonInstance = plan.singleton ? singletonInstances.get(plan.id) : null;
+        if (singletonInstance != null) {
+            final InjectionListener listener = injectionListener;
+            if (listener != null) {
+                listener.singletonHit(plan.type);
+            }
+            return CompletableFuture.completedFuture((T) singletonInstance);
+        }
+
+        final AsyncPath planPath = new AsyncPath(plan.id, path);
+
+        if (plan.singleton) {
+            return getOrCreateSingletonAsync(plan, parent, depth, executor, planPath);
+        }
+
+        // scopes have a synchronous interface and may be bound to the calling thread (i.e. the request scope),
+        // so the whole scoped instance is created by the calling thread.
+        if (plan.scope != null) {
+            try {
+                return CompletableFuture.completedFuture(callOnPath(planPath, () -> getInstance(plan, parent, depth)));
+            } catch (RuntimeException e) {
+                return CompletableFuture.failedFuture(e);
+            }
+        }
+
+        return createInstanceAsync(plan, parent, depth, executor, planPath);
+    }
+
+    /**
+     * The asynchronous counterpart of {@link #getOrCreateSingleton(ResolutionPlan, Class, int)}. Synchronous and
+     * asynchronous requests share the futures of {@link #singletonsInCreation}, so they wait for each other.
+     * These futures are never returned themselves but only copies of them: Cancelling or completing a returned
+     * future must not complete the creation that other threads wait for.
+     */
+    @SuppressWarnings("unchecked")
+    private <T> CompletableFuture<T> getOrCreateSingletonAsync(ResolutionPlan<T> plan, Class<?> parent, int depth,
+                                                              Executor executor, AsyncPath path) {
+        // the constructors and providers of the creation are called on the path of the singleton.
+        final SingletonCreation future = new SingletonCreation(path);
+        final SingletonCreation otherFuture = singletonsInCreation.putIfAbsent(plan.id, future);
+
+        if (otherFuture != null) {
+            return (CompletableFuture<T>) otherFuture.copy();
+        }
+
+        // the singleton may have been finished by another thread in the meantime.
+        final Object existingInstance = singletonInstances.get(plan.id);
+        if (existingInstance != null) {
+            singletonsInCreation.remove(plan.id, future);
+            future.complete(existingInstance);
+            return CompletableFuture.completedFuture((T) existingInstance);
+        }
+
+        final InjectionListener listener = injectionListener;
+        if (listener != null) {
+            listener.singletonMiss(plan.type);
+        }
+
+        final CompletableFuture<T> creation;
+        try {
+            creation = createInstanceAsync(plan, parent, depth, executor, path);
+        } catch (RuntimeException | Error e) {
+            singletonsInCreation.remove(plan.id, future);
+            future.completeExceptionally(e);
+            throw e;
+        }
+
+        creation.whenComplete((instance, e) -> {
+            if (e == null && instance != null) {
+                singletonInstances.put(plan.id, instance);
+            }
+            singletonsInCreation.remove(plan.id, future);
+
+            if (e == null) {
+                future.complete(instance);
+            } else {
+                future.completeExceptionally(e instanceof CompletionException && e.getCause() != null
+                    ? e.getCause() : e);
+            }
+        });
+
+        return (CompletableFuture<T>) future.copy();
+    }
+
+    /**
+     * The asynchronous counterpart of {@link #createInstance(ResolutionPlan, Class, int)}: Providers are called by
+     * the executor, constructors are called when all of their arguments are available.
+     *
+     * @param path the path of the given plan.
+     */
+    private <T> CompletableFuture<T> createInstanceAsync(ResolutionPlan<T> plan, Class<?> parent, int depth,
+                                                        Executor executor, AsyncPath path) {
+        if (plan.usesProvider()) {
+            return CompletableFuture.supplyAsync(
+                () -> callOnPath(path, () -> getInstanceFromProvider(plan, parent, depth)), executor);
+        }
+
+        final ResolutionPlan.Dependency[] dependencies = plan.dependencies;
+        final CompletableFuture<?>[] argumentFutures = new CompletableFuture<?>[dependencies.length];
+
+        for (int i = 0; i < dependencies.length; i++) {
+            final ResolutionPlan.Dependency dependency = dependencies[i];
+
+            if (dependency.kind == ResolutionPlan.Kind.PROVIDER) {
+                argumentFutures[i] = CompletableFuture.completedFuture(getProviderArgument(dependency));
+            } else if (dependency.kind == ResolutionPlan.Kind.POOL) {
+                argumentFutures[i] = CompletableFuture.completedFuture(getPoolArgument(dependency));
+            } else if (dependency.kind == ResolutionPlan.Kind.OPTIONAL) {
+                argumentFutures[i] = dependency.plan.resolvable()
+                    ? getDependencyInstanceAsync(dependency, plan.type, depth + 1, executor, path)
+                        .thenApply(Optional::ofNullable)
+                    : CompletableFuture.completedFuture(Optional.empty());
+            } else {
+                argumentFutures[i] = getDependencyInstanceAsync(dependency, plan.type, depth + 1, executor, path);
+            }
+        }
+
+        return CompletableFuture.allOf(argumentFutures).thenApply(ignored -> {
+            // in contrast to synchronous constructions the trace doesn't contain the creation of the arguments.
+            final InjectionTrace trace = injectionTrace;
+            final long traceStart = trace != null ? System.nanoTime() : 0;
+
+            final Object[] arguments = new Object[argumentFutures.length];
+            for (int i = 0; i < arguments.length; i++) {
+                arguments[i] = argumentFutures[i].join();
+            }
+
+            return callOnPath(path, () -> instantiate(plan, arguments, parent, depth, trace, traceStart));
+        });
+    }
+
+    /**
+     * The asynchronous counterpart of {@link #getDependencyInstance(ResolutionPlan.Dependency, Class, int)}.
+     */
+    private CompletableFuture<?> getDependencyInstanceAsync(ResolutionPlan.Dependency dependency, Class<?> parent,
+                                                           int depth, Executor executor, AsyncPath path) {
+        final EasyDI container = dependency.container;
+
+        return container == null
+            ? getInstanceAsync(dependency.plan, parent, depth, executor, path)
+            : container.getInstanceAsync(dependency.plan, parent, depth, executor, path);
+    }
+
+    /**
+     * The plans from the requested type of an asynchronous request to a plan that is created. Every request has
+     * its own path objects.
+     * <p>
+     * The constructors and providers of an asynchronous request aren't called by the thread of the request, so the
+     * path is set on the {@link ResolutionStack} of the thread that calls them
+     * (see {@link #callOnPath(AsyncPath, Supplier)}). An asynchronous singleton creation is owned by the path of its
+     * plan. When a constructor or provider requests a singleton whose creation owns one of the paths of the calling
+     * thread, the creation waits for this constructor or provider. This is found as cyclic dependency instead of
+     * waiting forever.
+     */
+    record AsyncPath(Object id, AsyncPath parent) {
+
+        /**
+         * @return {@code true} if the given path is this path or one of its parents.
+         */
+        boolean contains(Object path) {
+            for (AsyncPath current = this; current != null; current = current.parent) {
+                if (current == path) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Call the given constructor or provider of an asynchronous request with the given path set on the
+     * {@link ResolutionStack} of the calling thread.
+     */
+    private <T> T callOnPath(AsyncPath path, Supplier<T> call) {
+        final ResolutionStack stack = resolutionStacks.get();
+        final AsyncPath previousPath = stack.asyncPath;
+        stack.asyncPath = path;
+
+        try {
+            return call.get();
+        } finally {
+            stack.asyncPath = previousPath;
+        }
+    }
+
+    /**
+     * Find the container that owns the given plan of a child container: The furthest ancestor that returns the same
+     * plan for its type. This container creates the instances of the plan and keeps its singleton.
+     */
+    private EasyDI ownerOf(ResolutionPlan<?> plan) {
+        EasyDI owner = this;
+
+        while (owner.parent != null && owner.parent.planFor(plan.id) == plan) {
+            owner = owner.parent;
+        }
+
+        return owner;
+    }
+
+    /**
+     * Get the resolution plan for the given type. The plan is created on the first request
+     * and taken from the cache for all following requests.
+     *
+     * @param requested the requested class type or the {@link Key} of a qualified type.
+     */
+    @SuppressWarnings("unchecked")
+    private <T> ResolutionPlan<T> planFor(Object requested) {
+        if (parent != null) {
+            checkParentConfiguration();
+        }
+
+        ResolutionPlan<T> plan = (ResolutionPlan<T>) plans.get(requested);
+
+        if (plan == null) {
+            plan = (ResolutionPlan<T>) (parent == null ? createPlan(requested) : createChildPlan(requested));
+
+            final ResolutionPlan<T> otherPlan = (ResolutionPlan<T>) plans.putIfAbsent(requested, plan);
+            if (otherPlan != null) {
+                plan = otherPlan;
+            }
+        }
+
+        return plan;
+    }
+
+    /**
+     * Get the resolution plan for the given type with the plans of all constructor parameters linked.
+     */
+    private <T> ResolutionPlan<T> linkedPlanFor(Object requested) {
+        final ResolutionPlan<T> plan = planFor(requested);
+
+        if (!plan.linked) {
+            link(plan, new ResolutionStack());
+        }
+
+        return plan;
+    }
+
+    /**
+     * Get the linked resolution plan for the given type.
+     *
+     * @throws EasyDiException if the type can't be resolved.
+     */
+    private <T> ResolutionPlan<T> resolvablePlanFor(Object requested) {
+        final ResolutionPlan<T> plan = linkedPlanFor(requested);
+
+        if (!plan.resolvable()) {
+            throw resolutionFailed(plan);
+        }
+
+        return plan;
+    }
+
+    /**
+     * Link the plans of all constructor parameters of the given plan (recursively).
+     * This is done only once per plan. When the plan is linked it's known whether the type can be resolved.
+     *<p>
+     * Nothing is thrown when a type can't be resolved. Instead the first constructor parameter that can't be resolved
+     * is recorded in the plan (see {@link ResolutionPlan#failedDependency}). The exception is only created when it is
+     * actually thrown (see {@link #createResolutionException(ResolutionPlan)}).
+     *
+     * @param plan the plan to link.
+     * @param path the types whose plans are linked at the moment. Is used to find cyclic dependencies.
+     */
+    private void link(ResolutionPlan<?> plan, ResolutionStack path) {
+        if (plan.linked) {
+            return;
+        }
+
+        path.push(plan.id);
+
+        for (ResolutionPlan.Dependency dependency : plan.dependencies) {
+            if (dependency.kind.resolvedLazily()) {
+                continue;
+            }
+
+            final ResolutionPlan<?> dependencyPlan = planFor(dependency.requested);
+            dependency.plan = dependencyPlan;
+
+            if (parent != null) {
+                final EasyDI owner = ownerOf(dependencyPlan);
+                dependency.container = owner == this ? null : owner;
+            }
+
+            if (!dependencyPlan.linked && path.contains(dependencyPlan.id)) {
+                plan.fail(dependency, true);
+                break;
+            }
+
+            link(dependencyPlan, path);
+
+            // an optional parameter is empty when the type is missing but a cyclic dependency is still an error.
+            if (!dependencyPlan.resolvable()
+                && (dependency.kind != ResolutionPlan.Kind.OPTIONAL || dependencyPlan.cyclic)) {
+                plan.fail(dependency, dependencyPlan.cyclic);
+                break;
+            }
+        }
+
+        path.pop();
+        plan.linked = true;
+    }
+
+    /**
+     * Create the exception that explains why the given linked plan can't be resolved and notify the listener.
+     */
+    private EasyDiException resolutionFailed(ResolutionPlan<?> plan) {
+        final EasyDiException exception = createResolutionException(plan);
+
+        final InjectionListener listener = injectionListener;
+        if (listener != null) {
+            listener.failed(plan.type, exception);
+        }
+        return exception;
+    }
+
+    /**
+     * Create the exception that explains why the given linked plan can't be resolved. The failed constructor
+     * parameters are followed down to the type that has a problem or to the cyclic dependency.
+     */
+    private EasyDiException createResolutionException(ResolutionPlan<?> plan) {
+        final List<ResolutionPlan<?>> failedPlans = new ArrayList<>();
+
+        ResolutionPlan<?> current = plan;
+        while (current.problem == null && !failedPlans.contains(current)) {
+            failedPlans.add(current);
+
+            // the plan may be linked by another thread at the moment
+            link(current, new ResolutionStack());
+            current = current.failedDependency.plan;
+        }
+
+        EasyDiException exception;
+        if (current.problem != null) {
+            exception = new EasyDiException(describeProblem(current));
+        } else {
+            final ResolutionStack cycle = new ResolutionStack();
+            failedPlans.subList(failedPlans.indexOf(current), failedPlans.size())
+                .forEach(cyclicPlan -> cycle.push(cyclicPlan.id));
+
+            exception = new EasyDiException(createErrorMessageStart(current.type)
+                + "A cyclic dependency was detected: " + cycle.describeCycle(current.id));
+        }
+
+        for (int i = failedPlans.size() - 1; i >= 0; i--) {
+            final ResolutionPlan<?> failedPlan = failedPlans.get(i);
+            exception = new EasyDiException(createErrorMessageStart(failedPlan.type)
+                + "At least one of the constructor parameters of type [" + failedPlan.failedDependency.type
+                + "] can't be instantiated.", exception);
+        }
+
+        return exception;
+    }
+
+    /**
+     * Resolve the given class type or {@link Key}.
+     */
+    private ResolutionPlan<?> createPlan(Object requested) {
+        if (requested instanceof Key<?> key) {
+            return createQualifiedPlan(key);
+        } else if (requested instanceof ResolutionPlan.Multibinding multibinding) {
+            return createMultibindingPlan(multibinding);
+        }
+
+        return createPlan((Class<?>) requested);
+    }
+
+    /**
+     * Resolve the collection of all implementations that are bound to the given multibinding. The collection is
+     * created with an array-backed immutable collection. When all implementations are singletons, the collection
+     * is a singleton too, so that injecting it only copies the reference.
+     */
+    private ResolutionPlan<?> createMultibindingPlan(ResolutionPlan.Multibinding multibinding) {
+        // the bindings of the parents come first, a child can replace names of map bindings.
+        final Map<String, Class<?>> implementations = new LinkedHashMap<>();
+        final List<EasyDI> containers = new ArrayList<>();
+        for (EasyDI container = this; container != null; container = container.parent) {
+            containers.add(0, container);
+        }
+
+        for (EasyDI container : containers) {
+            if (multibinding.kind() == ResolutionPlan.Kind.MAP) {
+                implementations.putAll(container.mapBindings.getOrDefault(multibinding.elementType(), Map.of()));
+            } else {
+                for (Class<?> implementation : container.setBindings.getOrDefault(multibinding.elementType(), List.of())) {
+                    implementations.put(String.valueOf(implementations.size()), implementation);
+                }
+            }
+        }
+
+        final String[] names = implementations.keySet().toArray(new String[0]);
+        final ResolutionPlan.Dependency[] elements = new ResolutionPlan.Dependency[names.length];
+        boolean singleton = true;
+
+        for (int i = 0; i < names.length; i++) {
+            final Class<?> implementation = implementations.get(names[i]);
+            elements[i] = new ResolutionPlan.Dependency(implementation, ResolutionPlan.Kind.INSTANCE);
+            singleton = singleton && planFor(implementation).singleton;
+        }
+
+        final Instantiator<Object> collector = switch (multibinding.kind()) {
+            case SET -> arguments -> Set.copyOf(Arrays.asList(arguments));
+            case LIST -> List::of;
+            default -> arguments -> toMap(names, arguments);
+        };
+
+        return ResolutionPlan.forMultibinding(multibinding, elements, collector, singleton);
+    }
+
+    private static Map<String, Object> toMap(String[] names, Object[] values) {
+        final Map<String, Object> entries = new HashMap<>(values.length * 2);
+        for (int i = 0; i < values.length; i++) {
+            entries.put(names[i], values[i]);
+        }
+
+        return Map.copyOf(entries);
+    }
+
+    /**
+     * Resolve the given qualified type: Either the implementing class or the provider that is bound to the key.
+     * As with unqualified providers, the instance of a qualified provider is stored as singleton when the type is
+     * a class that is a singleton. The singleton is stored by the key, so every qualifier has its own instance.
+     */
+    @SuppressWarnings("unchecked")
+    private <T> ResolutionPlan<T> createQualifiedPlan(Key<T> key) {
+        // the bindings of a child container take precedence over the bindings of its parent.
+        for (EasyDI container = this; container != null; container = container.parent) {
+            if (container.interfaceMappings.containsKey(key)) {
+                return planFor(container.interfaceMappings.get(key));
+            } else if (container.providers.containsKey(key)) {
+                final Class<T> type = key.type();
+                final boolean singleton = !type.isInterface() && !isAbstractClass(type) && isSingleton(type);
+
+                return ResolutionPlan.forProvider(key, container.providers.get(key), singleton);
+            }
+        }
+
+        return ResolutionPlan.failed(key, ResolutionPlan.Problem.NO_QUALIFIED_BINDING);
+    }
+
+    /**
+     * Resolve the given type: Find out which class type has to be instantiated, whether a provider or
+     * a constructor is used and how the constructor parameters are bound.
+     */
+    @SuppressWarnings("unchecked")
+    private <T> ResolutionPlan<T> createPlan(Class<T> requestedType) {
+        if (requestedType.isInterface()) {
+            // the bindings of a child container take precedence over the bindings of its parent.
+            for (EasyDI container = this; container != null; container = container.parent) {
+                if (container.interfaceMappings.containsKey(requestedType)) {
+                    // use the plan of the implementing class type.
+                    return planFor(container.interfaceMappings.get(requestedType));
+                } else if (container.providers.containsKey(requestedType)) {
+                    return ResolutionPlan.forProvider(requestedType, container.providers.get(requestedType),
+                        false, null);
+                }
+            }
+
+            final Class<?> snapshotImplementation = snapshot.implementationOf(requestedType);
+            if (snapshotImplementation != null) {
+                return planFor((Class<T>) snapshotImplementation);
+            }
+
+            return ResolutionPlan.failed(requestedType, ResolutionPlan.Problem.NO_INTERFACE_MAPPING);
+        }
+
+        if (isAbstractClass(requestedType)) {
+            final Provider<T> provider = providerFor(requestedType);
+            if (provider != null) {
+                return ResolutionPlan.forProvider(requestedType, provider, false, null);
+            } else {
+                return ResolutionPlan.failed(requestedType, ResolutionPlan.Problem.NO_PROVIDER_FOR_ABSTRACT_CLASS);
+            }
+        }
+
+        // a generated factory describes the constructor, so the class doesn't have to be inspected by reflection.
+        // injected fields and methods aren't described, so the factory isn't used for this with member injection.
+        final GeneratedFactories.DescribedConstructor<T> described =
+            !memberInjection && instantiationStrategy instanceof GeneratedFactories generatedFactories
+                ? generatedFactories.describedConstructorFor(requestedType)
+                : null;
+
+        final Class<? extends Annotation> scopeAnnotation = described != null
+            ? described.factory().scopeAnnotation()
+            : findScopeAnnotation(requestedType);
+        final Scope scope = scopeAnnotation == null ? null : scopeFor(scopeAnnotation);
+        if (scopeAnnotation != null && scope == null) {
+            return ResolutionPlan.failed(requestedType, ResolutionPlan.Problem.NO_SCOPE_BINDING);
+        }
+
+        final boolean singleton = described != null
+            ? described.factory().singleton() || isMarkedAsSingleton(requestedType)
+            : isSingleton(requestedType);
+
+        final Provider<T> provider = providerFor(requestedType);
+        if (provider != null) {
+            return ResolutionPlan.forProvider(requestedType, provider, singleton, singleton ? null : scope);
+        }
+
+        // snapshots contain no injected fields and methods, so they can't be used with member injection.
+        final ResolutionPlan<T> snapshotPlan = memberInjection ? null
+            : snapshot.planFor(requestedType, instantiationStrategy, isMarkedAsSingleton(requestedType), scope);
+        if (snapshotPlan != null && matchesMultibindings(snapshotPlan)) {
+            return snapshotPlan;
+        }
+
+        if (described != null) {
+            return createGeneratedPlan(requestedType, described, singleton, scope);
+        }
+
+        final Constructor<T> constructor = findConstructor(requestedType);
+        if (constructor == null) {
+            return ResolutionPlan.failed(requestedType, findConstructorProblem(requestedType));
+        }
+
+        final List<ResolutionPlan.Dependency> dependencies = new ArrayList<>();
+
+        for (Parameter param : constructor.getParameters()) {
+            final ResolutionPlan.Dependency dependency =
+                createDependency(param.getType(), param.getParameterizedType(), param.getAnnotations());
+            if (dependency == null) {
+                return ResolutionPlan.failed(requestedType, missingTypeArgument(param.getType()));
+            }
+            dependencies.add(dependency);
+        }
+
+        final Instantiator<T> instantiator = instantiationStrategy.createInstantiator(constructor);
+
+        final List<Member> members = memberInjection ? MembersInjector.findInjectableMembers(requestedType) : List.of();
+        if (members.isEmpty()) {
+            return ResolutionPlan.forConstructor(requestedType, constructor, instantiator,
+                dependencies.toArray(new ResolutionPlan.Dependency[0]), singleton, singleton ? null : scope);
+        }
+
+        final int firstMemberDependency = dependencies.size();
+
+        for (Member member : members) {
+            if (member instanceof Field field) {
+                final ResolutionPlan.Dependency dependency =
+                    createDependency(field.getType(), field.getGenericType(), field.getAnnotations());
+                if (dependency == null) {
+                    return ResolutionPlan.failed(requestedType, missingTypeArgument(field.getType()));
+                }
+                dependencies.add(dependency);
+            } else {
+                for (Parameter param : ((Method) member).getParameters()) {
+                    final ResolutionPlan.Dependency dependency =
+                        createDependency(param.getType(), param.getParameterizedType(), param.getAnnotations());
+                    if (dependency == null) {
+                        return ResolutionPlan.failed(requestedType, missingTypeArgument(param.getType()));
+                    }
+                    dependencies.add(dependency);
+                }
+            }
+        }
+
+        final MembersInjector membersInjector;
+        try {
+            membersInjector = MembersInjector.create(members, firstMemberDependency);
+        } catch (IllegalAccessException e) {
+            return ResolutionPlan.failed(requestedType, ResolutionPlan.Problem.INACCESSIBLE_MEMBERS);
+        }
+
+        return ResolutionPlan.forConstructor(requestedType, constructor, instantiator,
+            dependencies.toArray(new ResolutionPlan.Dependency[0]), singleton, singleton ? null : scope,
+            membersInjector);
+    }
+
+    /**
+     * Resolve the given type with the constructor that is described by its generated factory. The description
+     * contains everything that is otherwise found by reflection, so the class isn't inspected any further.
+     */
+    private <T> ResolutionPlan<T> createGeneratedPlan(Class<T> type, GeneratedFactories.DescribedConstructor<T> described,
+                                                      boolean singleton, Scope scope) {
+        final GeneratedFactory<T> factory = described.factory();
+        final Class<?>[] parameterTypes = factory.parameterTypes();
+        final Class<?>[][] typeArguments = factory.typeArguments();
+        final Object[] qualifiers = factory.qualifiers();
+
+        final ResolutionPlan.Dependency[] dependencies = new ResolutionPlan.Dependency[parameterTypes.length];
+
+        for (int i = 0; i < parameterTypes.length; i++) {
+            dependencies[i] = createDependency(parameterTypes[i], typeArguments[i], qualifiers[i]);
+            if (dependencies[i] == null) {
+                return ResolutionPlan.failed(type, missingTypeArgument(parameterTypes[i]));
+            }
+        }
+
+        return ResolutionPlan.forConstructor(type, described.constructor(), factory, dependencies, singleton,
+            singleton ? null : scope);
+    }
+
+    /**
+     * Create the binding of a constructor parameter, an injected field or a parameter of an injected method.
+     *
+     * @param type        the class type of the parameter or field.
+     * @param genericType the generic type of the parameter or field.
+     * @param annotations the annotations of the parameter or field.
+     * @return the binding or {@code null} if the type is a {@link jakarta.inject.Provider} or
+     * {@link java.util.Optional} without type argument.
+     */
+    private ResolutionPlan.Dependency createDependency(Class<?> type, Type genericType, Annotation[] annotations) {
+        return createDependency(type, getTypeArguments(genericType), findQualifier(annotations));
+    }
+
+    /**
+     * Create the binding of a constructor parameter, an injected field or a parameter of an injected method.
+     *
+     * @param type          the class type of the parameter or field.
+     * @param typeArguments the type arguments of the parameter or field (see {@link #getTypeArguments(Type)}).
+     * @param qualifier     the qualifier annotation, the name of a {@link jakarta.inject.Named} qualifier, the type of
+     *                      a qualifier without members or {@code null} if there is no qualifier.
+     * @return the binding or {@code null} if the type is a {@link jakarta.inject.Provider} or
+     * {@link java.util.Optional} without type argument.
+     */
+    @SuppressWarnings("unchecked")
+    private ResolutionPlan.Dependency createDependency(Class<?> type, Class<?>[] typeArguments, Object qualifier) {
+        final Class<?> dependencyType;
+        final ResolutionPlan.Kind kind;
+
+        if (type.equals(Provider.class)) {
+            dependencyType = getTypeArgument(typeArguments, 0);
+            kind = ResolutionPlan.Kind.PROVIDER;
+        } else if (type.equals(Optional.class)) {
+            dependencyType = getTypeArgument(typeArguments, 0);
+            kind = ResolutionPlan.Kind.OPTIONAL;
+        } else if (type.equals(Pool.class)) {
+            dependencyType = getTypeArgument(typeArguments, 0);
+            kind = ResolutionPlan.Kind.POOL;
+        } else if (qualifier == null && isMultibinding(type, typeArguments)) {
+            dependencyType = getTypeArgument(typeArguments, type == Map.class ? 1 : 0);
+            kind = type == Set.class ? ResolutionPlan.Kind.SET
+                : type == List.class ? ResolutionPlan.Kind.LIST
+                : ResolutionPlan.Kind.MAP;
+        } else {
+            dependencyType = type;
+            kind = ResolutionPlan.Kind.INSTANCE;
+        }
+
+        if (dependencyType == null) {
+            return null;
+        }
+
+        // the key is created here so that no key has to be created when instances are requested.
+        final Key<?> key = qualifier == null ? null
+            : qualifier instanceof Annotation annotation ? Key.of(dependencyType, annotation)
+            : qualifier instanceof String name ? Key.of(dependencyType, name)
+            : Key.of(dependencyType, (Class<? extends Annotation>) qualifier);
+
+        return new ResolutionPlan.Dependency(dependencyType, kind, key);
+    }
+
+    /**
+     * The problem for a parameter or field of the given type whose type argument is missing.
+     */
+    private static ResolutionPlan.Problem missingTypeArgument(Class<?> type) {
+        return type.equals(Provider.class) ? ResolutionPlan.Problem.PROVIDER_WITHOUT_TYPE
+            : type.equals(Pool.class) ? ResolutionPlan.Problem.POOL_WITHOUT_TYPE
+            : ResolutionPlan.Problem.OPTIONAL_WITHOUT_TYPE;
+    }
+
+    /**
+     * Resolve the given type for a child container. When neither the type nor anything that its constructor
+     * (transitively) depends on is overridden by the child, the plan of the parent is shared. Otherwise
+     * the child creates a plan of its own.
+     */
+    private ResolutionPlan<?> createChildPlan(Object requested) {
+        if (!overrides(requested)) {
+            final ResolutionPlan<?> parentPlan = parent.linkedPlanFor(requested);
+
+            if (parentPlan.resolvable() && isInherited(requested, parentPlan)) {
+                return parentPlan;
+            }
+        }
+
+        return createPlan(requested);
+    }
+
+    /**
+     * Check if the given resolvable plan of the parent can be shared by this child container, i.e. if this
+     * container resolves the implementing class and all constructor parameters to the same plans as the parent.
+     * Injected providers aren't taken into account because they are resolved by the container that owns the plan.
+     *<p>
+     * The dependency graph of a resolvable plan has no cycles, so the recursion ends.
+     */
+    private boolean isInherited(Object requested, ResolutionPlan<?> parentPlan) {
+        if (parentPlan.type != requested && parentPlan.constructor != null && planFor(parentPlan.type) != parentPlan) {
+            return false;
+        }
+
+        for (ResolutionPlan.Dependency dependency : parentPlan.dependencies) {
+            if (dependency.kind.resolvedLazily()) {
+                continue;
+            }
+
+            if (dependency.plan.resolvable()) {
+                if (planFor(dependency.requested) != dependency.plan) {
+                    return false;
+                }
+            } else if (linkedPlanFor(dependency.requested).resolvable()) {
+                // an optional parameter that is missing in the parent but available in the child.
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Check if the configuration of this child container changes the resolution of the given type or key itself.
+     */
+    private boolean overrides(Object requested) {
+        if (snapshot != parent.snapshot || instantiationStrategy != parent.instantiationStrategy
+            || memberInjection != parent.memberInjection) {
+            return true;
+        }
+
+        if (providers.containsKey(requested) || interfaceMappings.containsKey(requested)) {
+            return true;
+        }
+
+        if (requested instanceof ResolutionPlan.Multibinding multibinding) {
+            return multibinding.kind() == ResolutionPlan.Kind.MAP
+                ? mapBindings.containsKey(multibinding.elementType())
+                : setBindings.containsKey(multibinding.elementType());
+        }
+
+        if (!(requested instanceof Class<?> type)) {
+            return false;
+        }
+
+        if (singletonClasses.contains(type)) {
+            return true;
+        }
+
+        if (scopes.isEmpty()) {
+            return false;
+        }
+
+        final Class<? extends Annotation> scopeAnnotation = findScopeAnnotation(type);
+        return scopeAnnotation != null && scopes.containsKey(scopeAnnotation);
+    }
+
+    /**
+     * Drop the cached plans of this child container when the configuration of the parent was changed since
+     * they were created.
+     */
+    private void checkParentConfiguration() {
+        final int version = parent.effectiveConfigurationVersion();
+
+        if (version != parentConfigurationVersion) {
+            parentConfigurationVersion = version;
+            configurationChanged();
+        }
+    }
+
+    /**
+     * The version of the configuration including the configurations of all parents. Every change of
+     * any of these configurations increases this number.
+     */
+    private int effectiveConfigurationVersion() {
+        return parent == null ? configurationVersion : configurationVersion + parent.effectiveConfigurationVersion();
+    }
+
+    /**
+     * Create a new instance of the given type.
+     */
+    private <T> T createNewInstance(ResolutionPlan<T> plan, Class<?> parent, int depth) {
+        final Class<T> type = plan.type;
+
+        // the trace contains the creation of the constructor arguments, so they are nested in the flame chart.
+        final InjectionTrace trace = injectionTrace;
+        final long traceStart = trace != null ? System.nanoTime() : 0;
+        final ResolutionPlan.Dependency[] dependencies = plan.dependencies;
+
+        // recursively get all constructor arguments
+        final Object[] arguments = new Object[dependencies.length];
+        for (int i = 0; i < dependencies.length; i++) {
+            final ResolutionPlan.Dependency dependency = dependencies[i];
+
+            if (dependency.kind == ResolutionPlan.Kind.PROVIDER) {
+                arguments[i] = getProviderArgument(dependency);
+            } else if (dependency.kind == ResolutionPlan.Kind.POOL) {
+                arguments[i] = getPoolArgument(dependency);
+            } else if (dependency.kind == ResolutionPlan.Kind.OPTIONAL) {
+                arguments[i] = dependency.plan.resolvable()
+                    ? Optional.ofNullable(getDependencyInstance(dependency, type, depth + 1))
+                    : Optional.empty();
+            } else {
+                arguments[i] = getDependencyInstance(dependency, type, depth + 1);
+            }
+        }
+
+        return instantiate(plan, arguments, parent, depth, trace, traceStart);
+    }
+
+    /**
+     * Call the constructor of the given plan with the given arguments and inject the fields and methods.
+     *
+     * @param trace      the trace that records the construction or {@code null}.
+     * @param traceStart the start of the construction for the trace.
+     */
+    private <T> T instantiate(ResolutionPlan<T> plan, Object[] arguments, Class<?> parent, int depth,
+                              InjectionTrace trace, long traceStart) {
+        final Class<T> type = plan.type;
+
+        final InjectionListener listener = injectionListener;
+        final long start = listener != null ? System.nanoTime() : 0;
+
+        final InstantiateEvent event = FlightRecorderEvents.AVAILABLE ? new InstantiateEvent() : null;
+        if (event != null) {
+            event.begin();
+        }
+
+        try {
+            final MembersInjector members = plan.members;
+            final T instance = plan.instantiator.newInstance(
+                members == null ? arguments : Arrays.copyOf(arguments, members.firstDependency));
+
+            if (members != null) {
+                members.inject(instance, arguments);
+            }
+
+            if (listener != null) {
+                listener.instanceCreated(type, System.nanoTime() - start);
+            }
+
+            if (event != null && event.shouldCommit()) {
+                event.type = type;
+                event.parentType = parent;
+                event.depth = depth;
+                event.commit();
+            }
+            return instance;
+        } catch (Exception e) {
+            if (listener != null) {
+                listener.failed(type, e);
+            }
+            throw new EasyDiException(
+                createErrorMessageStart(type) + "An Exception was thrown during the instantiation.", e);
+        } finally {
+            if (trace != null) {
+                trace.record(type, false, traceStart, depth);
+            }
+        }
+    }
+
+
+
+    /**
+     * This method validates the whole dependency graph that can be reached from the given root types.
+     *<p>
+     * Normally a misconfiguration (i.e. a missing {@link #bindInterface(Class, Class)}, multiple constructors
+     * annotated with {@link jakarta.inject.Inject} or a cyclic dependency) is only found when the type is requested
+     * for the first time. With this method all of these problems are found at startup and are reported together.
+     * Types that are only reachable via an injected {@link jakarta.inject.Provider} are validated too.
+     *<p>
+     * As a side effect the resolution of all reachable types is cached so that the first request of a type is
+     * as fast as all following requests. No instances are created by this method.
+     *
+     * @param rootTypes the types that your application will request.
+     * @throws java.lang.IllegalStateException if at least one problem was found. The message contains all problems,
+     *                                         the exception of each problem is added as suppressed exception.
+     */
+    public void validate(Class<?>... rootTypes) {
+        final List<EasyDiException> problems = new ArrayList<>();
+        final Set<Object> validated = new HashSet<>();
+        final Set<Object> failed = new HashSet<>();
+
+        // types that are injected via a provider are validated after the current graph because they may
+        // legally depend on types of the current path.
+        final Deque<Object> lazyTypes = new ArrayDeque<>(Arrays.asList(rootTypes));
+
+        while (!lazyTypes.isEmpty()) {
+            validate(lazyTypes.removeFirst(), new ResolutionStack(), validated, failed, lazyTypes, problems);
+        }
+
+        if (problems.isEmpty()) {
+            for (Object id : validated) {
+                link(planFor(id), new ResolutionStack());
+            }
+        } else {
+            final StringBuilder message = new StringBuilder("EasyDI found " + problems.size()
+                + " problem(s) in the dependency graph:");
+
+            for (int i = 0; i < problems.size(); i++) {
+                message.append("\n").append(i + 1).append(") ").append(problems.get(i).getMessage());
+            }
+
+            final IllegalStateException exception = new IllegalStateException(message.toString());
+            problems.forEach(exception::addSuppressed);
+            throw exception;
+        }
+    }
+
+    /**
+     * Validate the given type and all its constructor dependencies (depth-first).
+     *
+     * @param requested the type or {@link Key} to validate.
+     * @param path      the types whose constructors (transitively) depend on the requested type.
+     * @param validated the types that are already validated.
+     * @param failed    the requested types that can't be resolved.
+     * @param lazyTypes the types of injected providers that have to be validated afterwards.
+     * @param problems  the list of problems found so far.
+     */
+    private void validate(Object requested, ResolutionStack path, Set<Object> validated,
+                          Set<Object> failed, Deque<Object> lazyTypes, List<EasyDiException> problems) {
+        if (failed.contains(requested)) {
+            return;
+        }
+
+        final ResolutionPlan<?> plan = planFor(requested);
+        if (plan.problem != null) {
+            failed.add(requested);
+            problems.add(new EasyDiException(describeProblem(plan) + describePath(path)));
+            return;
+        }
+
+        if (!path.push(plan.id)) {
+            problems.add(new EasyDiException(createErrorMessageStart(plan.type)
+                + "A cyclic dependency was detected: " + path.describeCycle(plan.id)));
+            return;
+        }
+
+        if (!validated.add(plan.id)) {
+            path.pop();
+            return;
+        }
+
+        for (ResolutionPlan.Dependency dependency : plan.dependencies) {
+            if (dependency.kind.resolvedLazily()) {
+                lazyTypes.addLast(dependency.requested);
+            } else if (dependency.kind != ResolutionPlan.Kind.OPTIONAL || isRequiredOptional(dependency)) {
+                validate(dependency.requested, path, validated, failed, lazyTypes, problems);
+            }
+        }
+
+        path.pop();
+    }
+
+    /**
+     * An optional constructor parameter only has to be validated when its type can be resolved or when it can't be
+     * resolved because of a cyclic dependency. A missing type is no problem here.
+     */
+    private boolean isRequiredOptional(ResolutionPlan.Dependency dependency) {
+        final ResolutionPlan<?> plan = linkedPlanFor(dependency.requested);
+        return plan.resolvable() || plan.cyclic;
+    }
+
+    /**
+     * This method creates all singletons that can be reached from the given root types and all types that were
+     * marked with {@link #markAsSingleton(Class)} ahead of time.
+     *<p>
+     * The order of creation is computed from the constructor dependencies between the singletons:
+     * A singleton is only created when all singletons that it (transitively) depends on are available. Singletons
+     * that don't depend on each other are created concurrently with the given executor. This way the time
+     * for creating all singletons is limited by the longest chain of dependent singletons
+     * instead of the sum of all singletons.
+     *<p>
+     * The dependency graph is {@link #validate(Class[]) validated} before any singleton is created.
+     *
+     * @param executor  the executor that creates the singletons, i.e. a {@link java.util.concurrent.ForkJoinPool}.
+     * @param rootTypes the types that your application will request.
+     * @return a future that is completed when all singletons are created. When the creation of a singleton fails,
+     * the future is completed exceptionally.
+     * @throws java.lang.IllegalStateException if the validation of the dependency graph failed.
+     */
+    public CompletableFuture<Void> initializeSingletonsEagerly(Executor executor, Class<?>... rootTypes) {
+        final Set<Class<?>> types = new LinkedHashSet<>(Arrays.asList(rootTypes));
+        types.addAll(singletonClasses);
+
+        final Class<?>[] allTypes = types.toArray(new Class<?>[0]);
+        validate(allTypes);
+
+        // collect all singletons that can be reached, including those behind injected providers
+        final List<ResolutionPlan<?>> singletons = new ArrayList<>();
+        final Set<Object> visited = new HashSet<>();
+        final Deque<Object> typesToVisit = new ArrayDeque<>(types);
+
+        while (!typesToVisit.isEmpty()) {
+            final ResolutionPlan<?> plan = planFor(typesToVisit.removeFirst());
+
+            // collections of multibindings are cheap, only the singletons they contain are created.
+            if (visited.add(plan.id)) {
+                if (plan.singleton && !plan.isMultibinding()) {
+                    singletons.add(plan);
+                }
+
+                for (ResolutionPlan.Dependency dependency : plan.dependencies) {
+                    typesToVisit.addLast(dependency.requested);
+                }
+            }
+        }
+
+        final Map<Object, CompletableFuture<Void>> futures = new HashMap<>();
+        for (ResolutionPlan<?> singleton : singletons) {
+            scheduleSingleton(singleton, executor, futures);
+        }
+
+        return CompletableFuture.allOf(futures.values().toArray(new CompletableFuture<?>[0]));
+    }
+
+    /**
+     * Schedule the creation of the given singleton after all singletons it depends on. The singleton is created
+     * from its plan, so qualified singletons are created by their binding and not as an instance of the plain class.
+     *
+     * @param futures the futures of the scheduled singletons by their plan id.
+     * @return the future that is completed when the singleton was created.
+     */
+    private CompletableFuture<Void> scheduleSingleton(ResolutionPlan<?> plan, Executor executor,
+                                                      Map<Object, CompletableFuture<Void>> futures) {
+        final CompletableFuture<Void> existingFuture = futures.get(plan.id);
+        if (existingFuture != null) {
+            return existingFuture;
+        }
+
+        final CompletableFuture<?>[] dependencies = singletonDependencies(plan).stream()
+            .map(dependency -> scheduleSingleton(dependency, executor, futures))
+            .toArray(CompletableFuture<?>[]::new);
+
+        final CompletableFuture<Void> future = CompletableFuture.allOf(dependencies)
+            .thenRunAsync(() -> {
+                try {
+                    getInstanceAsRoot(plan);
+                } catch (EasyDiException rootCause) {
+                    throw createHierarchyException(plan.type, null, rootCause);
+                }
+            }, executor);
+
+        futures.put(plan.id, future);
+        return future;
+    }
+
+    /**
+     * Find the singletons that have to exist before an instance of the given plan can be created.
+     * Non-singleton constructor dependencies are looked through because they are created together
+     * with the instance. Injected providers aren't dependencies here as they are resolved lazily.
+     */
+    private List<ResolutionPlan<?>> singletonDependencies(ResolutionPlan<?> plan) {
+        final List<ResolutionPlan<?>> singletons = new ArrayList<>();
+        final Set<Object> visited = new HashSet<>();
+        final Deque<ResolutionPlan<?>> plansToVisit = new ArrayDeque<>();
+        addConstructorDependencies(plan, plansToVisit);
+
+        while (!plansToVisit.isEmpty()) {
+            final ResolutionPlan<?> dependency = plansToVisit.removeFirst();
+
+            if (visited.add(dependency.id)) {
+                if (dependency.singleton && !dependency.isMultibinding()) {
+                    singletons.add(dependency);
+                } else {
+                    addConstructorDependencies(dependency, plansToVisit);
+                }
+            }
+        }
+
+        return singletons;
+    }
+
+    private void addConstructorDependencies(ResolutionPlan<?> plan, Deque<ResolutionPlan<?>> plansToVisit) {
+        for (ResolutionPlan.Dependency dependency : plan.dependencies) {
+            if (dependency.kind == ResolutionPlan.Kind.OPTIONAL) {
+                final ResolutionPlan<?> optionalPlan = linkedPlanFor(dependency.requested);
+                if (optionalPlan.resolvable()) {
+                    plansToVisit.addLast(optionalPlan);
+                }
+            } else if (!dependency.kind.resolvedLazily()) {
+                plansToVisit.addLast(planFor(dependency.requested));
+            }
+        }
+    }
+
+    /**
+     * Describes the path of types that lead to a problem for the error messages of {@link #validate(Class[])}.
+     */
+    private String describePath(ResolutionStack path) {
+        if (path.isEmpty()) {
+            return "";
+        }
+
+        return " (required by " + path.describe() + ")";
+    }
+
+    /**
+     * This method writes a snapshot of the dependency graph that can be reached from the given root types.
+     *<p>
+     * The snapshot contains the constructor that is used for every class, the bindings of the constructor
+     * parameters, the interface mappings and which classes are singletons. It can be created at build time
+     * and loaded with {@link #loadSnapshot(java.io.InputStream)} at startup so that EasyDI doesn't have to
+     * find out all of this with reflection again.
+     *<p>
+     * Types that are created by a provider aren't part of the snapshot. The dependency graph is
+     * {@link #validate(Class[]) validated} before the snapshot is written.
+     *
+     * @param outputStream the stream the snapshot is written to. The stream is not closed.
+     * @param rootTypes    the types that your application will request.
+     * @throws java.io.IOException             if the snapshot can't be written.
+     * @throws java.lang.IllegalStateException if the validation of the dependency graph failed.
+     */
+    public void writeSnapshot(OutputStream outputStream, Class<?>... rootTypes) throws IOException {
+        validate(rootTypes);
+
+        // only the plans that can be reached from the root types, including those behind injected providers and
+        // resolvable optionals. Other cached plans may stem from earlier requests that aren't part of this graph.
+        final Map<Object, ResolutionPlan<?>> reachablePlans = new LinkedHashMap<>();
+        final Deque<Object> typesToVisit = new ArrayDeque<>(Arrays.asList(rootTypes));
+
+        while (!typesToVisit.isEmpty()) {
+            final Object requested = typesToVisit.removeFirst();
+            final ResolutionPlan<?> plan = linkedPlanFor(requested);
+
+            if (plan.resolvable() && reachablePlans.putIfAbsent(requested, plan) == null) {
+                for (ResolutionPlan.Dependency dependency : plan.dependencies) {
+                    typesToVisit.addLast(dependency.requested);
+                }
+            }
+        }
+
+        GraphSnapshot.write(reachablePlans, outputStream);
+    }
+
+    /**
+     * This method writes the dependency graph of all types that were resolved since the configuration was changed
+     * for the last time, i.e. to find out which parts of the graph are expensive to create.
+     *<p>
+     * The nodes are the resolved types with their scope: {@code singleton}, {@code provider}, {@code scoped} or
+     * {@code prototype}. The edges are the constructor parameters, including injected providers and optionals.
+     * When an {@link InjectionMetrics} is registered as listener (see {@link #setInjectionListener(InjectionListener)}),
+     * every node also has the number of created instances and the total time that its constructor or provider took.
+     * Qualified bindings of the same class share these metrics.
+     *<p>
+     * Types that are only reachable via an injected provider are resolved for the export if they weren't before.
+     * No instances are created by this method.
+     *
+     * @param output the destination of the graph, i.e. a {@link java.io.Writer} or {@link StringBuilder}.
+     * @param format the format of the graph.
+     * @throws java.io.IOException if the graph can't be written to the output.
+     */
+    public void writeGraph(Appendable output, GraphFormat format) throws IOException {
+        final InjectionMetrics metrics = injectionListener instanceof InjectionMetrics injectionMetrics
+            ? injectionMetrics : null;
+
+        final Map<ResolutionPlan<?>, String> names = new IdentityHashMap<>();
+        final Deque<ResolutionPlan<?>> plansToVisit = new ArrayDeque<>();
+
+        // qualified requests come last, so that plans that are requested by their type are named by it.
+        final List<Object> requestedTypes = new ArrayList<>(plans.keySet());
+        requestedTypes.sort(Comparator.comparing(requested -> requested instanceof Key));
+
+        for (Object requested : requestedTypes) {
+            visitGraphNode(requested, linkedPlanFor(requested), names, plansToVisit);
+        }
+
+        final Map<String, GraphExport.Node> nodes = new TreeMap<>();
+        final Map<String, List<GraphExport.Edge>> edges = new TreeMap<>();
+
+        while (!plansToVisit.isEmpty()) {
+            final ResolutionPlan<?> plan = plansToVisit.removeFirst();
+            final String name = names.get(plan);
+
+            if (nodes.containsKey(name)) {
+                continue;
+            }
+
+            final String scope = plan.singleton ? "singleton"
+                : plan.usesProvider() ? "provider"
+                : plan.scope != null ? "scoped"
+                : "prototype";
+
+            final InjectionMetrics.TypeMetrics typeMetrics = metrics == null ? null : metrics.forType(plan.type);
+            nodes.put(name, new GraphExport.Node(name, scope, plan.resolvable(),
+                typeMetrics == null ? -1 : typeMetrics.created(),
+                typeMetrics == null ? -1
+                    : typeMetrics.constructorLatency().totalNanos() + typeMetrics.providerLatency().totalNanos()));
+
+            final List<GraphExport.Edge> planEdges = new ArrayList<>();
+            for (ResolutionPlan.Dependency dependency : plan.dependencies) {
+                final ResolutionPlan<?> dependencyPlan = dependency.plan != null
+                    ? dependency.plan
+                    : linkedPlanFor(dependency.requested);
+
+                visitGraphNode(dependency.requested, dependencyPlan, names, plansToVisit);
+                planEdges.add(new GraphExport.Edge(name, names.get(dependencyPlan), dependency.kind));
+            }
+            edges.put(name, planEdges);
+        }
+
+        GraphExport.write(new ArrayList<>(nodes.values()),
+            edges.values().stream().flatMap(List::stream).collect(Collectors.toList()), format, output);
+    }
+
+    /**
+     * Name the given plan as node of the graph export and schedule it for a visit, if this wasn't done before.
+     * Plans are named by their type or multibinding, plans that are requested with a {@link Key} by the key.
+     */
+    private void visitGraphNode(Object requested, ResolutionPlan<?> plan, Map<ResolutionPlan<?>, String> names,
+                                Deque<ResolutionPlan<?>> plansToVisit) {
+        if (!names.containsKey(plan)) {
+            names.put(plan, requested instanceof Key<?> key
+                ? key.toString()
+                : plan.id instanceof Class<?> type ? type.getName() : plan.id.toString());
+            plansToVisit.addLast(plan);
+        }
+    }
+
+    /**
+     * This method loads a snapshot that was written with {@link #writeSnapshot(java.io.OutputStream, Class[])}.
+     *<p>
+     * For all classes of the snapshot the constructor, the bindings of the constructor parameters and the singleton
+     * flag are taken from the snapshot instead of finding them out with reflection on the constructors and
+     * annotations. Interfaces without a binding use the implementing class of the snapshot. The bindings and
+     * providers of the configuration always take precedence over the snapshot.
+     *<p>
+     * The snapshot should be created with the same version of your application. Entries that don't match
+     * a class anymore are ignored and the class is resolved without the snapshot. So are entries with collection
+     * parameters that were multibindings when the snapshot was written but aren't in this configuration or vice
+     * versa.
+     *
+     * @param inputStream the stream the snapshot is read from. The stream is not closed.
+     * @throws java.io.IOException if the stream can't be read or doesn't contain a snapshot.
+     */
+    public void loadSnapshot(InputStream inputStream) throws IOException {
+        checkNotFrozen();
+
+        snapshot = GraphSnapshot.read(inputStream);
+        configurationChanged();
+    }
+
+    /**
+     * This method is used to define what implementing class should be used for a given interface.
+     * <p>
+     * This way you can use interface types as dependencies in your classes and doesn't have to
+     * depend on specific implementations.
+     *<p>
+     * But EasyDI needs to know what implementing class should be used when an interface type is
+     * defined as dependency.
+     * <p>
+     *
+     * <strong>Hint:</strong> The second parameter has to be an actual implementing class of the interface.
+     * It may not be an abstract class!
+     *
+     *<p>
+     * Alternatively to this method you can:
+     *  <ul>
+     *      <li>
+     * use the {@link #bindInstance(Class, Object)} method to define an instance of the interface that is used
+     *      </li>
+     *      <li>
+     * use the {@link #bindProvider(Class, Provider)} method to define a provider for this interface.
+     *      </li>
+     *  </ul>
+     *
+     * @param interfaceType      the class type of the interface.
+     * @param implementationType the class type of the implementing class.
+     * @param <T>                the generic type of the interface.
+     * @throws java.lang.IllegalArgumentException if the first parameter is <b>not</b> an interface or the second
+     *                                            parameter <b>is</b> an interface or an abstract class.
+     */
+    public <T> void bindInterface(Class<T> interfaceType, Class<? extends T> implementationType) {
+        checkNotFrozen();
+
+        if (interfaceType.isInterface()) {
+            if (implementationType.isInterface()) {
+                throw new IllegalArgumentException(
+                    "The given type is an interface. Expecting the second argument to not be an interface but an actual class");
+            } else if (isAbstractClass(implementationType)) {
+                throw new IllegalArgumentException(
+                    "The given type is an abstract class. Expecting the second argument to be an actual implementing class");
+            } else {
+                interfaceMappings.put(interfaceType, implementationType);
+                configurationChanged();
+            }
+        } else {
+            throw new IllegalArgumentException(
+                "The given type is not an interface. Expecting the first argument to be an interface.");
+        }
+    }
+
+    /**
+     * This method is used to define a {@link jakarta.inject.Provider} for a given type.
+     *<p>
+     * The type can either be an interface or class type. This is a good way to integrate
+     * third-party classes that aren't suitable for injection by default (i.e. have no public constructor...).
+     *<p>
+     * Another use-case is when you need to make some configuration for new instance before it is used for dependency
+     * injection.
+     *<p>
+     *
+     * Providers can be combined with {@link jakarta.inject.Singleton}'s.
+     * When a type is marked as singleton (has the annotation {@link jakarta.inject.Singleton}) and there is a provider
+     * defined for this type, then this provider will only be executed exactly one time when the type is requested the
+     * first time.
+     *
+     * @param classType the type of the class for which the provider is used.
+     * @param provider  the provider that will be called to get an instance of the given type.
+     * @param <T>       the generic type of the class/interface.
+     */
+    public <T> void bindProvider(Class<T> classType, Provider<T> provider) {
+        checkNotFrozen();
+
+        providers.put(classType, provider);
+        configurationChanged();
+    }
+
+
+    /**
+     * This method is used to define an instance that is used every time the given
+     * class type is requested.
+     *<p>
+     * This way the given instance is effectively a singleton.
+     *<p>
+     * This method can also be used to define instances for interfaces or abstract classes
+     * that otherwise couldn't be instantiated without further configuration.
+     *
+     * @param classType the class type for that the instance will be bound.
+     * @param instance  the instance that will be bound.
+     * @param <T>       the generic type of the class.
+     */
+    public <T> void bindInstance(Class<T> classType, T instance) {
+        bindProvider(classType, () -> instance);
+    }
+
+    /**
+     * This method is used to define the implementing class that is used for a qualified type, i.e. for
+     * constructor parameters that are annotated with {@link jakarta.inject.Named} or a custom
+     * {@link jakarta.inject.Qualifier}.
+     *
+     * @param key                the qualified type.
+     * @param implementationType the class type of the implementing class.
+     * @param <T>                the generic type of the qualified type.
+     * @throws java.lang.IllegalArgumentException if the implementing class is an interface or an abstract class.
+     */
+    public <T> void bindInterface(Key<T> key, Class<? extends T> implementationType) {
+        checkNotFrozen();
+        checkImplementationType(implementationType);
+
+        interfaceMappings.put(key, implementationType);
+        configurationChanged();
+    }
+
+    /**
+     * This method is used to define a {@link jakarta.inject.Provider} for a qualified type.
+     *<p>
+     * As with {@link #bindProvider(Class, Provider)} the provider is only called once when the type is a
+     * singleton. Every qualifier of the type has its own singleton instance.
+     *
+     * @param key      the qualified type.
+     * @param provider the provider that will be called to get an instance of the qualified type.
+     * @param <T>      the generic type of the qualified type.
+     */
+    public <T> void bindProvider(Key<T> key, Provider<T> provider) {
+        checkNotFrozen();
+
+        providers.put(key, provider);
+        configurationChanged();
+    }
+
+    /**
+     * This method is used to define an instance that is used every time the given qualified type is requested.
+     *
+     * @param key      the qualified type.
+     * @param instance the instance that will be bound.
+     * @param <T>      the generic type of the qualified type.
+     */
+    public <T> void bindInstance(Key<T> key, T instance) {
+        bindProvider(key, () -> instance);
+    }
+
+    /**
+     * This method adds an implementing class to the multibinding of the given type. Constructor parameters of type
+     * {@code Set<T>} or {@code List<T>} get instances of all classes that were added for {@code T}, the list in
+     * the order of adding:
+     *
+     * <pre>{@code
+     * easyDI.bindIntoSet(Handler.class, AuthHandler.class);
+     * easyDI.bindIntoSet(Handler.class, LoggingHandler.class);
+     *
+     * public class Pipeline {
+     *     public Pipeline(List<Handler> handlers) {...}
+     * }
+     * }</pre>
+     *
+     * The implementing classes are resolved like any other class. When all of them are singletons, the collection
+     * is created only once.
+     *
+     * @param type               the element type of the collection.
+     * @param implementationType the class type of the implementing class.
+     * @param <T>                the generic type of the elements.
+     * @throws java.lang.IllegalArgumentException if the implementing class is an interface or an abstract class.
+     */
+    public <T> void bindIntoSet(Class<T> type, Class<? extends T> implementationType) {
+        checkNotFrozen();
+        checkImplementationType(implementationType);
+
+        setBindings.computeIfAbsent(type, key -> new CopyOnWriteArrayList<>()).add(implementationType);
+        multibindingChanged(type);
+    }
+
+    /**
+     * This method adds an implementing class with the given name to the multibinding of the given type.
+     * Constructor parameters of type {@code Map<String, T>} get instances of all classes that were added for
+     * {@code T} by their names. Adding a class with an existing name replaces the class.
+     *
+     * @param type               the value type of the map.
+     * @param name               the key in the map.
+     * @param implementationType the class type of the implementing class.
+     * @param <T>                the generic type of the values.
+     * @throws java.lang.IllegalArgumentException if the implementing class is an interface or an abstract class.
+     */
+    public <T> void bindIntoMap(Class<T> type, String name, Class<? extends T> implementationType) {
+        checkNotFrozen();
+        checkImplementationType(implementationType);
+
+        mapBindings.computeIfAbsent(type, key -> new ConcurrentHashMap<>()).put(name, implementationType);
+        multibindingChanged(type);
+    }
+
+    private void checkImplementationType(Class<?> implementationType) {
+        if (implementationType.isInterface() || isAbstractClass(implementationType)) {
+            throw new IllegalArgumentException(
+                "The given type is an interface or an abstract class. Expecting an actual implementing class");
+        }
+    }
+
+    /**
+     * The collections of a multibinding whose implementations are all singletons are stored as singletons.
+     * They have to be created again when an implementation is added.
+     */
+    private void multibindingChanged(Class<?> type) {
+        for (ResolutionPlan.Kind kind : List.of(ResolutionPlan.Kind.SET, ResolutionPlan.Kind.LIST,
+            ResolutionPlan.Kind.MAP)) {
+            singletonInstances.remove(new ResolutionPlan.Multibinding(kind, type));
+        }
+        configurationChanged();
+    }
+
+    /**
+     * This method is used to define the {@link Scope} that manages the classes with the given scope annotation.
+     *<p>
+     * A scope annotation is an annotation that is annotated with {@link jakarta.inject.Scope}. For example
+     * the {@link RequestScoped} annotation is typically bound to a {@link RequestScope}:
+     *
+     * <pre>{@code
+     * RequestScope requestScope = new RequestScope();
+     * easyDI.bindScope(RequestScoped.class, requestScope);
+     * }</pre>
+     *
+     * @param scopeAnnotation the scope annotation.
+     * @param scope           the scope that manages the instances of the classes with this annotation.
+     * @throws java.lang.IllegalArgumentException if the annotation is no scope annotation or is
+     *                                            {@link jakarta.inject.Singleton}.
+     */
+    public void bindScope(Class<? extends Annotation> scopeAnnotation, Scope scope) {
+        checkNotFrozen();
+
+        if (!scopeAnnotation.isAnnotationPresent(jakarta.inject.Scope.class)) {
+            throw new IllegalArgumentException(
+                "The given annotation is not annotated with jakarta.inject.Scope. Expecting a scope annotation.");
+        }
+        if (scopeAnnotation == Singleton.class) {
+            throw new IllegalArgumentException(
+                "Singletons are managed by EasyDI itself. Expecting another scope annotation.");
+        }
+
+        scopes.put(scopeAnnotation, scope);
+        configurationChanged();
+    }
+
+    /**
+     * This method is used to define how many idle instances of the given type are kept by the {@link Pool pools}
+     * that are injected as constructor parameter, i.e. {@code Pool<Codec>}. Without a size the pools keep as many
+     * instances as there are processors.
+     *<p>
+     * The size only applies to pools that are injected for the first time afterwards. A pooled type should
+     * not be a singleton, otherwise every lease would borrow the same instance.
+     *
+     * @param type        the class type of the pooled instances.
+     * @param maximumSize the maximum number of idle instances.
+     * @throws java.lang.IllegalArgumentException if the size isn't positive.
+     */
+    public void setPoolSize(Class<?> type, int maximumSize) {
+        checkNotFrozen();
+
+        if (maximumSize <= 0) {
+            throw new IllegalArgumentException("The pool size has to be positive, but was " + maximumSize + ".");
+        }
+
+        poolSizes.put(type, maximumSize);
+    }
+
+    /**
+     * This method can be used to mark a class as singleton.
+     *<p>
+     * It is an alternative for situations when you can't use the {@link jakarta.inject.Singleton} annotation.
+     * For example when you want a class from a third-party library to be a singleton.
+     *<p>
+     * It is not possible to mark interfaces as singleton.
+     *
+     * @param type the type that will be marked as singleton.
+     */
+    public void markAsSingleton(Class type) {
+        checkNotFrozen();
+
+        if (type.isInterface()) {
+            throw new IllegalArgumentException(
+                "The given type is an interface. Expecting the param to be an actual class");
+        }
+
+        singletonClasses.add(type);
+        configurationChanged();
+    }
+
+
+    /**
+     * This method is used to define how new instances are created from the constructors of classes.
+     *<p>
+     * By default {@link InstantiationStrategy#GENERATED_FACTORIES} is used, which uses the factories generated by
+     * the EasyDI annotation processor when they are available and method handles otherwise. With
+     * {@link InstantiationStrategy#REFLECTION} the instances are created with
+     * {@link java.lang.reflect.Constructor#newInstance(Object...)}. It's also possible to use a custom strategy.
+     *
+     * @param instantiationStrategy the strategy that is used to create instantiators for constructors.
+     */
+    public void setInstantiationStrategy(InstantiationStrategy instantiationStrategy) {
+        checkNotFrozen();
+
+        this.instantiationStrategy = instantiationStrategy;
+        configurationChanged();
+    }
+
+
+    /**
+     * This method is used to enable the injection of fields and methods that are annotated with
+     * {@link jakarta.inject.Inject}, for classes that can't use constructor injection only.
+     *<p>
+     * After the constructor was called, the injected fields and methods of the superclasses are injected first,
+     * then those of the class itself, fields before methods. The fields and methods of every class are found only
+     * once, so injecting them into further instances needs no reflection. When the class is in a named module, its
+     * package has to be opened to EasyDI.
+     *<p>
+     * Member injection is disabled by default so that classes don't have to be searched for such members.
+     *
+     * @param enabled {@code true} to inject annotated fields and methods.
+     */
+    public void setMemberInjection(boolean enabled) {
+        checkNotFrozen();
+
+        this.memberInjection = enabled;
+        configurationChanged();
+    }
+
+
+    /**
+     * This method is used to register a listener that is notified about the work that EasyDI does, i.e. the
+     * creation of instances and the use of singletons. See {@link InjectionMetrics} for a listener that collects
+     * metrics for every type.
+     *<p>
+     * Only one listener can be registered. When no listener is registered, there is no overhead at all.
+     *
+     * @param injectionListener the listener or {@code null} to remove the current listener.
+     */
+    public void setInjectionListener(InjectionListener injectionListener) {
+        checkNotFrozen();
+
+        this.injectionListener = injectionListener;
+    }
+
+    /**
+     * This method enables the trace mode: Every construction and provider call is recorded into the given trace
+     * with its nesting and thread, so that a slow startup can be viewed as flame chart
+     * (see {@link InjectionTrace#writeChromeTrace(Appendable)}).
+     *<p>
+     * Only one trace can be set. Without a trace nothing is measured for it.
+     *
+     * @param injectionTrace the trace or {@code null} to disable the trace mode.
+     */
+    public void setInjectionTrace(InjectionTrace injectionTrace) {
+        checkNotFrozen();
+
+        this.injectionTrace = injectionTrace;
+    }
+
+
+    /**
+     * This method turns the current configuration into an immutable {@link Injector}.
+     *<p>
+     * The returned injector uses all bindings, providers and singleton markers that were defined on this
+     * instance up to now. It shares the singleton instances with this instance: A singleton is created only once,
+     * no matter if it is requested from this instance or from the injector first.
+     * Its configuration can't be changed anymore. Because of this it can be shared between any threads and
+     * the resolution of types never has to take configuration changes into account.
+     *<p>
+     * Changes that are made to this instance after freezing have no effect on the returned injector.
+     *
+     * @return the immutable injector.
+     */
+    public Injector freeze() {
+        return new EasyDI(this);
+    }
+
+    /**
+     * This method creates a child container that uses the configuration of this instance and can override parts
+     * of it, i.e. with a {@link #bindInstance(Class, Object)} of the current user for a single request:
+     *
+     * <pre>{@code
+     * try (EasyDI requestDI = easyDI.createChild()) {
+     *     requestDI.bindInstance(User.class, currentUser);
+     *
+     *     requestDI.getInstance(RequestHandler.class).handle();
+     * }
+     * }</pre>
+     *<p>
+     * Creating a child is cheap: Its configuration is empty and all lookups fall back to this instance without
+     * copying anything. Types that aren't affected by the overrides of the child (neither directly nor via their
+     * constructor parameters) share the cached resolution and the singletons of this instance. Only types that
+     * depend on an override are resolved again by the child. When such a type is a singleton, the child keeps
+     * its own instance which is released on {@link #close()}.
+     *<p>
+     * Changes of the configuration of this instance are visible to existing children.
+     *
+     * @return the child container.
+     */
+    public EasyDI createChild() {
+        return new EasyDI(this, effectiveConfigurationVersion());
+    }
+
+    /**
+     * This method releases the singletons that were created by this instance. For a child container
+     * (see {@link #createChild()}) these are only the singletons that depend on its overrides.
+     * Singletons that are shared with the parent stay alive. A frozen injector (see {@link #freeze()}) doesn't
+     * release the singletons because they belong to the instance it was created from. The idle instances of the
+     * injected {@link Pool pools} are discarded.
+     *<p>
+     * No instances can be requested from a closed instance. Children should be closed before their parent.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        plans.clear();
+
+        // the singletons of a frozen injector belong to the instance it was created from.
+        if (!frozen) {
+            singletonInstances.clear();
+        }
+
+        pools.values().forEach(Pool::clear);
+        pools.clear();
+    }
 
     /**
-     * A checklist for all class types that were requested to get instances from.
+     * Has to be called every time the configuration was changed. Resolutions that were cached for the
+     * old configuration aren't used anymore.
      */
-    private final Set<Class<?>> requestedClasses = new HashSet<>();
+    private void configurationChanged() {
+        configurationVersion++;
+        plans.clear();
+    }
 
     /**
-     * A checklist with all class types that were successfully instantiated.
+     * Throws an {@link java.lang.IllegalStateException} if this instance was created by {@link #freeze()}.
      */
-    private final Set<Class<?>> instantiableClasses = new HashSet<>();
+    private void checkNotFrozen() {
+        if (frozen) {
+            throw new IllegalStateException(
+                "This EasyDI instance is frozen. The configuration can't be changed anymore.");
+        }
+    }
 
-    /**
-     * A map with all classes that are marked as singleton and the actual singleton instance.
-     */
-    private final Map<Class<?>, Object> singletonInstances = new HashMap<>();
 
     /**
-     * A set of classes that are marked to be treated as singleton even if they aren't annotated as singleton.
+     * This helper method returns {@code true} only if the given
+     * class type is an abstract class.
+     *
+     * @param type the class type to check
+     * @return  {@code true} if the given type is an abstract class, otherwise  {@code false}
      */
-    private final Set<Class<?>> singletonClasses = new HashSet<>();
+    static boolean isAbstractClass(Class type) {
+        return !type.isInterface() && Modifier.isAbstract(type.getModifiers());
+    }
+
+
 
     /**
-     * This map stores the implementation type (value) that should be used for an interface type (key).
+     * This method is used to find out the type arguments of a generic constructor parameter or field, i.e. of a
+     * {@link jakarta.inject.Provider} or {@link java.util.Optional}.
+     *
+     * @param genericType the generic type of the parameter or field.
+     * @return the class types of the type arguments. A type argument that is no class type (i.e. a wildcard)
+     * is {@code null}.
      */
-    private final Map<Class<?>, Class> interfaceMappings = new HashMap<>();
+    private static Class<?>[] getTypeArguments(Type genericType) {
+        if (genericType instanceof ParameterizedType typeParam) {
+            final Type[] actualTypeArguments = typeParam.getActualTypeArguments();
+            final Class<?>[] typeArguments = new Class<?>[actualTypeArguments.length];
+
+            for (int i = 0; i < typeArguments.length; i++) {
+                final Type typeArgument = actualTypeArguments[i];
+
+                typeArguments[i] = typeArgument instanceof ParameterizedType parameterizedTypeArgument
+                    ? (Class<?>) parameterizedTypeArgument.getRawType()
+                    : typeArgument instanceof Class<?> classType ? classType : null;
+            }
+
+            return typeArguments;
+        } else {
+            return new Class<?>[0];
+        }
+    }
 
     /**
-     * This map stores providers for given class types.
+     * @return the type argument with the given index or {@code null} if there is no such type argument or
+     * the type argument is no class type (i.e. a wildcard).
      */
-    private final Map<Class<?>, Provider> providers = new HashMap<>();
+    private static Class<?> getTypeArgument(Class<?>[] typeArguments, int index) {
+        return index < typeArguments.length ? typeArguments[index] : null;
+    }
 
     /**
-     * Get an instance of the given class type.
-     *
-     * @param requestedType the class type of which an instance is retrieved.
-     * @param <T>           the generic type of the class.
-     * @return an instance of the given type.
-     * @throws java.lang.IllegalArgumentException if there is a misconfiguration or a requested class can't be instantiated.
+     * Check if the given constructor parameter is a multibinding: A {@link java.util.Set} or {@link java.util.List}
+     * of an element type or a {@link java.util.Map} from {@link String} to an element type. Such a parameter gets
+     * all implementations that are bound with {@link #bindIntoSet(Class, Class)} or
+     * {@link #bindIntoMap(Class, String, Class)}, unless the collection type itself is bound.
+     *<p>
+     * Only element types with at least one binding are multibindings. Other collection parameters are resolved
+     * like any other type, so they still need a binding of the collection type.
      */
-    @SuppressWarnings("unchecked")
-    public <T> T getInstance(Class<T> requestedType) {
-        return getInstance(requestedType, null);
-    }
+    private boolean isMultibinding(Class<?> type, Class<?>[] typeArguments) {
+        if (type != Set.class && type != List.class && type != Map.class) {
+            return false;
+        }
 
-    @SuppressWarnings("unchecked")
-    private <T> T getInstance(Class<T> requestedType, Class<?> parent) {
-        try {
-            Class<T> type = requestedType;
-
-            if (requestedType.isInterface()) {
-                if (interfaceMappings.containsKey(requestedType)) {
-                    // replace the interface type with the implementing class type.
-                    type = interfaceMappings.get(requestedType);
-                } else if (providers.containsKey(requestedType)) {
-                    return getInstanceFromProvider(requestedType);
-                } else {
-                    throw new EasyDiException(createErrorMessageStart(requestedType)
-                        + "It is an interface and there was no implementation class mapping defined for this type. " +
-                        "Please use the 'bindInterface' method of EasyDI to define what implementing class should be used for a given interface.");
-                }
-            }
+        if (isCollectionBound(type)) {
+            return false;
+        }
 
-            if (isAbstractClass(requestedType)) {
-                if (providers.containsKey(requestedType)) {
-                    return getInstanceFromProvider(requestedType);
-                } else {
-                    throw new EasyDiException(createErrorMessageStart(requestedType)
-                        + "It is an abstract class and there is no provider for this class available. " +
-                        "Please define a provider with the `bindProvider` method for this abstract class type.");
-                }
-            }
+        if (type == Map.class) {
+            final Class<?> valueType = getTypeArgument(typeArguments, 1);
+            return getTypeArgument(typeArguments, 0) == String.class && valueType != null
+                && hasMultibindings(valueType, true);
+        }
 
-            // If a class was already requested before...
-            if (requestedClasses.contains(type)) {
-                // ... we should have been able to instantiate it in the past ...
-                if (!instantiableClasses.contains(type)) {
+        final Class<?> elementType = getTypeArgument(typeArguments, 0);
+        return elementType != null && hasMultibindings(elementType, false);
+    }
 
-                    // if not, this means a cyclic dependency and is an error
-                    throw new EasyDiException(createErrorMessageStart(type) + "A cyclic dependency was detected.");
-                }
-            } else {
-                // if this class wasn't requested before we now add it to the checklist.
-                requestedClasses.add(type);
+    /**
+     * Check if the collection type itself is bound on this instance or one of its parents.
+     */
+    private boolean isCollectionBound(Class<?> type) {
+        for (EasyDI container = this; container != null; container = container.parent) {
+            if (container.interfaceMappings.containsKey(type) || container.providers.containsKey(type)) {
+                return true;
             }
+        }
 
-            // If we have an existing singleton instance for this type...
-            if (singletonInstances.containsKey(type)) {
-                // ... we immediately return it.
-                return (T) singletonInstances.get(type);
-            }
+        return false;
+    }
 
-            // check if there is a provider available
-            if (providers.containsKey(type)) {
-                final T instanceFromProvider = getInstanceFromProvider(type);
-                markAsInstantiable(type);
+    /**
+     * Check if the collection parameters of the given plan from the snapshot are still resolved the same way.
+     * The snapshot only contains the kind of each parameter, but whether a collection parameter is a multibinding
+     * depends on the bindings of the configuration, see {@link #isMultibinding(Class, Class[])}.
+     */
+    private boolean matchesMultibindings(ResolutionPlan<?> plan) {
+        for (ResolutionPlan.Dependency dependency : plan.dependencies) {
+            final boolean matches = switch (dependency.kind) {
+                case SET -> !isCollectionBound(Set.class) && hasMultibindings(dependency.type, false);
+                case LIST -> !isCollectionBound(List.class) && hasMultibindings(dependency.type, false);
+                case MAP -> !isCollectionBound(Map.class) && hasMultibindings(dependency.type, true);
+                case INSTANCE -> dependency.type != Set.class && dependency.type != List.class
+                    && dependency.type != Map.class || isCollectionBound(dependency.type);
+                default -> true;
+            };
 
-                if (isSingleton(type)) {
-                    singletonInstances.put(type, instanceFromProvider);
-                }
-                return instanceFromProvider;
+            if (!matches) {
+                return false;
             }
+        }
 
-            return createNewInstance(type, parent);
-        } catch (EasyDiException rootCause) {
-            String errorMessage = "EasyDI wasn't able to create your class hierarchy. ";
+        return true;
+    }
 
-            if (parent != null) {
-                errorMessage += "\nCannot instantiate the class [" + parent.getName() + "]. "
-                    + "At least one of the constructor parameters of type [" + requestedType
-                    + "] can't be instantiated. ";
+    /**
+     * Check if {@link #bindIntoMap(Class, String, Class)} or {@link #bindIntoSet(Class, Class)} was called for
+     * the given element type on this instance or one of its parents.
+     */
+    private boolean hasMultibindings(Class<?> elementType, boolean map) {
+        for (EasyDI container = this; container != null; container = container.parent) {
+            if (map ? container.mapBindings.containsKey(elementType) : container.setBindings.containsKey(elementType)) {
+                return true;
             }
-            errorMessage += "See the root cause exception for a detailed explanation.";
-
-            throw new IllegalStateException(errorMessage, rootCause);
         }
+
+        return false;
     }
 
     /**
-     * Create a new instance of the given type.
+     * This method is used to create a {@link jakarta.inject.Provider} instance when such a provider
+     * is declared as constructor parameter.
+     *
+     * @param dependency the constructor parameter with the type that the provider has to provide.
+     * @return the created provider.
      */
-    private <T> T createNewInstance(Class<T> type, Class<?> parent) {
-        final Constructor<T> constructor = findConstructor(type);
-
-        final Parameter[] parameters = constructor.getParameters();
+    private Provider<?> getProviderArgument(ResolutionPlan.Dependency dependency) {
+        return new InjectedProvider<>(dependency.type, dependency.requested);
+    }
 
-        // recursively get all constructor arguments
-        final List<Object> arguments = Arrays.stream(parameters)
-                .map(param -> {
-                    if (param.getType().equals(Provider.class)) {
-                        return getProviderArgument(param, type);
-                    } else {
-                        return getInstance(param.getType(), type);
-                    }
-                }).toList();
+    /**
+     * This method is used to get the {@link Pool} that is declared as constructor parameter. All constructor
+     * parameters of the same type get the same pool.
+     *
+     * @param dependency the constructor parameter with the type of the pooled instances.
+     * @return the pool.
+     */
+    private Pool<?> getPoolArgument(ResolutionPlan.Dependency dependency) {
+        final Pool<?> pool = pools.get(dependency.requested);
 
-        try {
-            final T newInstance = constructor.newInstance(arguments.toArray());
+        return pool != null ? pool : pools.computeIfAbsent(dependency.requested,
+            requested -> new Pool<>(getProviderArgument(dependency), poolSizeFor(dependency.type)));
+    }
 
-            markAsInstantiable(type);
+    /**
+     * The future of a singleton that is created at the moment, see {@link #singletonsInCreation}.
+     */
+    private static final class SingletonCreation extends CompletableFuture<Object> {
 
-            // when the class is marked as singleton it's instance is now added to the singleton map
-            if (isSingleton(type)) {
-                singletonInstances.put(type, newInstance);
-            }
+        /**
+         * The thread that creates the singleton synchronously or the {@link AsyncPath} of the singleton for an
+         * asynchronous creation.
+         */
+        final Object creator;
 
-            return newInstance;
-        } catch (Exception e) {
-            throw new EasyDiException(
-                createErrorMessageStart(type) + "An Exception was thrown during the instantiation.", e);
+        SingletonCreation(Object creator) {
+            this.creator = creator;
         }
     }
 
+    /**
+     * The default executor of {@link #getInstanceAsync(Class)}. It is only created when it's used.
+     */
+    private static final class DefaultExecutor {
+
+        static final Executor INSTANCE = create();
 
+        /**
+         * Use a virtual thread per task when the JVM has virtual threads (Java 21 and later). Otherwise use a
+         * cached pool of daemon threads so that blocking providers don't wait for each other and the pool doesn't
+         * keep the JVM alive.
+         */
+        private static Executor create() {
+            try {
+                return (Executor) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+            } catch (ReflectiveOperationException e) {
+                final AtomicInteger threadNumber = new AtomicInteger();
+
+                return Executors.newCachedThreadPool(runnable -> {
+                    final Thread thread = new Thread(runnable, "easydi-async-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+            }
+        }
+    }
 
     /**
-     * This method is used to define what implementing class should be used for a given interface.
-     * <p>
-     * This way you can use interface types as dependencies in your classes and doesn't have to
-     * depend on specific implementations.
-     *<p>
-     * But EasyDI needs to know what implementing class should be used when an interface type is
-     * defined as dependency.
-     * <p>
-     *
-     * <strong>Hint:</strong> The second parameter has to be an actual implementing class of the interface.
-     * It may not be an abstract class!
-     *
+     * A provider that is injected as constructor parameter.
      *<p>
-     * Alternatively to this method you can:
-     *  <ul>
-     *      <li>
-     * use the {@link #bindInstance(Class, Object)} method to define an instance of the interface that is used
-     *      </li>
-     *      <li>
-     * use the {@link #bindProvider(Class, Provider)} method to define a provider for this interface.
-     *      </li>
-     *  </ul>
-     *
-     * @param interfaceType      the class type of the interface.
-     * @param implementationType the class type of the implementing class.
-     * @param <T>                the generic type of the interface.
-     * @throws java.lang.IllegalArgumentException if the first parameter is <b>not</b> an interface or the second
-     *                                            parameter <b>is</b> an interface or an abstract class.
+     * The provider resolves the plan of its type only once, on the first call of {@link #get()}.
+     * All further calls directly use this plan. For singletons the instance is kept in the provider.
+     * When the configuration of EasyDI is changed, the plan is resolved again.
      */
-    public <T> void bindInterface(Class<T> interfaceType, Class<? extends T> implementationType) {
-        if (interfaceType.isInterface()) {
-            if (implementationType.isInterface()) {
-                throw new IllegalArgumentException(
-                    "The given type is an interface. Expecting the second argument to not be an interface but an actual class");
-            } else if (isAbstractClass(implementationType)) {
-                throw new IllegalArgumentException(
-                    "The given type is an abstract class. Expecting the second argument to be an actual implementing class");
-            } else {
-                interfaceMappings.put(interfaceType, implementationType);
+    private final class InjectedProvider<T> implements Provider<T> {
+
+        private final Class<T> type;
+
+        /**
+         * The type or the {@link Key} of a qualified type that is resolved.
+         */
+        private final Object requested;
+
+        /**
+         * The resolved plan. {@code null} before the first call of {@link #get()}.
+         */
+        private volatile Resolution<T> resolution;
+
+        InjectedProvider(Class<T> type, Object requested) {
+            this.type = type;
+            this.requested = requested;
+        }
+
+        @Override
+        public T get() {
+            try {
+                Resolution<T> currentResolution = resolution;
+
+                // the configuration of a frozen injector without parent can't change, so the version isn't checked.
+                if (currentResolution == null || (!frozen || parent != null)
+                    && currentResolution.configurationVersion != effectiveConfigurationVersion()) {
+                    final int version = effectiveConfigurationVersion();
+                    currentResolution = new Resolution<>(linkedPlanFor(requested), version, null);
+                    resolution = currentResolution;
+                }
+
+                if (currentResolution.singleton != null) {
+                    final InjectionListener listener = injectionListener;
+                    if (listener != null) {
+                        listener.singletonHit(type);
+                    }
+                    return currentResolution.singleton;
+                }
+
+                if (!currentResolution.plan.resolvable()) {
+                    throw resolutionFailed(currentResolution.plan);
+                }
+
+                final T instance = getInstanceAsRoot(currentResolution.plan);
+
+                if (currentResolution.plan.singleton && instance != null) {
+                    resolution = new Resolution<>(currentResolution.plan, currentResolution.configurationVersion, instance);
+                }
+
+                return instance;
+            } catch (EasyDiException rootCause) {
+                throw createHierarchyException(type, null, rootCause);
             }
-        } else {
-            throw new IllegalArgumentException(
-                "The given type is not an interface. Expecting the first argument to be an interface.");
         }
     }
 
     /**
-     * This method is used to define a {@link jakarta.inject.Provider} for a given type.
-     *<p>
-     * The type can either be an interface or class type. This is a good way to integrate
-     * third-party classes that aren't suitable for injection by default (i.e. have no public constructor...).
-     *<p>
-     * Another use-case is when you need to make some configuration for new instance before it is used for dependency
-     * injection.
-     *<p>
-     *
-     * Providers can be combined with {@link jakarta.inject.Singleton}'s.
-     * When a type is marked as singleton (has the annotation {@link jakarta.inject.Singleton}) and there is a provider
-     * defined for this type, then this provider will only be executed exactly one time when the type is requested the
-     * first time.
-     *
-     * @param classType the type of the class for which the provider is used.
-     * @param provider  the provider that will be called to get an instance of the given type.
-     * @param <T>       the generic type of the class/interface.
+     * The plan of an {@link InjectedProvider} together with the version of the configuration it was
+     * created with and the singleton instance if the plan is for a singleton that was already created.
      */
-    public <T> void bindProvider(Class<T> classType, Provider<T> provider) {
-        providers.put(classType, provider);
+    private record Resolution<T>(ResolutionPlan<T> plan, int configurationVersion, T singleton) {
     }
 
-
     /**
-     * This method is used to define an instance that is used every time the given
-     * class type is requested.
-     *<p>
-     * This way the given instance is effectively a singleton.
-     *<p>
-     * This method can also be used to define instances for interfaces or abstract classes
-     * that otherwise couldn't be instantiated without further configuration.
+     * Find the scope annotation of the given type, i.e. {@link RequestScoped}. {@link jakarta.inject.Singleton}
+     * is not treated as scope annotation here.
      *
-     * @param classType the class type for that the instance will be bound.
-     * @param instance  the instance that will be bound.
-     * @param <T>       the generic type of the class.
+     * @return the scope annotation or {@code null} if the type has none.
      */
-    public <T> void bindInstance(Class<T> classType, T instance) {
-        bindProvider(classType, () -> instance);
+    private Class<? extends Annotation> findScopeAnnotation(Class<?> type) {
+        for (Annotation annotation : type.getAnnotations()) {
+            final Class<? extends Annotation> annotationType = annotation.annotationType();
+
+            if (annotationType != Singleton.class && annotationType.isAnnotationPresent(jakarta.inject.Scope.class)) {
+                return annotationType;
+            }
+        }
+
+        return null;
     }
 
     /**
-     * This method can be used to mark a class as singleton.
-     *<p>
-     * It is an alternative for situations when you can't use the {@link jakarta.inject.Singleton} annotation.
-     * For example when you want a class from a third-party library to be a singleton.
-     *<p>
-     * It is not possible to mark interfaces as singleton.
+     * Find the qualifier annotation among the given annotations of a parameter or field,
+     * i.e. {@link jakarta.inject.Named}.
      *
-     * @param type the type that will be marked as singleton.
+     * @return the qualifier or {@code null} if there is none.
      */
-    public void markAsSingleton(Class type) {
-        if (type.isInterface()) {
-            throw new IllegalArgumentException(
-                "The given type is an interface. Expecting the param to be an actual class");
+    private Annotation findQualifier(Annotation[] annotations) {
+        for (Annotation annotation : annotations) {
+            if (annotation.annotationType().isAnnotationPresent(Qualifier.class)) {
+                return annotation;
+            }
         }
 
-        singletonClasses.add(type);
+        return null;
     }
 
-
     /**
-     * This helper method returns {@code true} only if the given
-     * class type is an abstract class.
-     *
-     * @param type the class type to check
-     * @return  {@code true} if the given type is an abstract class, otherwise  {@code false}
+     * Check if the given class type is marked as singleton.
      */
-    static boolean isAbstractClass(Class type) {
-        return !type.isInterface() && Modifier.isAbstract(type.getModifiers());
+    private boolean isSingleton(Class type) {
+        return type.isAnnotationPresent(Singleton.class) || isMarkedAsSingleton(type);
     }
 
-
+    /**
+     * Check if the given class type was marked with {@link #markAsSingleton(Class)} on this instance or a parent.
+     */
+    private boolean isMarkedAsSingleton(Class<?> type) {
+        return singletonClasses.contains(type) || (parent != null && parent.isMarkedAsSingleton(type));
+    }
 
     /**
-     * This method is used to create a {@link jakarta.inject.Provider} instance when such a provider
-     * is declared as constructor parameter.
+     * Find the provider of the given type. The providers of a child container take precedence over the
+     * providers of its parent.
      *
-     * @param param         the parameter declared by the constructor
-     * @param requestedType the type that was requested by the user. This is used to generate a proper error messages.
-     * @return the created provider.
+     * @return the provider or {@code null} if there is none.
      */
-    private Provider getProviderArgument(Parameter param, Class requestedType) {
-        if (param.getParameterizedType() instanceof ParameterizedType typeParam) {
-
-            final Type providerType = typeParam.getActualTypeArguments()[0];
-
-            return () -> EasyDI.this.getInstance((Class) providerType);
-        } else {
-            throw new EasyDiException(createErrorMessageStart(requestedType) +
-                "There is a javax.inject.Provider without a type parameter declared as dependency. "
-                + "When using javax.inject.Provider as dependency "
-                + "you need to define a type parameter for this provider!");
-        }
+    @SuppressWarnings("unchecked")
+    private <T> Provider<T> providerFor(Class<T> type) {
+        final Provider<T> provider = providers.get(type);
+        return provider != null || parent == null ? provider : parent.providerFor(type);
     }
 
     /**
-     * Mark the given type as instantiable.
+     * Find the scope that is bound to the given scope annotation on this instance or a parent.
+     *
+     * @return the scope or {@code null} if there is none.
      */
-    private void markAsInstantiable(Class type) {
-        if (!instantiableClasses.contains(type)) {
-            instantiableClasses.add(type);
-        }
+    private Scope scopeFor(Class<? extends Annotation> scopeAnnotation) {
+        final Scope scope = scopes.get(scopeAnnotation);
+        return scope != null || parent == null ? scope : parent.scopeFor(scopeAnnotation);
     }
 
     /**
-     * Check if the given class type is marked as singleton.
+     * Find the size of the pools of the given type that is defined on this instance or a parent.
+     *
+     * @return the size or the number of processors if none is defined.
      */
-    private boolean isSingleton(Class type) {
-        return type.isAnnotationPresent(Singleton.class) || singletonClasses.contains(type);
+    private int poolSizeFor(Class<?> type) {
+        final Integer size = poolSizes.get(type);
+
+        if (size != null) {
+            return size;
+        }
+        return parent == null ? Runtime.getRuntime().availableProcessors() : parent.poolSizeFor(type);
     }
 
 
@@ -346,14 +2762,39 @@ public class EasyDI {
      * Get an instance of the given type from a provider. This method takes care for Exception handling when the
      * provider throws an exception.
      */
-    @SuppressWarnings("unchecked")
-    private <T> T getInstanceFromProvider(Class<T> type) {
+    private <T> T getInstanceFromProvider(ResolutionPlan<T> plan, Class<?> parent, int depth) {
+        final InjectionListener listener = injectionListener;
+        final InjectionTrace trace = injectionTrace;
+        final long start = listener != null || trace != null ? System.nanoTime() : 0;
+
+        final ProviderCallEvent event = FlightRecorderEvents.AVAILABLE ? new ProviderCallEvent() : null;
+        if (event != null) {
+            event.begin();
+        }
+
         try {
-            final Provider<T> provider = providers.get(type);
+            final T instance = plan.provider.get();
+
+            if (listener != null) {
+                listener.providerCalled(plan.type, System.nanoTime() - start);
+            }
 
-            return provider.get();
+            if (event != null && event.shouldCommit()) {
+                event.type = plan.type;
+                event.parentType = parent;
+                event.depth = depth;
+                event.commit();
+            }
+            return instance;
         } catch (Exception e) {
-            throw new EasyDiException(createErrorMessageStart(type) + "An Exception was thrown by the provider.", e);
+            if (listener != null) {
+                listener.failed(plan.type, e);
+            }
+            throw new EasyDiException(createErrorMessageStart(plan.type) + "An Exception was thrown by the provider.", e);
+        } finally {
+            if (trace != null) {
+                trace.record(plan.type, true, start, depth);
+            }
         }
 
     }
@@ -367,48 +2808,51 @@ public class EasyDI {
      * annotation is used.
      *<p>
      *
-     * In all other cases an {@link java.lang.IllegalStateException} is thrown.
+     * In all other cases {@code null} is returned. {@link #findConstructorProblem(Class)} tells why.
      *
      * @param type the class of which the constructor is searched for.
      * @param <T>  the generic type of the class.
-     * @return the constructor to use
-     * @throws java.lang.IllegalStateException when no constructor can be found.
+     * @return the constructor to use or {@code null} when no constructor can be found.
      */
     @SuppressWarnings("unchecked")
     private <T> Constructor<T> findConstructor(Class<T> type) {
         final Constructor<?>[] constructors = type.getConstructors();
 
-        if (constructors.length == 0) {
-            throw new EasyDiException(createErrorMessageStart(type) +
-                "The class has no public constructor.");
+        if (constructors.length == 1) {
+            return (Constructor<T>) constructors[0];
         }
 
-        if (constructors.length > 1) {
+        final List<Constructor<?>> constructorsWithInject = Arrays
+                .stream(constructors)
+                .filter(c -> c.isAnnotationPresent(Inject.class)).toList();
 
-            final List<Constructor<?>> constructorsWithInject = Arrays
-                    .stream(constructors)
-                    .filter(c -> c.isAnnotationPresent(Inject.class)).toList();
-
-            if (constructorsWithInject.isEmpty()) {
-                throw new EasyDiException(createErrorMessageStart(type) +
-                    "There is more than one public constructor defined so I don't know which one to use. "
-                    + "Fix this by either make only one constructor public " +
-                    "or annotate exactly one constructor with the javax.inject.Inject annotation.");
-            }
+        // we are not modifying the constructor array so we can safely cast here.
+        return constructorsWithInject.size() == 1 ? (Constructor<T>) constructorsWithInject.get(0) : null;
+    }
 
-            if (constructorsWithInject.size() != 1) {
-                throw new EasyDiException(createErrorMessageStart(type) +
-                    "There is more than one public constructor marked with @Inject so I don't know which one to use. "
-                    +
-                    "Fix this by either make only one constructor public " +
-                    "or annotate exactly one constructor with the javax.inject.Inject annotation.");
-            }
+    /**
+     * Find out why {@link #findConstructor(Class)} can't find a constructor for the given type.
+     */
+    private ResolutionPlan.Problem findConstructorProblem(Class<?> type) {
+        final Constructor<?>[] constructors = type.getConstructors();
 
-            // we are not modifying the constructor array so we can safely cast here.
-            return (Constructor<T>) constructorsWithInject.get(0);
-        } else {
-            return (Constructor<T>) constructors[0];
+        if (constructors.length == 0) {
+            return ResolutionPlan.Problem.NO_PUBLIC_CONSTRUCTOR;
         }
+
+        final boolean anyInject = Arrays.stream(constructors).anyMatch(c -> c.isAnnotationPresent(Inject.class));
+        return anyInject
+            ? ResolutionPlan.Problem.AMBIGUOUS_INJECT_CONSTRUCTORS
+            : ResolutionPlan.Problem.AMBIGUOUS_CONSTRUCTORS;
+    }
+
+    /**
+     * The error message for a plan that has a {@link ResolutionPlan#problem}.
+     */
+    private String describeProblem(ResolutionPlan<?> plan) {
+        final String message = createErrorMessageStart(plan.type) + plan.problem.message;
+
+        return plan.key == null ? message : message + " The qualifier is " + plan.key.describeQualifier() + ".";
     }
 
     /**
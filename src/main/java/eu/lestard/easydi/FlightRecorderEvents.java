@@ -0,0 +1,22 @@
+package eu.lestard.easydi;
+
+/**
+ * Tells whether the Java Flight Recorder events of EasyDI can be created.
+ * <p>
+ * EasyDI only has an optional dependency on the module {@code jdk.jfr} ({@code requires static}), so it also runs
+ * on runtime images without it and in modular applications that don't resolve it. The event classes extend
+ * {@code jdk.jfr.Event} and are only instantiated when {@link #AVAILABLE} is {@code true}, otherwise they are never
+ * loaded. This class itself must not reference {@code jdk.jfr}.
+ */
+final class FlightRecorderEvents {
+
+    /**
+     * {@code true} if the module {@code jdk.jfr} is available at runtime and can be read by EasyDI.
+     */
+    static final boolean AVAILABLE = ModuleLayer.boot().findModule("jdk.jfr")
+        .filter(FlightRecorderEvents.class.getModule()::canRead)
+        .isPresent();
+
+    private FlightRecorderEvents() {
+    }
+}
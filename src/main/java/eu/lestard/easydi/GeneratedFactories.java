@@ -0,0 +1,138 @@
+package eu.lestard.easydi;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Constructor;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * An {@link InstantiationStrategy} that uses the factories generated by the EasyDI annotation processor
+ * ({@code easy-di-processor}).
+ * <p>
+ * The processor writes an index of all generated factories to {@value #INDEX}. The index is read once per
+ * class loader. When there is no factory for a class, the fallback strategy is used.
+ * <p>
+ * The index only contains class names. A factory is only used for a constructor with the parameter types that
+ * the factory describes, so an outdated index can't call the wrong constructor.
+ */
+final class GeneratedFactories implements InstantiationStrategy {
+
+    /**
+     * The location of the index that maps class names to the names of their factories.
+     */
+    static final String INDEX = "META-INF/easydi/factories";
+
+    private final InstantiationStrategy fallback;
+
+    /**
+     * The index for every class loader that was asked for a factory.
+     */
+    private final Map<ClassLoader, Map<String, String>> indexes = Collections.synchronizedMap(new WeakHashMap<>());
+
+    GeneratedFactories(InstantiationStrategy fallback) {
+        this.fallback = fallback;
+    }
+
+    @Override
+    public <T> Instantiator<T> createInstantiator(Constructor<T> constructor) {
+        final GeneratedFactory<T> factory = factoryFor(constructor.getDeclaringClass());
+
+        if (factory != null && Arrays.equals(factory.parameterTypes(), constructor.getParameterTypes())) {
+            return factory;
+        }
+
+        return fallback.createInstantiator(constructor);
+    }
+
+    /**
+     * Get the generated factory of the given class together with its constructor if the factory describes the
+     * constructor parameters. EasyDI uses this description instead of searching the constructor by reflection.
+     *
+     * @return the described constructor or {@code null} if there is no factory, the factory doesn't describe the
+     * parameters or the class has no public constructor with the described parameter types.
+     */
+    <T> DescribedConstructor<T> describedConstructorFor(Class<T> type) {
+        final GeneratedFactory<T> factory = factoryFor(type);
+
+        return factory == null ? null : describe(type, factory);
+    }
+
+    static <T> DescribedConstructor<T> describe(Class<T> type, GeneratedFactory<T> factory) {
+        if (factory.typeArguments() == null) {
+            return null;
+        }
+
+        try {
+            return new DescribedConstructor<>(type.getConstructor(factory.parameterTypes()), factory);
+        } catch (NoSuchMethodException e) {
+            // the index is outdated: the class doesn't have the constructor of the factory anymore.
+            return null;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> GeneratedFactory<T> factoryFor(Class<T> type) {
+        final ClassLoader classLoader = type.getClassLoader();
+
+        if (classLoader != null) {
+            final String factoryName = indexes.computeIfAbsent(classLoader, GeneratedFactories::readIndex)
+                .get(type.getName());
+
+            if (factoryName != null) {
+                try {
+                    final Object factory = Class.forName(factoryName, true, classLoader).getConstructor().newInstance();
+
+                    if (factory instanceof GeneratedFactory<?> generatedFactory) {
+                        return (GeneratedFactory<T>) generatedFactory;
+                    }
+                } catch (ReflectiveOperationException | LinkageError e) {
+                    // the factory isn't usable (i.e. because of an outdated index). We use the fallback instead.
+                }
+            }
+        }
+
+        return null;
+    }
+
+    private static Map<String, String> readIndex(ClassLoader classLoader) {
+        final Map<String, String> index = new HashMap<>();
+
+        try {
+            final Enumeration<URL> resources = classLoader.getResources(INDEX);
+
+            while (resources.hasMoreElements()) {
+                try (BufferedReader reader = new BufferedReader(
+                    new InputStreamReader(resources.nextElement().openStream(), StandardCharsets.UTF_8))) {
+
+                    String line;
+                    while ((line = reader.readLine()) != null) {
+                        final int separator = line.indexOf('=');
+
+                        if (separator > 0) {
+                            index.put(line.substring(0, separator).trim(), line.substring(separator + 1).trim());
+                        }
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("EasyDI can't read the factory index " + INDEX, e);
+        }
+
+        return index;
+    }
+
+    /**
+     * A constructor together with the generated factory that calls it and describes its parameters.
+     */
+    record DescribedConstructor<T>(Constructor<T> constructor, GeneratedFactory<T> factory) {
+    }
+}
@@ -0,0 +1,45 @@
+package eu.lestard.easydi;
+
+import java.lang.annotation.Annotation;
+
+/**
+ * An {@link Instantiator} that is generated by the EasyDI annotation processor ({@code easy-di-processor}).
+ * <p>
+ * Besides calling the constructor, the factory describes the constructor and its parameters as they were
+ * found at compile time. With this description EasyDI resolves the class without looking up its constructors,
+ * the generic types of the parameters and the annotations by reflection. The description is only used when the
+ * class still has a public constructor with the described parameter types.
+ *
+ * @param <T> the generic type of the created instances.
+ */
+public interface GeneratedFactory<T> extends Instantiator<T> {
+
+    /**
+     * @return the erased types of the constructor parameters.
+     */
+    Class<?>[] parameterTypes();
+
+    /**
+     * @return the type arguments of every constructor parameter, i.e. the type of a
+     * {@link jakarta.inject.Provider}. A type argument that is no class type (i.e. a wildcard) is {@code null}.
+     * The whole array is {@code null} when the parameters couldn't be described at compile time. In this case
+     * the class is resolved by reflection.
+     */
+    Class<?>[][] typeArguments();
+
+    /**
+     * @return the qualifier of every constructor parameter: {@code null} for parameters without qualifier, the name
+     * of a {@link jakarta.inject.Named} qualifier or the type of a custom qualifier without members.
+     */
+    Object[] qualifiers();
+
+    /**
+     * @return {@code true} if the class is annotated with {@link jakarta.inject.Singleton}.
+     */
+    boolean singleton();
+
+    /**
+     * @return the scope annotation of the class or {@code null} if it has none.
+     */
+    Class<? extends Annotation> scopeAnnotation();
+}
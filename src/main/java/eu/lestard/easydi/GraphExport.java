@@ -0,0 +1,162 @@
+package eu.lestard.easydi;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Writes the resolved dependency graph in a {@link GraphFormat}.
+ * <p>
+ * The nodes are the resolved types, the edges are the constructor parameters (and injected fields and methods)
+ * pointing from the type to its dependency. Each node has its scope and, when {@link InjectionMetrics} are
+ * registered as listener, the number of created instances and the total time their constructors or providers
+ * took. The output is sorted by node names so that exports of the same graph can be compared.
+ */
+final class GraphExport {
+
+    /**
+     * A resolved type of the graph.
+     *
+     * @param name       the unique name of the node: the class name, the key of a qualified type or the
+     *                   collection of a multibinding.
+     * @param scope      {@code singleton}, {@code provider}, {@code scoped} or {@code prototype}.
+     * @param resolvable {@code false} if instances of the type can't be created.
+     * @param instances  the number of instances that were created, {@code -1} if unknown.
+     * @param nanos      the total time the constructor or provider took, {@code -1} if unknown.
+     */
+    record Node(String name, String scope, boolean resolvable, long instances, long nanos) {
+    }
+
+    /**
+     * A dependency of the type {@code from} on the type {@code to}.
+     *
+     * @param kind how the dependency is injected.
+     */
+    record Edge(String from, String to, ResolutionPlan.Kind kind) {
+    }
+
+    private GraphExport() {
+    }
+
+    static void write(List<Node> nodes, List<Edge> edges, GraphFormat format, Appendable output) throws IOException {
+        switch (format) {
+            case DOT -> writeDot(nodes, edges, output);
+            case JSON -> writeJson(nodes, edges, output);
+            default -> throw new IllegalArgumentException("Unknown format: " + format);
+        }
+    }
+
+    private static void writeDot(List<Node> nodes, List<Edge> edges, Appendable output) throws IOException {
+        output.append("digraph EasyDI {\n");
+        output.append("  node [shape=box];\n");
+
+        for (Node node : nodes) {
+            output.append("  ").append(dotString(node.name())).append(" [label=")
+                .append(dotString(simpleName(node.name()) + "\n" + node.scope() + describeCost(node)));
+
+            if (!node.resolvable()) {
+                output.append(", color=red");
+            } else if (node.scope().equals("singleton")) {
+                output.append(", style=bold");
+            }
+            output.append("];\n");
+        }
+
+        for (Edge edge : edges) {
+            output.append("  ").append(dotString(edge.from())).append(" -> ").append(dotString(edge.to()));
+
+            switch (edge.kind()) {
+                case PROVIDER -> output.append(" [style=dashed, label=\"provider\"]");
+                case OPTIONAL -> output.append(" [style=dotted, label=\"optional\"]");
+                case POOL -> output.append(" [style=dashed, label=\"pool\"]");
+                default -> {
+                }
+            }
+            output.append(";\n");
+        }
+
+        output.append("}\n");
+    }
+
+    private static void writeJson(List<Node> nodes, List<Edge> edges, Appendable output) throws IOException {
+        output.append("{\n  \"nodes\": [");
+
+        for (int i = 0; i < nodes.size(); i++) {
+            final Node node = nodes.get(i);
+
+            output.append(i == 0 ? "\n" : ",\n")
+                .append("    {\"id\": ").append(jsonString(node.name()))
+                .append(", \"scope\": ").append(jsonString(node.scope()))
+                .append(", \"resolvable\": ").append(String.valueOf(node.resolvable()));
+
+            if (node.instances() >= 0) {
+                output.append(", \"instances\": ").append(String.valueOf(node.instances()))
+                    .append(", \"constructionNanos\": ").append(String.valueOf(node.nanos()));
+            }
+            output.append("}");
+        }
+
+        output.append(nodes.isEmpty() ? "],\n" : "\n  ],\n");
+        output.append("  \"edges\": [");
+
+        for (int i = 0; i < edges.size(); i++) {
+            final Edge edge = edges.get(i);
+
+            output.append(i == 0 ? "\n" : ",\n")
+                .append("    {\"from\": ").append(jsonString(edge.from()))
+                .append(", \"to\": ").append(jsonString(edge.to()))
+                .append(", \"kind\": ").append(jsonString(edge.kind().name().toLowerCase(Locale.ROOT)))
+                .append("}");
+        }
+
+        output.append(edges.isEmpty() ? "]\n" : "\n  ]\n");
+        output.append("}\n");
+    }
+
+    private static String describeCost(Node node) {
+        if (node.instances() < 0) {
+            return "";
+        }
+
+        final String instances = node.instances() == 1 ? "1 instance" : node.instances() + " instances";
+        return "\n" + instances + ", " + String.format(Locale.ROOT, "%.3f ms", node.nanos() / 1_000_000.0);
+    }
+
+    /**
+     * The name without packages, i.e. {@code Car} for {@code com.example.Car} and
+     * {@code @Named("x") Car} for a qualified type.
+     */
+    private static String simpleName(String name) {
+        return name.replaceAll("(?<![\\w\"])(?:[a-z_$][\\w$]*\\.)+", "");
+    }
+
+    private static String dotString(String value) {
+        return "\"" + value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n") + "\"";
+    }
+
+    /**
+     * Quote the given value as JSON string. Quotes, backslashes and all control characters are escaped.
+     */
+    static String jsonString(String value) {
+        final StringBuilder builder = new StringBuilder("\"");
+
+        for (int i = 0; i < value.length(); i++) {
+            final char c = value.charAt(i);
+
+            switch (c) {
+                case '"' -> builder.append("\\\"");
+                case '\\' -> builder.append("\\\\");
+                case '\n' -> builder.append("\\n");
+                default -> {
+                    if (c < 0x20) {
+                        builder.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        builder.append(c);
+                    }
+                }
+            }
+        }
+
+        return builder.append('"').toString();
+    }
+}
@@ -0,0 +1,17 @@
+package eu.lestard.easydi;
+
+/**
+ * The formats in which the dependency graph can be written with {@link EasyDI#writeGraph(Appendable, GraphFormat)}.
+ */
+public enum GraphFormat {
+
+    /**
+     * A Graphviz digraph that can be rendered with {@code dot -Tsvg}.
+     */
+    DOT,
+
+    /**
+     * A JSON object with the arrays {@code nodes} and {@code edges}.
+     */
+    JSON
+}
@@ -0,0 +1,274 @@
+package eu.lestard.easydi;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.reflect.Constructor;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A snapshot of the resolved dependency graph that can be written in a compact binary format.
+ * <p>
+ * A snapshot contains the chosen constructor of every class, the bindings of its parameters, the singleton flag
+ * and the interface mappings. When a plan is created for a class of the snapshot, the constructor is
+ * identified by its parameter types instead of searching the constructors for {@link jakarta.inject.Inject}
+ * annotations, checking for {@link jakarta.inject.Singleton} and reading the generic parameter types.
+ * <p>
+ * The snapshot is keyed by class names. The parameter types are loaded by name with the class loader of the class,
+ * so that its constructor can be looked up directly with {@link Class#getConstructor(Class[])}. When an entry
+ * doesn't match the class anymore (i.e. because the snapshot is outdated or a parameter type can't be loaded by
+ * name), it is ignored and the class is resolved with reflection instead. The same applies when a collection
+ * parameter was a multibinding when the snapshot was written but isn't one in the current configuration or vice
+ * versa, as whether a collection parameter is a multibinding depends on the bindings.
+ * <p>
+ * Types that are created by a provider aren't part of a snapshot because providers only exist at runtime.
+ * Neither are types with injected fields and methods.
+ * <p>
+ * The format is:
+ * <pre>
+ * int magic, int version
+ * int count, count * (UTF type, boolean singleton, int parameters, parameters * (UTF parameterType, byte kind, [UTF typeArgument]))
+ * int count, count * (UTF interfaceType, UTF implementationType)
+ * </pre>
+ * The type argument is written for {@link jakarta.inject.Provider}, {@link java.util.Optional} and multibinding
+ * parameters, i.e. all parameters whose kind isn't {@code INSTANCE}.
+ */
+final class GraphSnapshot {
+
+    static final GraphSnapshot EMPTY = new GraphSnapshot(Map.of(), Map.of());
+
+    private static final int MAGIC = 0x45444953;
+
+    private static final int VERSION = 1;
+
+    private static final Map<String, Class<?>> PRIMITIVE_TYPES = Map.of(
+        "boolean", boolean.class, "byte", byte.class, "char", char.class, "short", short.class,
+        "int", int.class, "long", long.class, "float", float.class, "double", double.class);
+
+    private final Map<String, Entry> entries;
+
+    private final Map<String, String> interfaceMappings;
+
+    private GraphSnapshot(Map<String, Entry> entries, Map<String, String> interfaceMappings) {
+        this.entries = entries;
+        this.interfaceMappings = interfaceMappings;
+    }
+
+    /**
+     * The snapshot of a single class.
+     *
+     * @param typeArguments the type arguments of provider, optional and multibinding parameters, {@code null} for
+     *                      the others.
+     */
+    private record Entry(boolean singleton, String[] parameterTypes, ResolutionPlan.Kind[] kinds,
+                         String[] typeArguments) {
+    }
+
+    /**
+     * Create the plan for the given class from the snapshot.
+     *
+     * @param markedAsSingleton whether the class is marked as singleton in addition to the flag of the snapshot.
+     * @param scope             the scope of the class or {@code null}.
+     * @return the plan or {@code null} if the class isn't part of the snapshot or the snapshot doesn't match it.
+     */
+    <T> ResolutionPlan<T> planFor(Class<T> type, InstantiationStrategy instantiationStrategy,
+                                  boolean markedAsSingleton, Scope scope) {
+        final Entry entry = entries.get(type.getName());
+        if (entry == null) {
+            return null;
+        }
+
+        final ClassLoader classLoader = type.getClassLoader();
+        final Class<?>[] parameterTypes = new Class<?>[entry.parameterTypes.length];
+        final ResolutionPlan.Dependency[] dependencies = new ResolutionPlan.Dependency[parameterTypes.length];
+
+        for (int i = 0; i < parameterTypes.length; i++) {
+            parameterTypes[i] = loadClass(entry.parameterTypes[i], classLoader);
+            if (parameterTypes[i] == null) {
+                return null;
+            }
+
+            Class<?> dependencyType = parameterTypes[i];
+
+            if (entry.kinds[i] != ResolutionPlan.Kind.INSTANCE) {
+                dependencyType = loadClass(entry.typeArguments[i], classLoader);
+                if (dependencyType == null) {
+                    return null;
+                }
+            }
+
+            dependencies[i] = new ResolutionPlan.Dependency(dependencyType, entry.kinds[i]);
+        }
+
+        final Constructor<T> constructor;
+        try {
+            constructor = type.getConstructor(parameterTypes);
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+
+        final boolean singleton = entry.singleton || markedAsSingleton;
+
+        return ResolutionPlan.forConstructor(type, constructor, instantiationStrategy.createInstantiator(constructor),
+            dependencies, singleton, singleton ? null : scope);
+    }
+
+    /**
+     * @return the implementing class of the given interface from the snapshot or {@code null} if there is none.
+     */
+    Class<?> implementationOf(Class<?> interfaceType) {
+        final String implementationName = interfaceMappings.get(interfaceType.getName());
+        if (implementationName == null) {
+            return null;
+        }
+
+        final Class<?> implementationType = loadClass(implementationName, interfaceType.getClassLoader());
+
+        return implementationType != null && interfaceType.isAssignableFrom(implementationType)
+            ? implementationType
+            : null;
+    }
+
+    private static Class<?> loadClass(String name, ClassLoader classLoader) {
+        // Class.forName can't load primitive types by their name.
+        final Class<?> primitiveType = PRIMITIVE_TYPES.get(name);
+        if (primitiveType != null) {
+            return primitiveType;
+        }
+
+        try {
+            return Class.forName(name, false, classLoader);
+        } catch (ClassNotFoundException | LinkageError e) {
+            return null;
+        }
+    }
+
+    /**
+     * Write the given plans to the given stream. Only resolvable plans that are created by a constructor are
+     * written. Plans with qualified constructor parameters are left out as their keys can't be restored from the
+     * parameter types.
+     *
+     * @param plans the plans that can be reached from the root types by the requested type, key or multibinding.
+     */
+    static void write(Map<Object, ResolutionPlan<?>> plans, OutputStream outputStream) throws IOException {
+        final Map<Class<?>, ResolutionPlan<?>> constructorPlans = new LinkedHashMap<>();
+        final Map<Class<?>, Class<?>> interfaceMappings = new LinkedHashMap<>();
+
+        plans.forEach((requested, plan) -> {
+            if (requested instanceof Class<?> requestedType && plan.linked && plan.resolvable()
+                && !plan.usesProvider() && plan.members == null && !hasQualifiedDependencies(plan)) {
+                constructorPlans.put(plan.type, plan);
+
+                if (requestedType != plan.type) {
+                    interfaceMappings.put(requestedType, plan.type);
+                }
+            }
+        });
+
+        final DataOutputStream output = new DataOutputStream(new BufferedOutputStream(outputStream));
+        output.writeInt(MAGIC);
+        output.writeInt(VERSION);
+
+        output.writeInt(constructorPlans.size());
+        for (ResolutionPlan<?> plan : constructorPlans.values()) {
+            output.writeUTF(plan.type.getName());
+            output.writeBoolean(plan.singleton);
+
+            final Class<?>[] parameterTypes = plan.constructor.getParameterTypes();
+            output.writeInt(parameterTypes.length);
+
+            for (int i = 0; i < parameterTypes.length; i++) {
+                final ResolutionPlan.Dependency dependency = plan.dependencies[i];
+
+                output.writeUTF(parameterTypes[i].getName());
+                output.writeByte(dependency.kind.ordinal());
+
+                if (dependency.kind != ResolutionPlan.Kind.INSTANCE) {
+                    output.writeUTF(dependency.type.getName());
+                }
+            }
+        }
+
+        output.writeInt(interfaceMappings.size());
+        for (Map.Entry<Class<?>, Class<?>> mapping : interfaceMappings.entrySet()) {
+            output.writeUTF(mapping.getKey().getName());
+            output.writeUTF(mapping.getValue().getName());
+        }
+
+        output.flush();
+    }
+
+    private static boolean hasQualifiedDependencies(ResolutionPlan<?> plan) {
+        for (ResolutionPlan.Dependency dependency : plan.dependencies) {
+            if (dependency.key != null) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Read a snapshot that was written with {@link #write(Map, OutputStream)}.
+     *
+     * @throws IOException if the stream can't be read or doesn't contain a snapshot.
+     */
+    static GraphSnapshot read(InputStream inputStream) throws IOException {
+        final DataInputStream input = new DataInputStream(new BufferedInputStream(inputStream));
+
+        if (input.readInt() != MAGIC) {
+            throw new IOException("The stream doesn't contain an EasyDI snapshot.");
+        }
+
+        final int version = input.readInt();
+        if (version != VERSION) {
+            throw new IOException("The EasyDI snapshot has the unsupported version " + version + ".");
+        }
+
+        final ResolutionPlan.Kind[] allKinds = ResolutionPlan.Kind.values();
+
+        final int entryCount = input.readInt();
+        final Map<String, Entry> entries = new HashMap<>(entryCount * 2);
+
+        for (int i = 0; i < entryCount; i++) {
+            final String type = input.readUTF();
+            final boolean singleton = input.readBoolean();
+
+            final int parameterCount = input.readInt();
+            final String[] parameterTypes = new String[parameterCount];
+            final ResolutionPlan.Kind[] kinds = new ResolutionPlan.Kind[parameterCount];
+            final String[] typeArguments = new String[parameterCount];
+
+            for (int j = 0; j < parameterCount; j++) {
+                parameterTypes[j] = input.readUTF();
+
+                final int kind = input.readByte();
+                if (kind < 0 || kind >= allKinds.length) {
+                    throw new IOException("The EasyDI snapshot is corrupt.");
+                }
+                kinds[j] = allKinds[kind];
+
+                if (kinds[j] != ResolutionPlan.Kind.INSTANCE) {
+                    typeArguments[j] = input.readUTF();
+                }
+            }
+
+            entries.put(type, new Entry(singleton, parameterTypes, kinds, typeArguments));
+        }
+
+        final int mappingCount = input.readInt();
+        final Map<String, String> interfaceMappings = new HashMap<>(mappingCount * 2);
+
+        for (int i = 0; i < mappingCount; i++) {
+            interfaceMappings.put(input.readUTF(), input.readUTF());
+        }
+
+        return new GraphSnapshot(entries, interfaceMappings);
+    }
+}
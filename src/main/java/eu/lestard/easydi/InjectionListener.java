@@ -0,0 +1,58 @@
+package eu.lestard.easydi;
+
+/**
+ * A listener that is notified about the work that EasyDI does. It can be used to collect metrics,
+ * i.e. with {@link InjectionMetrics}.
+ * <p>
+ * A listener is registered with {@link EasyDI#setInjectionListener(InjectionListener)}. The methods are called
+ * synchronously by the thread that requested the instance, so they should return quickly. They may be called by
+ * multiple threads at once. All methods do nothing by default.
+ * <p>
+ * When no listener is registered, EasyDI doesn't even measure the time of the instantiation.
+ */
+public interface InjectionListener {
+
+    /**
+     * Is called when a new instance was created with the constructor of the given type.
+     *
+     * @param type  the class type that was instantiated.
+     * @param nanos the time the constructor took in nanoseconds, without the creation of the constructor parameters.
+     */
+    default void instanceCreated(Class<?> type, long nanos) {
+    }
+
+    /**
+     * Is called when an instance of the given type was created by a provider.
+     *
+     * @param type  the class type that was requested from the provider.
+     * @param nanos the time the provider took in nanoseconds.
+     */
+    default void providerCalled(Class<?> type, long nanos) {
+    }
+
+    /**
+     * Is called when an existing singleton instance of the given type is returned.
+     *
+     * @param type the class type of the singleton.
+     */
+    default void singletonHit(Class<?> type) {
+    }
+
+    /**
+     * Is called when a singleton of the given type is requested but doesn't exist yet, so it has to be created.
+     *
+     * @param type the class type of the singleton.
+     */
+    default void singletonMiss(Class<?> type) {
+    }
+
+    /**
+     * Is called when an instance of the given type can't be created, either because the type can't be resolved or
+     * because the constructor or provider has thrown an exception.
+     *
+     * @param type  the class type that can't be created.
+     * @param cause the exception that describes the failure.
+     */
+    default void failed(Class<?> type, Throwable cause) {
+    }
+}
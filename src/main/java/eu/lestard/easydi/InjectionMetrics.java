@@ -0,0 +1,143 @@
+package eu.lestard.easydi;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * An {@link InjectionListener} that collects metrics for every class type: the number of created instances,
+ * the singleton cache hits and misses, the number of failures and the latencies of constructors and providers.
+ * <p>
+ * A typical usage looks like this:
+ *
+ * <pre>{@code
+ * InjectionMetrics metrics = new InjectionMetrics();
+ * easyDI.setInjectionListener(metrics);
+ * ...
+ * InjectionMetrics.TypeMetrics carMetrics = metrics.forType(Car.class);
+ * long p99 = carMetrics.constructorLatency().percentileNanos(99);
+ * }</pre>
+ * <p>
+ * All metrics are recorded without locking and can be read while they are recorded.
+ */
+public final class InjectionMetrics implements InjectionListener {
+
+    private static final TypeMetrics EMPTY = new TypeMetrics();
+
+    private final Map<Class<?>, TypeMetrics> metrics = new ConcurrentHashMap<>();
+
+    /**
+     * Create metrics without any recorded values. They are recorded when the instance is set with
+     * {@link EasyDI#setInjectionListener(InjectionListener)}.
+     */
+    public InjectionMetrics() {
+    }
+
+    @Override
+    public void instanceCreated(Class<?> type, long nanos) {
+        final TypeMetrics typeMetrics = metricsFor(type);
+        typeMetrics.created.increment();
+        typeMetrics.constructorLatency.record(nanos);
+    }
+
+    @Override
+    public void providerCalled(Class<?> type, long nanos) {
+        final TypeMetrics typeMetrics = metricsFor(type);
+        typeMetrics.created.increment();
+        typeMetrics.providerLatency.record(nanos);
+    }
+
+    @Override
+    public void singletonHit(Class<?> type) {
+        metricsFor(type).singletonHits.increment();
+    }
+
+    @Override
+    public void singletonMiss(Class<?> type) {
+        metricsFor(type).singletonMisses.increment();
+    }
+
+    @Override
+    public void failed(Class<?> type, Throwable cause) {
+        metricsFor(type).failures.increment();
+    }
+
+    private TypeMetrics metricsFor(Class<?> type) {
+        final TypeMetrics typeMetrics = metrics.get(type);
+        return typeMetrics != null ? typeMetrics : metrics.computeIfAbsent(type, key -> new TypeMetrics());
+    }
+
+    /**
+     * @param type the class type.
+     * @return the metrics of the given type. If nothing was recorded for the type, all metrics are 0.
+     */
+    public TypeMetrics forType(Class<?> type) {
+        return metrics.getOrDefault(type, EMPTY);
+    }
+
+    /**
+     * @return the metrics of all types for that something was recorded.
+     */
+    public Map<Class<?>, TypeMetrics> all() {
+        return Collections.unmodifiableMap(metrics);
+    }
+
+    /**
+     * The metrics of a single class type.
+     */
+    public static final class TypeMetrics {
+
+        private final LongAdder created = new LongAdder();
+        private final LongAdder singletonHits = new LongAdder();
+        private final LongAdder singletonMisses = new LongAdder();
+        private final LongAdder failures = new LongAdder();
+        private final LatencyHistogram constructorLatency = new LatencyHistogram();
+        private final LatencyHistogram providerLatency = new LatencyHistogram();
+
+        private TypeMetrics() {
+        }
+
+        /**
+         * @return the number of instances that were created by the constructor or a provider.
+         */
+        public long created() {
+            return created.sum();
+        }
+
+        /**
+         * @return how often an existing singleton instance was returned.
+         */
+        public long singletonHits() {
+            return singletonHits.sum();
+        }
+
+        /**
+         * @return how often a singleton was requested that didn't exist yet.
+         */
+        public long singletonMisses() {
+            return singletonMisses.sum();
+        }
+
+        /**
+         * @return how often an instance couldn't be created.
+         */
+        public long failures() {
+            return failures.sum();
+        }
+
+        /**
+         * @return the latencies of the constructor.
+         */
+        public LatencyHistogram constructorLatency() {
+            return constructorLatency;
+        }
+
+        /**
+         * @return the latencies of the provider.
+         */
+        public LatencyHistogram providerLatency() {
+            return providerLatency;
+        }
+    }
+}
@@ -0,0 +1,170 @@
+package eu.lestard.easydi;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Records every construction and provider call of EasyDI with its start time, its duration and the thread, so that
+ * the nested constructions can be viewed as flame chart, i.e. to find the slow constructor in a deep chain during
+ * startup.
+ * <p>
+ * A typical usage looks like this:
+ *
+ * <pre>{@code
+ * InjectionTrace trace = new InjectionTrace(65536);
+ * easyDI.setInjectionTrace(trace);
+ * ...
+ * try (Writer writer = Files.newBufferedWriter(Path.of("startup.json"))) {
+ *     trace.writeChromeTrace(writer);
+ * }
+ * }</pre>
+ * <p>
+ * The written file uses the trace event format of Chrome and can be opened with {@code chrome://tracing} or
+ * the Perfetto UI. The time of a constructor includes the creation of its parameters, so the parameters are
+ * shown nested below it.
+ * <p>
+ * The events are recorded into a ring buffer that is allocated up front, so recording neither allocates nor locks.
+ * When the buffer is full, the oldest events are overwritten. The trace should be written when the traced work is
+ * finished: Events that are recorded while the trace is written may be incomplete.
+ */
+public final class InjectionTrace {
+
+    private final long origin = System.nanoTime();
+
+    private final int mask;
+
+    private final AtomicLong nextEvent = new AtomicLong();
+
+    private final Class<?>[] types;
+    private final boolean[] providers;
+    private final long[] starts;
+    private final long[] durations;
+    private final long[] threadIds;
+    private final int[] depths;
+
+    private final Map<Long, String> threadNames = new ConcurrentHashMap<>();
+
+    /**
+     * Adds the name of a thread to {@link #threadNames} the first time the thread records an event.
+     */
+    private final ThreadLocal<Boolean> registeredThread = ThreadLocal.withInitial(() -> {
+        final Thread thread = Thread.currentThread();
+        threadNames.put(thread.getId(), thread.getName());
+        return Boolean.TRUE;
+    });
+
+    /**
+     * @param capacity the maximum number of events that are kept. It is rounded up to the next power of two.
+     * @throws java.lang.IllegalArgumentException if the capacity isn't positive or too large.
+     */
+    public InjectionTrace(int capacity) {
+        if (capacity <= 0 || capacity > 1 << 30) {
+            throw new IllegalArgumentException("The capacity has to be between 1 and 2^30, but was " + capacity + ".");
+        }
+
+        final int size = Integer.highestOneBit(capacity) == capacity ? capacity : Integer.highestOneBit(capacity) << 1;
+        mask = size - 1;
+
+        types = new Class<?>[size];
+        providers = new boolean[size];
+        starts = new long[size];
+        durations = new long[size];
+        threadIds = new long[size];
+        depths = new int[size];
+    }
+
+    /**
+     * Record a construction or provider call of the given type that started at the given time and ends now.
+     *
+     * @param start the start of the construction as returned by {@link System#nanoTime()}.
+     * @param depth the depth in the dependency graph, 0 for requests from outside of the dependency graph.
+     */
+    void record(Class<?> type, boolean provider, long start, int depth) {
+        final long end = System.nanoTime();
+        registeredThread.get();
+
+        final int index = (int) (nextEvent.getAndIncrement() & mask);
+        types[index] = type;
+        providers[index] = provider;
+        starts[index] = start - origin;
+        durations[index] = end - start;
+        threadIds[index] = Thread.currentThread().getId();
+        depths[index] = depth;
+    }
+
+    /**
+     * @return the number of events that were recorded, including those that were overwritten.
+     */
+    public long recordedEvents() {
+        return nextEvent.get();
+    }
+
+    /**
+     * @return the number of events that were overwritten because the buffer was full.
+     */
+    public long droppedEvents() {
+        return Math.max(0, nextEvent.get() - (mask + 1));
+    }
+
+    /**
+     * Remove all recorded events.
+     */
+    public void clear() {
+        nextEvent.set(0);
+        Arrays.fill(types, null);
+    }
+
+    /**
+     * Write the recorded events in the trace event format of Chrome, oldest first.
+     *
+     * @param output the destination of the trace, i.e. a {@link java.io.Writer}.
+     * @throws java.io.IOException if the trace can't be written to the output.
+     */
+    public void writeChromeTrace(Appendable output) throws IOException {
+        final long recorded = nextEvent.get();
+        final long first = Math.max(0, recorded - (mask + 1));
+
+        output.append("{\"traceEvents\": [");
+        boolean firstEvent = true;
+
+        for (Map.Entry<Long, String> thread : threadNames.entrySet()) {
+            output.append(firstEvent ? "\n" : ",\n")
+                .append("  {\"name\": \"thread_name\", \"ph\": \"M\", \"pid\": 1, \"tid\": ")
+                .append(String.valueOf(thread.getKey()))
+                .append(", \"args\": {\"name\": ").append(GraphExport.jsonString(thread.getValue())).append("}}");
+            firstEvent = false;
+        }
+
+        for (long event = first; event < recorded; event++) {
+            final int index = (int) (event & mask);
+            final Class<?> type = types[index];
+
+            // the slot was taken but not written yet.
+            if (type == null) {
+                continue;
+            }
+
+            final String name = type.getSimpleName().isEmpty() ? type.getName() : type.getSimpleName();
+
+            output.append(firstEvent ? "\n" : ",\n")
+                .append("  {\"name\": ").append(GraphExport.jsonString(name))
+                .append(", \"cat\": ").append(providers[index] ? "\"provider\"" : "\"constructor\"")
+                .append(", \"ph\": \"X\", \"ts\": ").append(micros(starts[index]))
+                .append(", \"dur\": ").append(micros(durations[index]))
+                .append(", \"pid\": 1, \"tid\": ").append(String.valueOf(threadIds[index]))
+                .append(", \"args\": {\"type\": ").append(GraphExport.jsonString(type.getName()))
+                .append(", \"depth\": ").append(String.valueOf(depths[index])).append("}}");
+            firstEvent = false;
+        }
+
+        output.append(firstEvent ? "" : "\n").append("], \"displayTimeUnit\": \"ms\"}\n");
+    }
+
+    private static String micros(long nanos) {
+        return String.format(Locale.ROOT, "%.3f", nanos / 1000.0);
+    }
+}
@@ -0,0 +1,44 @@
+package eu.lestard.easydi;
+
+import java.util.Optional;
+
+/**
+ * An injector provides instances of class types.
+ * <p>
+ * {@link EasyDI} itself is an injector whose configuration can still be changed.
+ * An immutable injector is created with {@link EasyDI#freeze()}.
+ */
+public interface Injector {
+
+    /**
+     * Get an instance of the given class type.
+     *
+     * @param requestedType the class type of which an instance is retrieved.
+     * @param <T>           the generic type of the class.
+     * @return an instance of the given type.
+     * @throws java.lang.IllegalStateException if there is a misconfiguration or a requested class can't be instantiated.
+     */
+    <T> T getInstance(Class<T> requestedType);
+
+    /**
+     * Get an instance of the given qualified type.
+     *
+     * @param key the type together with its qualifier.
+     * @param <T> the generic type of the class.
+     * @return an instance of the given type.
+     * @throws java.lang.IllegalStateException if there is no binding for the qualifier or the bound type
+     *                                         can't be instantiated.
+     */
+    <T> T getInstance(Key<T> key);
+
+    /**
+     * Get an instance of the given class type if the type can be resolved.
+     * A type that can't be resolved results in an empty optional instead of an exception.
+     *
+     * @param requestedType the class type of which an instance is retrieved.
+     * @param <T>           the generic type of the class.
+     * @return an instance of the given type or an empty optional if the type can't be resolved.
+     * @throws java.lang.IllegalStateException if the type can be resolved but the instantiation fails.
+     */
+    <T> Optional<T> tryGetInstance(Class<T> requestedType);
+}
@@ -0,0 +1,31 @@
+package eu.lestard.easydi;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * A Java Flight Recorder event for the instantiation of a class with its constructor.
+ * <p>
+ * The duration of the event only contains the constructor call itself, not the creation of the constructor parameters.
+ */
+@Name("EasyDI.Instantiate")
+@Label("Instantiate")
+@Category("EasyDI")
+@Description("A class was instantiated with its constructor")
+final class InstantiateEvent extends Event {
+
+    @Label("Type")
+    @Description("The class type of the instance")
+    Class<?> type;
+
+    @Label("Parent Type")
+    @Description("The class type whose constructor parameter is created or null for requests from outside of the dependency graph")
+    Class<?> parentType;
+
+    @Label("Depth")
+    @Description("The depth in the dependency graph, 0 for requests from outside of the dependency graph")
+    int depth;
+}
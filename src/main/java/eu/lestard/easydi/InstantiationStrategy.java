@@ -0,0 +1,46 @@
+package eu.lestard.easydi;
+
+import java.lang.reflect.Constructor;
+
+/**
+ * The strategy that EasyDI uses to turn a constructor into an {@link Instantiator}.
+ * <p>
+ * The strategy is called only once for every constructor. The resulting instantiator is
+ * cached and used for all instances that are created with this constructor.
+ * <p>
+ * Use {@link EasyDI#setInstantiationStrategy(InstantiationStrategy)} to change the strategy.
+ * By default {@link #GENERATED_FACTORIES} is used.
+ */
+public interface InstantiationStrategy {
+
+    /**
+     * Creates instances with {@link java.lang.reflect.Constructor#newInstance(Object...)}.
+     */
+    InstantiationStrategy REFLECTION = new Instantiators.Reflection();
+
+    /**
+     * Creates instances by invoking a {@link java.lang.invoke.MethodHandle} of the constructor.
+     * After the JIT has warmed up this is considerably faster than reflection.
+     * <p>
+     * When no method handle can be created for a constructor (for example because of module access rules)
+     * this strategy falls back to {@link #REFLECTION}.
+     */
+    InstantiationStrategy METHOD_HANDLES = new Instantiators.MethodHandles();
+
+    /**
+     * Creates instances with the factories that were generated at compile time by the
+     * EasyDI annotation processor ({@code easy-di-processor}). These factories call the constructor directly.
+     * <p>
+     * For classes without a generated factory this strategy falls back to {@link #METHOD_HANDLES}.
+     */
+    InstantiationStrategy GENERATED_FACTORIES = new GeneratedFactories(METHOD_HANDLES);
+
+    /**
+     * Create an instantiator for the given constructor.
+     *
+     * @param constructor the constructor that is used to create instances.
+     * @param <T>         the generic type of the class.
+     * @return the instantiator.
+     */
+    <T> Instantiator<T> createInstantiator(Constructor<T> constructor);
+}
@@ -0,0 +1,22 @@
+package eu.lestard.easydi;
+
+/**
+ * An instantiator creates new instances of a single class type by invoking a specific constructor.
+ * <p>
+ * Instantiators are created by an {@link InstantiationStrategy} once for each constructor
+ * that EasyDI uses and are cached together with the resolution of the type.
+ *
+ * @param <T> the generic type of the created instances.
+ */
+@FunctionalInterface
+public interface Instantiator<T> {
+
+    /**
+     * Create a new instance.
+     *
+     * @param arguments the constructor arguments in the order of the constructor parameters.
+     * @return the new instance.
+     * @throws Exception when the constructor throws an exception.
+     */
+    T newInstance(Object[] arguments) throws Exception;
+}
@@ -0,0 +1,85 @@
+package eu.lestard.easydi;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles.Lookup;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.UndeclaredThrowableException;
+
+/**
+ * The built-in implementations of {@link InstantiationStrategy}.
+ */
+final class Instantiators {
+
+    private Instantiators() {
+    }
+
+    /**
+     * Uses {@link java.lang.reflect.Constructor#newInstance(Object...)}.
+     */
+    static final class Reflection implements InstantiationStrategy {
+
+        @Override
+        public <T> Instantiator<T> createInstantiator(Constructor<T> constructor) {
+            return arguments -> {
+                try {
+                    return constructor.newInstance(arguments);
+                } catch (InvocationTargetException e) {
+                    throw rethrow(e.getCause());
+                }
+            };
+        }
+    }
+
+    /**
+     * Uses a {@link java.lang.invoke.MethodHandle} of the constructor that is adapted
+     * to take the arguments as a single {@code Object[]}.
+     */
+    static final class MethodHandles implements InstantiationStrategy {
+
+        private static final Lookup LOOKUP = java.lang.invoke.MethodHandles.lookup();
+
+        private static final MethodType GENERIC_TYPE = MethodType.methodType(Object.class, Object[].class);
+
+        private final InstantiationStrategy fallback = new Reflection();
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T> Instantiator<T> createInstantiator(Constructor<T> constructor) {
+            final MethodHandle handle;
+            try {
+                // method handles (other than reflection) need the module of EasyDI to read the module of the class.
+                Instantiators.class.getModule().addReads(constructor.getDeclaringClass().getModule());
+
+                handle = LOOKUP.unreflectConstructor(constructor)
+                    .asSpreader(Object[].class, constructor.getParameterCount())
+                    .asType(GENERIC_TYPE);
+            } catch (IllegalAccessException e) {
+                return fallback.createInstantiator(constructor);
+            }
+
+            return arguments -> {
+                try {
+                    return (T) handle.invokeExact(arguments);
+                } catch (Throwable e) {
+                    throw rethrow(e);
+                }
+            };
+        }
+    }
+
+    /**
+     * Rethrow the given throwable as it is if it is an unchecked exception or error.
+     * Checked exceptions are returned so that they can be thrown by the caller.
+     */
+    private static Exception rethrow(Throwable throwable) {
+        if (throwable instanceof Error error) {
+            throw error;
+        }
+        if (throwable instanceof Exception exception) {
+            return exception;
+        }
+        return new UndeclaredThrowableException(throwable);
+    }
+}
@@ -0,0 +1,172 @@
+package eu.lestard.easydi;
+
+import jakarta.inject.Named;
+import jakarta.inject.Qualifier;
+
+import java.lang.annotation.Annotation;
+import java.util.Objects;
+
+/**
+ * The key of a qualified binding: A type together with a {@link jakarta.inject.Named} name or a custom
+ * {@link jakarta.inject.Qualifier} annotation. With keys there can be multiple bindings for the same type:
+ *
+ * <pre>{@code
+ * easyDI.bindInstance(Key.of(DataSource.class, "primary"), primaryDataSource);
+ * easyDI.bindInstance(Key.of(DataSource.class, Replica.class), replicaDataSource);
+ *
+ * public class Repository {
+ *     public Repository(@Named("primary") DataSource primary, @Replica DataSource replica) {...}
+ * }
+ * }</pre>
+ * <p>
+ * The hash code of a key is computed only once. The keys of constructor parameters are created when the parameter
+ * is resolved for the first time, so requests of qualified types neither allocate keys nor compute annotation hashes.
+ * <p>
+ * Custom qualifiers without members are identified by the annotation type. Custom qualifiers with members are
+ * identified by the annotation, so the values of the members are taken into account: A key for such a qualifier is
+ * created with {@link #of(Class, Annotation)}.
+ *
+ * @param <T> the generic type of the qualified type.
+ */
+public final class Key<T> {
+
+    private final Class<T> type;
+
+    private final Class<? extends Annotation> qualifier;
+
+    /**
+     * The value of {@link jakarta.inject.Named} or {@code null} for other qualifiers.
+     */
+    private final String name;
+
+    /**
+     * The qualifier annotation if it is a custom qualifier with members or {@code null} for other qualifiers.
+     */
+    private final Annotation annotation;
+
+    private final int hash;
+
+    private Key(Class<T> type, Class<? extends Annotation> qualifier, String name, Annotation annotation) {
+        this.type = type;
+        this.qualifier = qualifier;
+        this.name = name;
+        this.annotation = annotation;
+        this.hash = Objects.hash(type, qualifier, name, annotation);
+    }
+
+    /**
+     * Get the key for the given type qualified with {@link jakarta.inject.Named}.
+     *
+     * @param type the qualified type.
+     * @param name the value of the {@link jakarta.inject.Named} annotation.
+     * @param <T>  the generic type of the qualified type.
+     * @return the key.
+     */
+    public static <T> Key<T> of(Class<T> type, String name) {
+        Objects.requireNonNull(name);
+
+        return new Key<>(type, Named.class, name, null);
+    }
+
+    /**
+     * Get the key for the given type qualified with the given qualifier annotation.
+     *
+     * @param type      the qualified type.
+     * @param qualifier the qualifier annotation.
+     * @param <T>       the generic type of the qualified type.
+     * @return the key.
+     * @throws java.lang.IllegalArgumentException if the annotation isn't annotated with {@link jakarta.inject.Qualifier},
+     *                                            is {@link jakarta.inject.Named} or has members.
+     */
+    public static <T> Key<T> of(Class<T> type, Class<? extends Annotation> qualifier) {
+        checkQualifier(qualifier);
+
+        if (qualifier == Named.class) {
+            throw new IllegalArgumentException(
+                "The name of a jakarta.inject.Named qualifier is missing. Expecting the name as second argument.");
+        }
+        if (hasMembers(qualifier)) {
+            throw new IllegalArgumentException("The qualifier " + qualifier.getName() + " has members. "
+                + "Expecting the annotation with the values of its members as second argument.");
+        }
+
+        return new Key<>(type, qualifier, null, null);
+    }
+
+    /**
+     * Get the key for the given type qualified with the given qualifier annotation. The values of the members of
+     * the annotation are part of the key. The annotation can be taken from a field or parameter or be an
+     * implementation of the annotation interface.
+     *
+     * @param type      the qualified type.
+     * @param qualifier the qualifier annotation.
+     * @param <T>       the generic type of the qualified type.
+     * @return the key.
+     * @throws java.lang.IllegalArgumentException if the annotation isn't annotated with {@link jakarta.inject.Qualifier}.
+     */
+    public static <T> Key<T> of(Class<T> type, Annotation qualifier) {
+        final Class<? extends Annotation> qualifierType = qualifier.annotationType();
+        checkQualifier(qualifierType);
+
+        if (qualifier instanceof Named named) {
+            return of(type, named.value());
+        }
+
+        return new Key<>(type, qualifierType, null, hasMembers(qualifierType) ? qualifier : null);
+    }
+
+    private static void checkQualifier(Class<? extends Annotation> qualifier) {
+        if (!qualifier.isAnnotationPresent(Qualifier.class)) {
+            throw new IllegalArgumentException(
+                "The given annotation is not annotated with jakarta.inject.Qualifier. Expecting a qualifier annotation.");
+        }
+    }
+
+    private static boolean hasMembers(Class<? extends Annotation> qualifier) {
+        return qualifier.getDeclaredMethods().length > 0;
+    }
+
+    /**
+     * @return the qualified type.
+     */
+    public Class<T> type() {
+        return type;
+    }
+
+    /**
+     * @return the qualifier annotation as it would be written in the code, i.e. {@code @Named("primary")}.
+     */
+    String describeQualifier() {
+        if (annotation != null) {
+            return annotation.toString();
+        }
+
+        return name == null
+            ? "@" + qualifier.getSimpleName()
+            : "@" + qualifier.getSimpleName() + "(\"" + name + "\")";
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) {
+            return true;
+        }
+
+        return other instanceof Key<?> key
+            && hash == key.hash
+            && type == key.type
+            && qualifier == key.qualifier
+            && Objects.equals(name, key.name)
+            && Objects.equals(annotation, key.annotation);
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        return describeQualifier() + " " + type.getName();
+    }
+}
@@ -0,0 +1,106 @@
+package eu.lestard.easydi;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A histogram of latencies in nanoseconds that can be recorded concurrently without locking.
+ * <p>
+ * The values are counted in buckets whose bounds are powers of two: Bucket {@code i} contains all values
+ * from {@code 2^(i-1)} up to {@code 2^i - 1} nanoseconds (bucket 0 contains 0). Percentiles are reported as
+ * the upper bound of the bucket, so they are accurate to a factor of two.
+ */
+public final class LatencyHistogram {
+
+    private static final int BUCKETS = 64;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+
+    private final LongAdder totalNanos = new LongAdder();
+
+    /**
+     * Create an empty histogram.
+     */
+    public LatencyHistogram() {
+    }
+
+    /**
+     * Record the given latency.
+     *
+     * @param nanos the latency in nanoseconds. Negative values are recorded as 0.
+     */
+    public void record(long nanos) {
+        final long value = Math.max(nanos, 0);
+
+        buckets.incrementAndGet(BUCKETS - Long.numberOfLeadingZeros(value));
+        totalNanos.add(value);
+    }
+
+    /**
+     * @return the number of recorded values.
+     */
+    public long count() {
+        long count = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            count += buckets.get(i);
+        }
+        return count;
+    }
+
+    /**
+     * @return the sum of all recorded values in nanoseconds.
+     */
+    public long totalNanos() {
+        return totalNanos.sum();
+    }
+
+    /**
+     * @return the mean of all recorded values in nanoseconds or 0 if nothing was recorded.
+     */
+    public double meanNanos() {
+        final long count = count();
+        return count == 0 ? 0 : (double) totalNanos() / count;
+    }
+
+    /**
+     * @param bucket the index of the bucket (0 to 63).
+     * @return the number of values that were recorded in the given bucket.
+     */
+    public long bucketCount(int bucket) {
+        return buckets.get(bucket);
+    }
+
+    /**
+     * Get the upper bound of the given percentile.
+     *
+     * @param percentile the percentile between 0 and 100, i.e. {@code 99.9}.
+     * @return the upper bound in nanoseconds of the bucket that contains the percentile
+     * or 0 if nothing was recorded.
+     */
+    public long percentileNanos(double percentile) {
+        final long[] counts = new long[BUCKETS];
+        long count = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] = buckets.get(i);
+            count += counts[i];
+        }
+
+        if (count == 0) {
+            return 0;
+        }
+
+        final long rank = Math.max(1, (long) Math.ceil(count * percentile / 100));
+
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts[i];
+
+            if (seen >= rank) {
+                // for the last bucket this overflows to Long.MAX_VALUE
+                return (1L << i) - 1;
+            }
+        }
+
+        return Long.MAX_VALUE;
+    }
+}
@@ -0,0 +1,173 @@
+package eu.lestard.easydi;
+
+import jakarta.inject.Inject;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.invoke.VarHandle;
+import java.lang.reflect.Field;
+import java.lang.reflect.Member;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Injects the fields and methods that are annotated with {@link jakarta.inject.Inject} into a new instance.
+ * <p>
+ * The members of a class are found only once when its {@link ResolutionPlan} is created. Each member is turned into
+ * a method handle that is already accessible: fields via their {@link java.lang.invoke.VarHandle}, methods via
+ * {@link java.lang.invoke.MethodHandles.Lookup#unreflect(Method)}. Injecting into an instance is a loop over these
+ * handles without any reflection or access checks.
+ * <p>
+ * As in JSR-330, the members of superclasses are injected first and the fields of a class before its methods.
+ * Static and final fields, static methods and methods that are overridden without {@link jakarta.inject.Inject}
+ * are ignored.
+ */
+final class MembersInjector {
+
+    private static final MethodType SINGLE_VALUE = MethodType.methodType(void.class, Object.class, Object.class);
+
+    private static final MethodType MULTIPLE_VALUES = MethodType.methodType(void.class, Object.class, Object[].class);
+
+    /**
+     * The index of the first dependency of the members in the dependencies of the plan.
+     * The dependencies before are the constructor parameters.
+     */
+    final int firstDependency;
+
+    /**
+     * One handle per member. Fields and methods with one parameter have the type {@link #SINGLE_VALUE},
+     * all other methods have the type {@link #MULTIPLE_VALUES}.
+     */
+    private final MethodHandle[] injectors;
+
+    /**
+     * The number of dependencies of each member or {@code -1} for handles of the type {@link #SINGLE_VALUE}.
+     */
+    private final int[] parameterCounts;
+
+    private MembersInjector(int firstDependency, MethodHandle[] injectors, int[] parameterCounts) {
+        this.firstDependency = firstDependency;
+        this.injectors = injectors;
+        this.parameterCounts = parameterCounts;
+    }
+
+    /**
+     * Find the fields and methods of the given class that have to be injected in the order of injection.
+     */
+    static List<Member> findInjectableMembers(Class<?> type) {
+        final Deque<List<Member>> hierarchy = new ArrayDeque<>();
+        final Set<String> overriddenMethods = new HashSet<>();
+
+        for (Class<?> current = type; current != null && current != Object.class; current = current.getSuperclass()) {
+            final List<Member> members = new ArrayList<>();
+
+            for (Field field : current.getDeclaredFields()) {
+                final int modifiers = field.getModifiers();
+
+                if (field.isAnnotationPresent(Inject.class) && !Modifier.isStatic(modifiers)
+                    && !Modifier.isFinal(modifiers)) {
+                    members.add(field);
+                }
+            }
+
+            for (Method method : current.getDeclaredMethods()) {
+                final int modifiers = method.getModifiers();
+
+                if (Modifier.isStatic(modifiers) || method.isBridge() || method.isSynthetic()) {
+                    continue;
+                }
+
+                // a method of a superclass is overridden when a subclass declares the same signature.
+                final boolean overridden = !Modifier.isPrivate(modifiers)
+                    && !overriddenMethods.add(method.getName() + Arrays.toString(method.getParameterTypes()));
+
+                if (!overridden && !Modifier.isAbstract(modifiers) && method.isAnnotationPresent(Inject.class)) {
+                    members.add(method);
+                }
+            }
+
+            hierarchy.addFirst(members);
+        }
+
+        final List<Member> injectableMembers = new ArrayList<>();
+        hierarchy.forEach(injectableMembers::addAll);
+        return injectableMembers;
+    }
+
+    /**
+     * Create the injector for the given members.
+     *
+     * @param members         the members in the order of injection (see {@link #findInjectableMembers(Class)}).
+     * @param firstDependency the index of the first dependency of the members in the dependencies of the plan.
+     * @throws IllegalAccessException if a member can't be accessed, i.e. because the package of the class
+     *                                isn't opened to EasyDI.
+     */
+    static MembersInjector create(List<Member> members, int firstDependency) throws IllegalAccessException {
+        final MethodHandle[] injectors = new MethodHandle[members.size()];
+        final int[] parameterCounts = new int[members.size()];
+
+        for (int i = 0; i < injectors.length; i++) {
+            final Member member = members.get(i);
+            final MethodHandles.Lookup lookup =
+                MethodHandles.privateLookupIn(member.getDeclaringClass(), MethodHandles.lookup());
+
+            if (member instanceof Field field) {
+                final VarHandle varHandle = lookup.unreflectVarHandle(field);
+                injectors[i] = varHandle.toMethodHandle(VarHandle.AccessMode.SET).asType(SINGLE_VALUE);
+                parameterCounts[i] = -1;
+            } else {
+                final Method method = (Method) member;
+                final MethodHandle methodHandle = lookup.unreflect(method);
+
+                if (method.getParameterCount() == 1) {
+                    injectors[i] = methodHandle.asType(methodHandle.type().changeReturnType(void.class))
+                        .asType(SINGLE_VALUE);
+                    parameterCounts[i] = -1;
+                } else {
+                    injectors[i] = methodHandle.asType(methodHandle.type().changeReturnType(void.class))
+                        .asSpreader(Object[].class, method.getParameterCount())
+                        .asType(MULTIPLE_VALUES);
+                    parameterCounts[i] = method.getParameterCount();
+                }
+            }
+        }
+
+        return new MembersInjector(firstDependency, injectors, parameterCounts);
+    }
+
+    /**
+     * Inject the members of the given instance.
+     *
+     * @param arguments the instances for all dependencies of the plan. The instances for the members
+     *                  start at {@link #firstDependency}.
+     */
+    void inject(Object instance, Object[] arguments) throws Exception {
+        int index = firstDependency;
+
+        try {
+            for (int i = 0; i < injectors.length; i++) {
+                final int parameterCount = parameterCounts[i];
+
+                if (parameterCount < 0) {
+                    injectors[i].invokeExact(instance, arguments[index]);
+                    index++;
+                } else {
+                    injectors[i].invokeExact(instance, Arrays.copyOfRange(arguments, index, index + parameterCount));
+                    index += parameterCount;
+                }
+            }
+        } catch (Exception | Error e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new IllegalStateException(t);
+        }
+    }
+}
@@ -0,0 +1,206 @@
+package eu.lestard.easydi;
+
+import jakarta.inject.Provider;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A pool of reusable instances of a type, i.e. buffers, codecs or wrappers of native resources that are expensive
+ * to create. A pool is injected as constructor parameter and instances are borrowed from it:
+ *
+ * <pre>{@code
+ * public class Encoder {
+ *     private final Pool<Codec> codecs;
+ *
+ *     public Encoder(Pool<Codec> codecs) {
+ *         this.codecs = codecs;
+ *     }
+ *
+ *     public byte[] encode(Message message) {
+ *         try (Pool.Lease<Codec> lease = codecs.borrow()) {
+ *             return lease.get().encode(message);
+ *         }
+ *     }
+ * }
+ * }</pre>
+ * <p>
+ * A new instance is only created by EasyDI when no idle instance is available, so borrowing never waits. When an
+ * instance is returned to a pool that already keeps its maximum number of idle instances, the instance is
+ * discarded and closed if it implements {@link AutoCloseable}. The maximum size is defined with
+ * {@link EasyDI#setPoolSize(Class, int)}. All classes that inject a pool of the same type share it.
+ * <p>
+ * The idle instances are kept in slots that are taken and filled with compare-and-set operations, so the pool
+ * doesn't lock. Each thread starts searching at another slot, so threads don't compete for the same slots
+ * as long as the pool has enough idle instances.
+ *
+ * @param <T> the generic type of the pooled class.
+ */
+public final class Pool<T> {
+
+    private final Provider<T> factory;
+
+    private final AtomicReferenceArray<T> idleInstances;
+
+    private final LongAdder created = new LongAdder();
+
+    /**
+     * @param factory     creates new instances when the pool is empty.
+     * @param maximumSize the maximum number of idle instances that are kept.
+     */
+    Pool(Provider<T> factory, int maximumSize) {
+        this.factory = factory;
+        this.idleInstances = new AtomicReferenceArray<>(maximumSize);
+    }
+
+    /**
+     * Borrow an idle instance or create a new one if there is none. The instance has to be returned by closing
+     * the lease.
+     *
+     * @return the lease of the instance.
+     * @throws java.lang.IllegalStateException if a new instance can't be created.
+     */
+    public Lease<T> borrow() {
+        final int size = idleInstances.length();
+        final int start = startSlot(size);
+
+        for (int i = 0; i < size; i++) {
+            final int slot = (start + i) % size;
+            final T instance = idleInstances.get(slot);
+
+            if (instance != null && idleInstances.compareAndSet(slot, instance, null)) {
+                return new Lease<>(this, instance);
+            }
+        }
+
+        created.increment();
+        return new Lease<>(this, factory.get());
+    }
+
+    private void release(T instance) {
+        if (instance == null) {
+            return;
+        }
+
+        final int size = idleInstances.length();
+        final int start = startSlot(size);
+
+        for (int i = 0; i < size; i++) {
+            final int slot = (start + i) % size;
+
+            if (idleInstances.get(slot) == null && idleInstances.compareAndSet(slot, null, instance)) {
+                return;
+            }
+        }
+
+        close(instance);
+    }
+
+    /**
+     * The slot where the calling thread starts to search. The thread ids are spread so that consecutive threads
+     * don't start at neighbouring slots.
+     */
+    private static int startSlot(int size) {
+        final long hash = Thread.currentThread().getId() * 0x9E3779B97F4A7C15L;
+        return (int) ((hash >>> 32) % size);
+    }
+
+    /**
+     * Discard all idle instances and close them if they implement {@link AutoCloseable}. Borrowed instances
+     * are kept when they are returned.
+     */
+    public void clear() {
+        for (int slot = 0; slot < idleInstances.length(); slot++) {
+            final T instance = idleInstances.getAndSet(slot, null);
+
+            if (instance != null) {
+                close(instance);
+            }
+        }
+    }
+
+    /**
+     * @return the number of idle instances in the pool at the moment.
+     */
+    public int idleCount() {
+        int count = 0;
+
+        for (int slot = 0; slot < idleInstances.length(); slot++) {
+            if (idleInstances.get(slot) != null) {
+                count++;
+            }
+        }
+
+        return count;
+    }
+
+    /**
+     * @return the maximum number of idle instances that are kept.
+     */
+    public int maximumSize() {
+        return idleInstances.length();
+    }
+
+    /**
+     * @return how many instances were created because the pool was empty.
+     */
+    public long createdCount() {
+        return created.sum();
+    }
+
+    private static void close(Object instance) {
+        if (instance instanceof AutoCloseable closeable) {
+            try {
+                closeable.close();
+            } catch (RuntimeException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new IllegalStateException("The discarded instance of [" + instance.getClass().getName()
+                    + "] couldn't be closed.", e);
+            }
+        }
+    }
+
+    /**
+     * A borrowed instance. Closing the lease returns the instance to the pool, so it should be used with
+     * try-with-resources. A lease is meant to be used by a single thread.
+     *
+     * @param <T> the generic type of the pooled class.
+     */
+    public static final class Lease<T> implements AutoCloseable {
+
+        private final Pool<T> pool;
+
+        private final T instance;
+
+        private boolean returned;
+
+        private Lease(Pool<T> pool, T instance) {
+            this.pool = pool;
+            this.instance = instance;
+        }
+
+        /**
+         * @return the borrowed instance.
+         * @throws java.lang.IllegalStateException if the instance was already returned.
+         */
+        public T get() {
+            if (returned) {
+                throw new IllegalStateException("The instance was already returned to the pool.");
+            }
+            return instance;
+        }
+
+        /**
+         * Return the instance to the pool. The instance must not be used afterwards. Closing a lease
+         * twice has no effect.
+         */
+        @Override
+        public void close() {
+            if (!returned) {
+                returned = true;
+                pool.release(instance);
+            }
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package eu.lestard.easydi;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * A Java Flight Recorder event for the call of a provider that was bound with {@link EasyDI#bindProvider(Class, jakarta.inject.Provider)}.
+ * <p>
+ * The duration of the event is the time the provider took.
+ */
+@Name("EasyDI.ProviderCall")
+@Label("Provider Call")
+@Category("EasyDI")
+@Description("An instance was created by a provider")
+final class ProviderCallEvent extends Event {
+
+    @Label("Type")
+    @Description("The class type of the instance")
+    Class<?> type;
+
+    @Label("Parent Type")
+    @Description("The class type whose constructor parameter is created or null for requests from outside of the dependency graph")
+    Class<?> parentType;
+
+    @Label("Depth")
+    @Description("The depth in the dependency graph, 0 for requests from outside of the dependency graph")
+    int depth;
+}
@@ -0,0 +1,104 @@
+package eu.lestard.easydi;
+
+import jakarta.inject.Provider;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * A {@link Scope} that shares instances during a request.
+ * <p>
+ * A request is the execution of {@link #run(Runnable)} or {@link #call(Supplier)}. All instances of the scope that
+ * are requested by the thread that executes the request are the same. Every request gets new instances.
+ *
+ * <pre>{@code
+ * requestScope.run(() -> {
+ *     RequestHandler handler = easyDI.getInstance(RequestHandler.class);
+ *     handler.handle(request);
+ * });
+ * }</pre>
+ *<p>
+ * The request is only bound to the thread while the request is executed. When the request is finished, the
+ * previously active request (if any) is restored, so nothing is kept for the thread afterwards. This way
+ * the scope can also be used with a large number of short-lived threads.
+ */
+public final class RequestScope implements Scope {
+
+    private final ThreadLocal<Map<Class<?>, Object>> currentRequest = new ThreadLocal<>();
+
+    /**
+     * Create a request scope. It has to be bound to a scope annotation with
+     * {@link EasyDI#bindScope(Class, Scope)}, typically {@link RequestScoped}.
+     */
+    public RequestScope() {
+    }
+
+    /**
+     * Execute the given action as a new request.
+     *
+     * @param request the action that is executed.
+     */
+    public void run(Runnable request) {
+        call(() -> {
+            request.run();
+            return null;
+        });
+    }
+
+    /**
+     * Execute the given action as a new request.
+     *
+     * @param request the action that is executed.
+     * @param <V>     the type of the result.
+     * @return the result of the action.
+     */
+    public <V> V call(Supplier<V> request) {
+        final Map<Class<?>, Object> previousRequest = currentRequest.get();
+        currentRequest.set(new ConcurrentHashMap<>());
+
+        try {
+            return request.get();
+        } finally {
+            if (previousRequest == null) {
+                currentRequest.remove();
+            } else {
+                currentRequest.set(previousRequest);
+            }
+        }
+    }
+
+    /**
+     * @return {@code true} if the calling thread currently executes a request.
+     */
+    public boolean isActive() {
+        return currentRequest.get() != null;
+    }
+
+    /**
+     * @throws java.lang.IllegalStateException if the calling thread doesn't execute a request at the moment.
+     */
+    @Override
+    public <T> T get(Class<T> type, Provider<T> unscopedProvider) {
+        final Map<Class<?>, Object> instances = currentRequest.get();
+
+        if (instances == null) {
+            throw new IllegalStateException("There is no active request for the request scoped class [" + type
+                + "]. Please use the 'run' or 'call' method of the RequestScope to execute a request.");
+        }
+
+        final Object existingInstance = instances.get(type);
+        if (existingInstance != null) {
+            return type.cast(existingInstance);
+        }
+
+        // computeIfAbsent can't be used because the creation may request other instances of the scope
+        final T instance = unscopedProvider.get();
+        if (instance == null) {
+            return null;
+        }
+
+        final Object otherInstance = instances.putIfAbsent(type, instance);
+        return otherInstance != null ? type.cast(otherInstance) : instance;
+    }
+}
@@ -0,0 +1,24 @@
+package eu.lestard.easydi;
+
+import jakarta.inject.Scope;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Classes with this annotation are shared during a request. It is typically bound to a {@link RequestScope}:
+ *
+ * <pre>{@code
+ * RequestScope requestScope = new RequestScope();
+ * easyDI.bindScope(RequestScoped.class, requestScope);
+ * }</pre>
+ */
+@Scope
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface RequestScoped {
+}
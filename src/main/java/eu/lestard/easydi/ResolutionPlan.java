@@ -0,0 +1,389 @@
+package eu.lestard.easydi;
+
+import jakarta.inject.Provider;
+
+import java.lang.reflect.Constructor;
+
+/**
+ * The cached result of resolving a requested class type.
+ * <p>
+ * A plan contains everything that EasyDI needs to know to get an instance of a type:
+ * the class type that is actually instantiated (the implementing class when an interface was requested),
+ * whether instances are created by a provider or by a constructor, the constructor that is used
+ * together with the bindings of its parameters and whether the type is a singleton.
+ * <p>
+ * The plan is created once by {@link EasyDI} the first time a type is requested.
+ * All later requests only walk the cached plan instead of reflecting on the type again.
+ * <p>
+ * Types that can't be resolved get a plan too. Such a plan only records the {@link Problem} or the
+ * constructor parameter that can't be resolved. The error message is only built when an exception is actually
+ * thrown so that probing for a type that isn't available (see {@link EasyDI#tryGetInstance(Class)}) is cheap.
+ *
+ * @param <T> the generic type of the planned class.
+ */
+final class ResolutionPlan<T> {
+
+    /**
+     * The class type that is instantiated.
+     */
+    final Class<T> type;
+
+    /**
+     * The identity of the plan: The {@link #type}, the {@link Key} of a plan for a qualified provider or the
+     * {@link Multibinding} of a plan for a collection of all bound implementations. Singletons are stored by this
+     * identity and paths of the dependency graph consist of it.
+     */
+    final Object id;
+
+    /**
+     * {@code true} if the created instance is stored as singleton.
+     */
+    final boolean singleton;
+
+    /**
+     * The scope that manages the instances or {@code null} if the type isn't scoped.
+     * Singletons have no scope.
+     */
+    final Scope scope;
+
+    /**
+     * The provider that creates instances or {@code null} if the constructor is used.
+     */
+    final Provider<T> provider;
+
+    /**
+     * The constructor that is used for instantiation or {@code null} if a provider is used.
+     */
+    final Constructor<T> constructor;
+
+    /**
+     * The instantiator that invokes the {@link #constructor} or {@code null} if a provider is used.
+     */
+    final Instantiator<T> instantiator;
+
+    /**
+     * The bindings of the constructor parameters in the order of declaration, followed by the bindings of the
+     * injected fields and methods if there are {@link #members}.
+     */
+    final Dependency[] dependencies;
+
+    /**
+     * The injector for the fields and methods that are annotated with {@link jakarta.inject.Inject} or {@code null}
+     * if there are none or member injection isn't enabled.
+     */
+    final MembersInjector members;
+
+    /**
+     * The reason why the type itself can't be resolved or {@code null} if there is none.
+     */
+    final Problem problem;
+
+    /**
+     * The requested key of a qualified type that can't be resolved or {@code null}. Is only used for the
+     * error message.
+     */
+    final Key<T> key;
+
+    /**
+     * The first constructor parameter that can't be resolved or {@code null} if all of them can be resolved.
+     * It is set when the plan is linked.
+     */
+    Dependency failedDependency;
+
+    /**
+     * {@code true} if {@link #failedDependency} can't be resolved because of a cyclic dependency.
+     * It is set when the plan is linked.
+     */
+    boolean cyclic;
+
+    /**
+     * {@code true} when the plans of all constructor parameters are linked (see {@link Dependency#plan})
+     * and it's known whether the type can be resolved.
+     */
+    volatile boolean linked;
+
+    private ResolutionPlan(Class<T> type, Object id, boolean singleton, Scope scope, Provider<T> provider,
+                           Constructor<T> constructor, Instantiator<T> instantiator, Dependency[] dependencies,
+                           Problem problem, Key<T> key, MembersInjector members) {
+        this.type = type;
+        this.id = id;
+        this.singleton = singleton;
+        this.scope = scope;
+        this.provider = provider;
+        this.constructor = constructor;
+        this.instantiator = instantiator;
+        this.dependencies = dependencies;
+        this.problem = problem;
+        this.key = key;
+        this.members = members;
+    }
+
+    /**
+     * Create a plan for a type whose instances are created by the given provider.
+     */
+    static <T> ResolutionPlan<T> forProvider(Class<T> type, Provider<T> provider, boolean singleton, Scope scope) {
+        return new ResolutionPlan<>(type, type, singleton, scope, provider, null, null, new Dependency[0], null, null, null);
+    }
+
+    /**
+     * Create a plan for a qualified type whose instances are created by the given provider. The identity of the plan
+     * is the key, so that the singletons of different qualifiers are stored separately.
+     */
+    static <T> ResolutionPlan<T> forProvider(Key<T> key, Provider<T> provider, boolean singleton) {
+        return new ResolutionPlan<>(key.type(), key, singleton, null, provider, null, null, new Dependency[0], null,
+            null, null);
+    }
+
+    /**
+     * Create a plan for a type whose instances are created with the given constructor.
+     */
+    static <T> ResolutionPlan<T> forConstructor(Class<T> type, Constructor<T> constructor, Instantiator<T> instantiator,
+                                                Dependency[] dependencies, boolean singleton, Scope scope) {
+        return forConstructor(type, constructor, instantiator, dependencies, singleton, scope, null);
+    }
+
+    /**
+     * Create a plan for a type whose instances are created with the given constructor and whose fields and methods
+     * are injected afterwards.
+     */
+    static <T> ResolutionPlan<T> forConstructor(Class<T> type, Constructor<T> constructor, Instantiator<T> instantiator,
+                                                Dependency[] dependencies, boolean singleton, Scope scope,
+                                                MembersInjector members) {
+        return new ResolutionPlan<>(type, type, singleton, scope, null, constructor, instantiator, dependencies,
+            null, null, members);
+    }
+
+    /**
+     * Create a plan for the collection of all implementations that are bound to a multibinding. The dependencies
+     * are the implementations, the instantiator collects their instances into the immutable collection.
+     */
+    @SuppressWarnings("unchecked")
+    static <T> ResolutionPlan<T> forMultibinding(Multibinding multibinding, Dependency[] elements,
+                                                 Instantiator<T> collector, boolean singleton) {
+        return new ResolutionPlan<>((Class<T>) multibinding.collectionType(), multibinding, singleton, null, null,
+            null, collector, elements, null, null, null);
+    }
+
+    /**
+     * Create a plan for a type that can't be resolved because of the given problem.
+     */
+    static <T> ResolutionPlan<T> failed(Class<T> type, Problem problem) {
+        return new ResolutionPlan<>(type, type, false, null, null, null, null, new Dependency[0], problem, null, null);
+    }
+
+    /**
+     * Create a plan for a qualified type that can't be resolved because of the given problem.
+     */
+    static <T> ResolutionPlan<T> failed(Key<T> key, Problem problem) {
+        return new ResolutionPlan<>(key.type(), key.type(), false, null, null, null, null, new Dependency[0],
+            problem, key, null);
+    }
+
+    /**
+     * @return {@code true} if instances of this plan are created by a provider.
+     */
+    boolean usesProvider() {
+        return provider != null;
+    }
+
+    /**
+     * @return {@code true} if this plan creates the collection of a {@link Multibinding}.
+     */
+    boolean isMultibinding() {
+        return id instanceof Multibinding;
+    }
+
+    /**
+     * Mark this plan as not resolvable because the given constructor parameter can't be resolved.
+     */
+    void fail(Dependency dependency, boolean cyclic) {
+        this.failedDependency = dependency;
+        this.cyclic = cyclic;
+    }
+
+    /**
+     * @return {@code true} if instances of this plan can be created. Only meaningful when the plan is linked.
+     */
+    boolean resolvable() {
+        return problem == null && failedDependency == null;
+    }
+
+    /**
+     * The reasons why a type can't be resolved on its own.
+     */
+    enum Problem {
+        NO_INTERFACE_MAPPING("It is an interface and there was no implementation class mapping defined for this type. "
+            + "Please use the 'bindInterface' method of EasyDI to define what implementing class should be used "
+            + "for a given interface."),
+
+        NO_PROVIDER_FOR_ABSTRACT_CLASS("It is an abstract class and there is no provider for this class available. "
+            + "Please define a provider with the `bindProvider` method for this abstract class type."),
+
+        NO_PUBLIC_CONSTRUCTOR("The class has no public constructor."),
+
+        AMBIGUOUS_CONSTRUCTORS("There is more than one public constructor defined so I don't know which one to use. "
+            + "Fix this by either make only one constructor public "
+            + "or annotate exactly one constructor with the javax.inject.Inject annotation."),
+
+        AMBIGUOUS_INJECT_CONSTRUCTORS("There is more than one public constructor marked with @Inject "
+            + "so I don't know which one to use. Fix this by either make only one constructor public "
+            + "or annotate exactly one constructor with the javax.inject.Inject annotation."),
+
+        PROVIDER_WITHOUT_TYPE("There is a javax.inject.Provider without a type parameter declared as dependency. "
+            + "When using javax.inject.Provider as dependency "
+            + "you need to define a type parameter for this provider!"),
+
+        POOL_WITHOUT_TYPE("There is a eu.lestard.easydi.Pool without a type parameter declared as dependency. "
+            + "When using a Pool as dependency you need to define a type parameter for this pool!"),
+
+        NO_SCOPE_BINDING("It is annotated with a scope annotation but there is no scope bound to this annotation. "
+            + "Please use the 'bindScope' method of EasyDI to define what scope should be used for the annotation."),
+
+        INACCESSIBLE_MEMBERS("The fields or methods annotated with @Inject can't be accessed. "
+            + "When the class is in a named module, please open its package to EasyDI."),
+
+        NO_QUALIFIED_BINDING("It is requested with a qualifier but there is no binding for this qualifier. "
+            + "Please use the bind methods of EasyDI with a 'Key' to define what should be used for the qualifier."),
+
+        OPTIONAL_WITHOUT_TYPE("There is a java.util.Optional without a type parameter declared as dependency. "
+            + "When using java.util.Optional as dependency "
+            + "you need to define a type parameter for this optional!");
+
+        final String message;
+
+        Problem(String message) {
+            this.message = message;
+        }
+    }
+
+    /**
+     * The ways a constructor parameter can be bound.
+     */
+    enum Kind {
+        /**
+         * An instance of the type is injected.
+         */
+        INSTANCE,
+
+        /**
+         * A {@link jakarta.inject.Provider} for the type is injected.
+         */
+        PROVIDER,
+
+        /**
+         * A {@link java.util.Optional} is injected that contains an instance of the type
+         * or is empty if the type can't be resolved.
+         */
+        OPTIONAL,
+
+        /**
+         * A {@link java.util.Set} of all implementations that are bound with {@link EasyDI#bindIntoSet(Class, Class)}.
+         */
+        SET,
+
+        /**
+         * A {@link java.util.List} of all implementations that are bound with {@link EasyDI#bindIntoSet(Class, Class)}
+         * in the order of binding.
+         */
+        LIST,
+
+        /**
+         * A {@link java.util.Map} of all implementations that are bound with
+         * {@link EasyDI#bindIntoMap(Class, String, Class)} by their names.
+         */
+        MAP,
+
+        /**
+         * A {@link Pool} of instances of the type that are borrowed when they are needed.
+         */
+        POOL;
+
+        /**
+         * @return {@code true} if the type is only resolved when an instance is actually needed, so that it
+         * isn't linked together with the plan.
+         */
+        boolean resolvedLazily() {
+            return this == PROVIDER || this == POOL;
+        }
+    }
+
+    /**
+     * The identity of a multibinding: the kind of collection and the type of its elements.
+     */
+    record Multibinding(Kind kind, Class<?> elementType) {
+
+        Class<?> collectionType() {
+            return switch (kind) {
+                case SET -> java.util.Set.class;
+                case LIST -> java.util.List.class;
+                case MAP -> java.util.Map.class;
+                default -> throw new IllegalStateException("No multibinding: " + kind);
+            };
+        }
+
+        @Override
+        public String toString() {
+            return kind == Kind.MAP
+                ? collectionType().getName() + "<java.lang.String, " + elementType.getName() + ">"
+                : collectionType().getName() + "<" + elementType.getName() + ">";
+        }
+    }
+
+    /**
+     * The binding of a single constructor parameter.
+     */
+    static final class Dependency {
+
+        /**
+         * The class type that is requested for this parameter.
+         * For {@link jakarta.inject.Provider} and {@link java.util.Optional} parameters this is the type argument.
+         */
+        final Class<?> type;
+
+        /**
+         * How the parameter is bound to {@link #type}.
+         */
+        final Kind kind;
+
+        /**
+         * The key of a parameter with a qualifier annotation or {@code null} if the parameter has no qualifier.
+         */
+        final Key<?> key;
+
+        /**
+         * What is requested for this parameter: the {@link #key} for qualified parameters, the {@link Multibinding}
+         * for collections of all bound implementations and the {@link #type} otherwise.
+         */
+        final Object requested;
+
+        /**
+         * The plan for {@link #type}. It is set when the plan is linked and stays {@code null}
+         * for {@link jakarta.inject.Provider} and {@link Pool} parameters as they are resolved lazily.
+         */
+        ResolutionPlan<?> plan;
+
+        /**
+         * The container that provides instances of {@link #plan} when it isn't the container of this plan,
+         * i.e. the parent of a child container that shares its plan. {@code null} otherwise.
+         */
+        EasyDI container;
+
+        Dependency(Class<?> type, Kind kind) {
+            this(type, kind, null);
+        }
+
+        Dependency(Class<?> type, Kind kind, Key<?> key) {
+            this.type = type;
+            this.kind = kind;
+            this.key = key;
+
+            if (key != null) {
+                this.requested = key;
+            } else if (kind == Kind.SET || kind == Kind.LIST || kind == Kind.MAP) {
+                this.requested = new Multibinding(kind, type);
+            } else {
+                this.requested = type;
+            }
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package eu.lestard.easydi;
+
+import java.util.Arrays;
+
+/**
+ * The types whose instances are currently requested from EasyDI by a single thread.
+ * The entries are always the ids of the requested plans (see {@link ResolutionPlan#id}), so qualified bindings
+ * and multibindings of the same class are different entries. This is true for single requests, bulk requests and
+ * the linking of plans alike.
+ * <p>
+ * Cycles between constructor parameters are already found when the resolution plans are linked.
+ * This stack is only needed for requests that re-enter EasyDI while an instance is created, i.e. a constructor
+ * or provider that calls {@link EasyDI#getInstance(Class)} or an injected {@link jakarta.inject.Provider}.
+ * Only these requests are pushed onto the stack, not every type of the dependency graph.
+ * <p>
+ * The stack is empty again when the outermost request is finished, so nothing is kept for the types.
+ */
+final class ResolutionStack {
+
+    private Object[] types = new Object[8];
+
+    private int size;
+
+    /**
+     * The path of the asynchronous request whose constructor or provider is called by the thread at the moment or
+     * {@code null}.
+     */
+    EasyDI.AsyncPath asyncPath;
+
+    /**
+     * Push the given type onto the stack.
+     *
+     * @return {@code false} if the type is already on the stack. This means a cyclic dependency. In this case
+     * the type is not pushed.
+     */
+    boolean push(Object type) {
+        if (contains(type)) {
+            return false;
+        }
+
+        if (size == types.length) {
+            types = Arrays.copyOf(types, size * 2);
+        }
+
+        types[size++] = type;
+        return true;
+    }
+
+    /**
+     * Remove the type that was pushed last.
+     */
+    void pop() {
+        types[--size] = null;
+    }
+
+    /**
+     * @return {@code true} if the given type is on the stack.
+     */
+    boolean contains(Object type) {
+        for (int i = 0; i < size; i++) {
+            if (types[i] == type) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * @return all types of the stack in the form {@code A -> B -> C}.
+     */
+    String describe() {
+        final StringBuilder path = new StringBuilder();
+
+        for (int i = 0; i < size; i++) {
+            if (i > 0) {
+                path.append(" -> ");
+            }
+            path.append(nameOf(types[i]));
+        }
+
+        return path.toString();
+    }
+
+    /**
+     * @return the cycle that ends with the given type in the form {@code A -> B -> A}.
+     */
+    String describeCycle(Object type) {
+        final StringBuilder cycle = new StringBuilder();
+        boolean inCycle = false;
+
+        for (int i = 0; i < size; i++) {
+            inCycle = inCycle || types[i] == type;
+
+            if (inCycle) {
+                cycle.append(nameOf(types[i])).append(" -> ");
+            }
+        }
+
+        return cycle.append(nameOf(type)).toString();
+    }
+
+    private static String nameOf(Object type) {
+        return type instanceof Class<?> classType ? classType.getName() : type.toString();
+    }
+}
@@ -0,0 +1,25 @@
+package eu.lestard.easydi;
+
+import jakarta.inject.Provider;
+
+/**
+ * A scope defines how long an instance is shared between the injection points of its type.
+ * <p>
+ * A scope is bound to a scope annotation (an annotation that is annotated with {@link jakarta.inject.Scope})
+ * with {@link EasyDI#bindScope(Class, Scope)}. All classes that are annotated with this annotation are then
+ * managed by the scope. See {@link RequestScope} for a scope that shares instances during a request.
+ */
+public interface Scope {
+
+    /**
+     * Get the instance of the given type for the scope that is currently active.
+     * <p>
+     * When there is no instance of the type in the current scope yet, it is created with the given provider.
+     *
+     * @param type             the class type of the instance.
+     * @param unscopedProvider the provider that creates a new instance of the type.
+     * @param <T>              the generic type of the class.
+     * @return the instance of the current scope.
+     */
+    <T> T get(Class<T> type, Provider<T> unscopedProvider);
+}
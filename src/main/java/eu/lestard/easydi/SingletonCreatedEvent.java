@@ -0,0 +1,31 @@
+package eu.lestard.easydi;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * A Java Flight Recorder event for the creation of a singleton.
+ * <p>
+ * The duration of the event includes the creation of all constructor parameters of the singleton.
+ */
+@Name("EasyDI.SingletonCreated")
+@Label("Singleton Created")
+@Category("EasyDI")
+@Description("A singleton was created")
+final class SingletonCreatedEvent extends Event {
+
+    @Label("Type")
+    @Description("The class type of the instance")
+    Class<?> type;
+
+    @Label("Parent Type")
+    @Description("The class type whose constructor parameter is created or null for requests from outside of the dependency graph")
+    Class<?> parentType;
+
+    @Label("Depth")
+    @Description("The depth in the dependency graph, 0 for requests from outside of the dependency graph")
+    int depth;
+}
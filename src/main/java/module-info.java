@@ -1,4 +1,5 @@
 module eu.lestard.easydi {
     requires jakarta.inject;
+    requires static jdk.jfr;
     exports eu.lestard.easydi;
 }
@@ -0,0 +1,245 @@
+package eu.lestard.easydi;
+
+
+import jakarta.inject.Singleton;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@DisplayName("Asynchronous instantiation")
+class AsyncTest {
+
+    public static class RemoteConfig {
+    }
+
+    public static class Cache {
+    }
+
+    public static class Service {
+        final RemoteConfig config;
+        final Cache cache;
+
+        public Service(RemoteConfig config, Cache cache) {
+            this.config = config;
+            this.cache = cache;
+        }
+    }
+
+    @Singleton
+    public static class SingletonDependency {
+        static final AtomicInteger INSTANCES = new AtomicInteger();
+
+        public SingletonDependency() {
+            INSTANCES.incrementAndGet();
+        }
+    }
+
+    public static class First {
+        public First(SingletonDependency dependency) {
+        }
+    }
+
+    public static class Second {
+        public Second(SingletonDependency dependency, First first) {
+        }
+    }
+
+    @RequestScoped
+    public static class RequestContext {
+    }
+
+    public static class Handler {
+        final RequestContext context;
+        final RemoteConfig config;
+
+        public Handler(RequestContext context, RemoteConfig config) {
+            this.context = context;
+            this.config = config;
+        }
+    }
+
+    @Singleton
+    public static class ReenteredSingleton {
+        public ReenteredSingleton(ProvidedDependency dependency) {
+        }
+    }
+
+    public static class ProvidedDependency {
+    }
+
+    public static class SingletonUser {
+        public SingletonUser(ReenteredSingleton singleton) {
+        }
+    }
+
+    public interface Missing {
+    }
+
+    public static class MissingDependency {
+        public MissingDependency(Missing missing) {
+        }
+    }
+
+    private EasyDI easyDI;
+
+    @BeforeEach
+    void setup() {
+        easyDI = new EasyDI();
+    }
+
+    @Test
+    @DisplayName("independent providers are called concurrently")
+    void success_concurrentProviders() throws Exception {
+        // each provider waits until the other one was called, so sequential calls would time out.
+        final CountDownLatch bothCalled = new CountDownLatch(2);
+
+        easyDI.bindProvider(RemoteConfig.class, () -> {
+            awaitOther(bothCalled);
+            return new RemoteConfig();
+        });
+        easyDI.bindProvider(Cache.class, () -> {
+            awaitOther(bothCalled);
+            return new Cache();
+        });
+
+        final ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            final Service service = easyDI.getInstanceAsync(Service.class, executor).get(5, TimeUnit.SECONDS);
+
+            assertThat(service.config).isNotNull();
+            assertThat(service.cache).isNotNull();
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("the default executor calls providers concurrently too")
+    void success_defaultExecutor() throws Exception {
+        final CountDownLatch bothCalled = new CountDownLatch(2);
+
+        easyDI.bindProvider(RemoteConfig.class, () -> {
+            awaitOther(bothCalled);
+            return new RemoteConfig();
+        });
+        easyDI.bindProvider(Cache.class, () -> {
+            awaitOther(bothCalled);
+            return new Cache();
+        });
+
+        assertThat(easyDI.getInstanceAsync(Service.class).get(5, TimeUnit.SECONDS)).isNotNull();
+    }
+
+    @Test
+    @DisplayName("singletons are created only once and shared with synchronous requests")
+    void success_singletons() throws Exception {
+        SingletonDependency.INSTANCES.set(0);
+
+        final CompletableFuture<Second> second = easyDI.getInstanceAsync(Second.class);
+        final CompletableFuture<First> first = easyDI.getInstanceAsync(First.class);
+
+        assertThat(second.get(5, TimeUnit.SECONDS)).isNotNull();
+        assertThat(first.get(5, TimeUnit.SECONDS)).isNotNull();
+        assertThat(SingletonDependency.INSTANCES.get()).isEqualTo(1);
+        assertThat(easyDI.getInstanceAsync(SingletonDependency.class).get())
+            .isSameAs(easyDI.getInstance(SingletonDependency.class));
+    }
+
+    @Test
+    @DisplayName("scoped types are created with the scope of the calling thread")
+    void success_requestScope() throws Exception {
+        final RequestScope requestScope = new RequestScope();
+        easyDI.bindScope(RequestScoped.class, requestScope);
+        easyDI.bindProvider(RemoteConfig.class, RemoteConfig::new);
+
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            requestScope.run(() -> {
+                try {
+                    final Handler handler = easyDI.getInstanceAsync(Handler.class, executor).get(5, TimeUnit.SECONDS);
+
+                    assertThat(handler.context).isSameAs(easyDI.getInstance(RequestContext.class));
+                    assertThat(handler.config).isNotNull();
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                }
+            });
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("a type that can't be resolved completes the future exceptionally")
+    void fail_unresolvable() {
+        final CompletableFuture<MissingDependency> future = easyDI.getInstanceAsync(MissingDependency.class);
+
+        ExecutionException exception = assertThrows(ExecutionException.class, future::get);
+
+        assertThat(exception.getCause()).isInstanceOf(IllegalStateException.class);
+        assertThat(exception).hasStackTraceContaining(Missing.class.getName());
+    }
+
+    @Test
+    @DisplayName("a singleton that is requested again by a provider of its own creation is a cyclic dependency")
+    void fail_cyclicDependencies_reentrantSingleton() {
+        easyDI.bindProvider(ProvidedDependency.class, () -> {
+            easyDI.getInstance(ReenteredSingleton.class);
+            return new ProvidedDependency();
+        });
+
+        ExecutionException exception = assertThrows(ExecutionException.class,
+            () -> easyDI.getInstanceAsync(ReenteredSingleton.class).get(5, TimeUnit.SECONDS));
+        assertThat(exception).hasStackTraceContaining("A cyclic dependency was detected");
+
+        // the singleton is requested as constructor parameter of another type
+        final EasyDI indirect = new EasyDI();
+        indirect.bindProvider(ProvidedDependency.class, () -> {
+            indirect.getInstance(SingletonUser.class);
+            return new ProvidedDependency();
+        });
+
+        exception = assertThrows(ExecutionException.class,
+            () -> indirect.getInstanceAsync(SingletonUser.class).get(5, TimeUnit.SECONDS));
+        assertThat(exception).hasStackTraceContaining("A cyclic dependency was detected");
+    }
+
+    @Test
+    @DisplayName("an exception of a provider completes the future exceptionally")
+    void fail_provider() {
+        easyDI.bindProvider(RemoteConfig.class, () -> {
+            throw new IllegalStateException("unreachable");
+        });
+        easyDI.bindProvider(Cache.class, Cache::new);
+
+        ExecutionException exception = assertThrows(ExecutionException.class,
+            () -> easyDI.getInstanceAsync(Service.class).get(5, TimeUnit.SECONDS));
+
+        assertThat(exception.getCause()).isInstanceOf(IllegalStateException.class);
+        assertThat(exception).hasStackTraceContaining("An Exception was thrown by the provider");
+        assertThat(exception).hasStackTraceContaining("unreachable");
+    }
+
+    private static void awaitOther(CountDownLatch latch) {
+        latch.countDown();
+        try {
+            if (!latch.await(2, TimeUnit.SECONDS)) {
+                throw new IllegalStateException("The providers weren't called concurrently.");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
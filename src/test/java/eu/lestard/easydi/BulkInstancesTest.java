@@ -0,0 +1,127 @@
+package eu.lestard.easydi;
+
+
+import jakarta.inject.Provider;
+import jakarta.inject.Singleton;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@DisplayName("Bulk instance creation")
+class BulkInstancesTest {
+
+    @Singleton
+    public static class Config {
+    }
+
+    public static class Buffer {
+    }
+
+    public static class Worker {
+        final Config config;
+        final Buffer buffer;
+        final Provider<Buffer> bufferProvider;
+
+        public Worker(Config config, Buffer buffer, Provider<Buffer> bufferProvider) {
+            this.config = config;
+            this.buffer = buffer;
+            this.bufferProvider = bufferProvider;
+        }
+    }
+
+    public interface Missing {
+    }
+
+    public static class Broken {
+        public Broken(Missing missing) {
+        }
+    }
+
+    public interface Task {
+    }
+
+    public static class RecursiveTask implements Task {
+        static final AtomicInteger constructions = new AtomicInteger();
+
+        public RecursiveTask(Provider<Task> tasks) {
+            constructions.incrementAndGet();
+            tasks.get();
+        }
+    }
+
+    private EasyDI easyDI;
+
+    @BeforeEach
+    void setup() {
+        easyDI = new EasyDI();
+    }
+
+    @Test
+    @DisplayName("the given number of prototypes is created with shared singleton dependencies")
+    void success_getInstances() {
+        final List<Worker> workers = easyDI.getInstances(Worker.class, 3);
+
+        assertThat(workers).hasSize(3);
+        assertThat(workers.get(0)).isNotSameAs(workers.get(1));
+        assertThat(workers.get(0).config).isSameAs(workers.get(2).config);
+        assertThat(workers.get(0).config).isSameAs(easyDI.getInstance(Config.class));
+        assertThat(workers.get(0).buffer).isNotSameAs(workers.get(1).buffer);
+        assertThat(workers.get(1).bufferProvider.get()).isInstanceOf(Buffer.class);
+    }
+
+    @Test
+    @DisplayName("singletons are returned multiple times")
+    void success_singleton() {
+        final List<Config> configs = easyDI.getInstances(Config.class, 2);
+
+        assertThat(configs.get(0)).isSameAs(configs.get(1));
+    }
+
+    @Test
+    @DisplayName("streams create instances on demand, also in parallel")
+    void success_stream() {
+        assertThat(easyDI.instances(Worker.class).limit(5).collect(Collectors.toList())).hasSize(5);
+
+        final Set<Worker> workers = easyDI.instances(Worker.class).parallel().limit(100).collect(Collectors.toSet());
+        assertThat(workers).hasSize(100);
+    }
+
+    @Test
+    @DisplayName("no instances are created for a count of zero")
+    void success_zero() {
+        assertThat(easyDI.getInstances(Broken.class, 0)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("unresolvable types and negative counts are errors")
+    void fail() {
+        IllegalStateException exception = assertThrows(IllegalStateException.class, () -> {
+            easyDI.getInstances(Broken.class, 2);
+        });
+        assertThat(exception).hasStackTraceContaining(Missing.class.getName());
+
+        assertThrows(IllegalStateException.class, () -> easyDI.instances(Broken.class));
+        assertThrows(IllegalArgumentException.class, () -> easyDI.getInstances(Worker.class, -1));
+    }
+
+    @Test
+    @DisplayName("a cycle is detected when the bulk requested type is requested again by its constructor")
+    void fail_cyclicDependency() {
+        easyDI.bindInterface(Task.class, RecursiveTask.class);
+        RecursiveTask.constructions.set(0);
+
+        assertThrows(IllegalStateException.class, () -> easyDI.instances(Task.class).findFirst());
+        assertThrows(IllegalStateException.class, () -> easyDI.getInstances(Task.class, 1));
+
+        // both requests push the implementing class, so the cycle is found by the first nested request.
+        assertThat(RecursiveTask.constructions.get()).isEqualTo(2);
+    }
+}
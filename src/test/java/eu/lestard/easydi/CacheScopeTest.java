@@ -0,0 +1,142 @@
+package eu.lestard.easydi;
+
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@DisplayName("Cache scope")
+class CacheScopeTest {
+
+    @Cached
+    public static class Parser implements AutoCloseable {
+        boolean closed;
+
+        @Override
+        public void close() {
+            closed = true;
+        }
+    }
+
+    @Cached
+    public static class TenantClient {
+    }
+
+    @Cached
+    public static class Dictionary {
+    }
+
+    public static class ParserUser {
+        final Parser parser;
+
+        public ParserUser(Parser parser) {
+            this.parser = parser;
+        }
+    }
+
+    private EasyDI easyDI;
+
+    private final AtomicLong clock = new AtomicLong();
+
+    private final List<Object> disposed = new ArrayList<>();
+
+    private CacheScope cacheScope;
+
+    @BeforeEach
+    void setup() {
+        easyDI = new EasyDI();
+        cacheScope = new CacheScope(2, Duration.ofSeconds(10), disposed::add, clock::get);
+        easyDI.bindScope(Cached.class, cacheScope);
+    }
+
+    @Test
+    @DisplayName("instances are cached and counted as hits and misses")
+    void success_cached() {
+        final Parser parser = easyDI.getInstance(Parser.class);
+
+        assertThat(easyDI.getInstance(ParserUser.class).parser).isSameAs(parser);
+        assertThat(cacheScope.hits()).isEqualTo(1L);
+        assertThat(cacheScope.misses()).isEqualTo(1L);
+        assertThat(cacheScope.size()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("the least recently used instance is evicted and disposed when the cache is full")
+    void success_sizeEviction() {
+        final Parser parser = easyDI.getInstance(Parser.class);
+        clock.set(1);
+        final TenantClient client = easyDI.getInstance(TenantClient.class);
+        clock.set(2);
+        easyDI.getInstance(Parser.class);
+
+        clock.set(3);
+        easyDI.getInstance(Dictionary.class);
+
+        assertThat(disposed).isEqualTo(List.of(client));
+        assertThat(cacheScope.size()).isEqualTo(2);
+        assertThat(cacheScope.evictions()).isEqualTo(1L);
+        assertThat(easyDI.getInstance(Parser.class)).isSameAs(parser);
+        assertThat(easyDI.getInstance(TenantClient.class)).isNotSameAs(client);
+    }
+
+    @Test
+    @DisplayName("instances of the same class are cached per key and count towards the size")
+    void success_keyedInstances() {
+        final TenantClient first = cacheScope.get(TenantClient.class, "first", TenantClient::new);
+        final TenantClient second = cacheScope.get(TenantClient.class, "second", TenantClient::new);
+
+        assertThat(first).isNotSameAs(second);
+        assertThat(cacheScope.get(TenantClient.class, "first", TenantClient::new)).isSameAs(first);
+        assertThat(cacheScope.size()).isEqualTo(2);
+
+        clock.set(1);
+        final TenantClient scoped = easyDI.getInstance(TenantClient.class);
+
+        assertThat(scoped).isNotSameAs(first).isNotSameAs(second);
+        assertThat(disposed).isEqualTo(List.of(second));
+
+        cacheScope.invalidate(TenantClient.class, "first");
+
+        assertThat(disposed).isEqualTo(List.of(second, first));
+        assertThat(easyDI.getInstance(TenantClient.class)).isSameAs(scoped);
+    }
+
+    @Test
+    @DisplayName("instances are evicted when they are expired")
+    void success_expiry() {
+        final Parser parser = easyDI.getInstance(Parser.class);
+
+        clock.set(Duration.ofSeconds(10).toNanos());
+
+        assertThat(easyDI.getInstance(Parser.class)).isNotSameAs(parser);
+        assertThat(disposed).isEqualTo(List.of(parser));
+    }
+
+    @Test
+    @DisplayName("AutoCloseable instances are closed by default")
+    void success_defaultDisposer() {
+        final CacheScope closingScope = new CacheScope(1);
+        easyDI.bindScope(Cached.class, closingScope);
+
+        final Parser parser = easyDI.getInstance(Parser.class);
+        closingScope.invalidateAll();
+
+        assertThat(parser.closed).isTrue();
+        assertThat(closingScope.size()).isEqualTo(0);
+    }
+
+    @Test
+    @DisplayName("the size has to be positive and the expiry must not be negative")
+    void fail_configuration() {
+        assertThrows(IllegalArgumentException.class, () -> new CacheScope(0));
+        assertThrows(IllegalArgumentException.class, () -> new CacheScope(1, Duration.ofSeconds(-1)));
+    }
+}
@@ -0,0 +1,180 @@
+package eu.lestard.easydi;
+
+
+import jakarta.inject.Singleton;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@DisplayName("Child containers")
+class ChildContainerTest {
+
+    public static class User {
+        final String name;
+
+        public User(String name) {
+            this.name = name;
+        }
+    }
+
+    @Singleton
+    public static class Database {
+    }
+
+    public static class RequestHandler {
+        final User user;
+        final Database database;
+
+        public RequestHandler(User user, Database database) {
+            this.user = user;
+            this.database = database;
+        }
+    }
+
+    @Singleton
+    public static class UserCache {
+        final User user;
+
+        public UserCache(User user) {
+            this.user = user;
+        }
+    }
+
+    public static class Independent {
+        final Database database;
+
+        public Independent(Database database) {
+            this.database = database;
+        }
+    }
+
+    public interface Greeter {
+    }
+
+    public static class DefaultGreeter implements Greeter {
+    }
+
+    public static class OtherGreeter implements Greeter {
+    }
+
+    public static class OptionalUser {
+        final Optional<User> user;
+
+        public OptionalUser(Optional<User> user) {
+            this.user = user;
+        }
+    }
+
+    private EasyDI easyDI;
+
+    @BeforeEach
+    void setup() {
+        easyDI = new EasyDI();
+        easyDI.bindInstance(User.class, new User("default"));
+    }
+
+    @Test
+    @DisplayName("a child uses the bindings of its parent")
+    void success_fallbackToParent() {
+        easyDI.bindInterface(Greeter.class, DefaultGreeter.class);
+
+        try (EasyDI child = easyDI.createChild()) {
+            assertThat(child.getInstance(Greeter.class)).isInstanceOf(DefaultGreeter.class);
+            assertThat(child.getInstance(RequestHandler.class).user.name).isEqualTo("default");
+        }
+    }
+
+    @Test
+    @DisplayName("the overrides of a child are used for the child only")
+    void success_override() {
+        try (EasyDI child = easyDI.createChild()) {
+            child.bindInstance(User.class, new User("alice"));
+            child.bindInterface(Greeter.class, OtherGreeter.class);
+
+            assertThat(child.getInstance(RequestHandler.class).user.name).isEqualTo("alice");
+            assertThat(child.getInstance(Greeter.class)).isInstanceOf(OtherGreeter.class);
+        }
+
+        assertThat(easyDI.getInstance(RequestHandler.class).user.name).isEqualTo("default");
+        assertThrows(IllegalStateException.class, () -> easyDI.getInstance(Greeter.class));
+    }
+
+    @Test
+    @DisplayName("singletons that don't depend on overrides are shared with the parent")
+    void success_sharedSingletons() {
+        final Database database = easyDI.getInstance(Database.class);
+
+        try (EasyDI child = easyDI.createChild()) {
+            child.bindInstance(User.class, new User("alice"));
+
+            assertThat(child.getInstance(Database.class)).isSameAs(database);
+            assertThat(child.getInstance(RequestHandler.class).database).isSameAs(database);
+            assertThat(child.getInstance(Independent.class).database).isSameAs(database);
+        }
+
+        assertThat(easyDI.getInstance(Database.class)).isSameAs(database);
+    }
+
+    @Test
+    @DisplayName("singletons that depend on overrides belong to the child and are released on close")
+    void success_childSingletons() {
+        final UserCache parentCache = easyDI.getInstance(UserCache.class);
+
+        final EasyDI child = easyDI.createChild();
+        child.bindInstance(User.class, new User("alice"));
+
+        final UserCache childCache = child.getInstance(UserCache.class);
+        assertThat(childCache.user.name).isEqualTo("alice");
+        assertThat(child.getInstance(UserCache.class)).isSameAs(childCache);
+
+        child.close();
+
+        assertThat(easyDI.getInstance(UserCache.class)).isSameAs(parentCache);
+        assertThrows(IllegalStateException.class, () -> child.getInstance(UserCache.class));
+    }
+
+    @Test
+    @DisplayName("optional parameters can be provided by a child")
+    void success_optionalInChild() {
+        final EasyDI parent = new EasyDI();
+
+        try (EasyDI child = parent.createChild()) {
+            child.bindInstance(User.class, new User("alice"));
+
+            assertThat(parent.getInstance(OptionalUser.class).user).isEmpty();
+            assertThat(child.getInstance(OptionalUser.class).user.get().name).isEqualTo("alice");
+        }
+    }
+
+    @Test
+    @DisplayName("children of children fall back to all ancestors")
+    void success_grandchild() {
+        final Database database = easyDI.getInstance(Database.class);
+
+        try (EasyDI child = easyDI.createChild(); EasyDI grandchild = child.createChild()) {
+            child.bindInstance(User.class, new User("alice"));
+
+            final RequestHandler handler = grandchild.getInstance(RequestHandler.class);
+            assertThat(handler.user.name).isEqualTo("alice");
+            assertThat(handler.database).isSameAs(database);
+            assertThat(grandchild.getInstance(UserCache.class)).isSameAs(child.getInstance(UserCache.class));
+        }
+    }
+
+    @Test
+    @DisplayName("changes of the parent configuration are visible to existing children")
+    void success_parentChanged() {
+        try (EasyDI child = easyDI.createChild()) {
+            assertThat(child.getInstance(RequestHandler.class).user.name).isEqualTo("default");
+
+            easyDI.bindInstance(User.class, new User("bob"));
+
+            assertThat(child.getInstance(RequestHandler.class).user.name).isEqualTo("bob");
+        }
+    }
+}
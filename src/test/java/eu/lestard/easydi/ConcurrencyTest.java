@@ -0,0 +1,103 @@
+package eu.lestard.easydi;
+
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import jakarta.inject.Singleton;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("Concurrent usage")
+class ConcurrencyTest {
+
+    private static final int THREADS = 8;
+
+    @Singleton
+    public static class SlowSingleton {
+        static final AtomicInteger counter = new AtomicInteger(0);
+
+        public SlowSingleton() throws InterruptedException {
+            counter.incrementAndGet();
+            Thread.sleep(50);
+        }
+    }
+
+    public static class Prototype {
+        final SlowSingleton singleton;
+
+        public Prototype(SlowSingleton singleton) throws InterruptedException {
+            this.singleton = singleton;
+            Thread.sleep(5);
+        }
+    }
+
+    private EasyDI easyDI;
+
+    private ExecutorService executor;
+
+    @BeforeEach
+    void setup() {
+        easyDI = new EasyDI();
+        executor = Executors.newFixedThreadPool(THREADS);
+        SlowSingleton.counter.set(0);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("a singleton is created exactly once when requested by many threads at once")
+    void success_singletonCreatedOnce() throws Exception {
+        final List<Object> instances = requestConcurrently(SlowSingleton.class);
+
+        assertThat(SlowSingleton.counter.get()).isEqualTo(1);
+        for (Object instance : instances) {
+            assertThat(instance).isSameAs(instances.get(0));
+        }
+    }
+
+    @Test
+    @DisplayName("the same prototype can be requested by many threads at once")
+    void success_prototypeInParallel() throws Exception {
+        final List<Object> instances = requestConcurrently(Prototype.class);
+
+        assertThat(SlowSingleton.counter.get()).isEqualTo(1);
+        assertThat(instances).doesNotHaveDuplicates();
+        for (Object instance : instances) {
+            assertThat(((Prototype) instance).singleton).isSameAs(((Prototype) instances.get(0)).singleton);
+        }
+    }
+
+    private List<Object> requestConcurrently(Class<?> type) throws Exception {
+        final CountDownLatch start = new CountDownLatch(1);
+
+        final List<Future<Object>> futures = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            futures.add(executor.submit((Callable<Object>) () -> {
+                start.await();
+                return easyDI.getInstance(type);
+            }));
+        }
+
+        start.countDown();
+
+        final List<Object> instances = new ArrayList<>();
+        for (Future<Object> future : futures) {
+            instances.add(future.get());
+        }
+        return instances;
+    }
+}
@@ -5,6 +5,8 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
+import jakarta.inject.Singleton;
+
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
@@ -26,6 +28,43 @@ class CyclicDependenciesTest {
         }
     }
 
+    public static class FailsOnce {
+        static boolean failed = false;
+
+        public FailsOnce() {
+            if (!failed) {
+                failed = true;
+                throw new IllegalStateException("first try fails");
+            }
+        }
+    }
+
+    public static class Reentrant {
+        public Reentrant(EasyDI context) {
+            context.getInstance(ReentrantDependency.class);
+        }
+    }
+
+    public static class ReentrantDependency {
+        public ReentrantDependency(EasyDI context) {
+            context.getInstance(Reentrant.class);
+        }
+    }
+
+    public static class SingletonUser {
+        public SingletonUser(ReenteredSingleton singleton) {
+        }
+    }
+
+    @Singleton
+    public static class ReenteredSingleton {
+        public ReenteredSingleton(ProvidedDependency dependency) {
+        }
+    }
+
+    public static class ProvidedDependency {
+    }
+
     private EasyDI easyDI;
 
     @BeforeEach
@@ -42,4 +81,57 @@ class CyclicDependenciesTest {
 
         assertThat(exception).hasStackTraceContaining("cyclic dependency was detected");
     }
+
+    @Test
+    @DisplayName("the full path of the cycle is reported")
+    void fail_cyclicDependencies_path() {
+        IllegalStateException exception = assertThrows(IllegalStateException.class, () -> {
+            easyDI.getInstance(DepOne.class);
+        });
+
+        assertThat(exception).hasStackTraceContaining("cyclic dependency was detected: "
+            + DepOne.class.getName() + " -> " + DepTwo.class.getName() + " -> "
+            + Root.class.getName() + " -> " + DepOne.class.getName());
+    }
+
+    @Test
+    @DisplayName("a cycle of constructors that request instances from the context is found")
+    void fail_cyclicDependencies_reentrant() {
+        easyDI.bindInstance(EasyDI.class, easyDI);
+
+        IllegalStateException exception = assertThrows(IllegalStateException.class, () -> {
+            easyDI.getInstance(Reentrant.class);
+        });
+
+        assertThat(exception).hasStackTraceContaining("cyclic dependency was detected: "
+            + Reentrant.class.getName() + " -> " + ReentrantDependency.class.getName() + " -> "
+            + Reentrant.class.getName());
+    }
+
+    @Test
+    @DisplayName("a failed instantiation isn't reported as cycle when the type is requested again")
+    void success_noCycleAfterFailure() {
+        FailsOnce.failed = false;
+
+        assertThrows(IllegalStateException.class, () -> {
+            easyDI.getInstance(FailsOnce.class);
+        });
+
+        assertThat(easyDI.getInstance(FailsOnce.class)).isNotNull();
+    }
+
+    @Test
+    @DisplayName("a singleton that is requested again by a provider of its own dependency is reported as cycle")
+    void fail_cyclicDependencies_reentrantSingleton() {
+        easyDI.bindProvider(ProvidedDependency.class, () -> {
+            easyDI.getInstance(ReenteredSingleton.class);
+            return new ProvidedDependency();
+        });
+
+        IllegalStateException exception = assertThrows(IllegalStateException.class, () -> {
+            easyDI.getInstance(SingletonUser.class);
+        });
+
+        assertThat(exception).hasStackTraceContaining("cyclic dependency was detected");
+    }
 }
@@ -0,0 +1,160 @@
+package eu.lestard.easydi;
+
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import jakarta.inject.Named;
+import jakarta.inject.Provider;
+import jakarta.inject.Singleton;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@DisplayName("Eager initialization of singletons")
+class EagerSingletonsTest {
+
+    static final List<Class<?>> creationOrder = new CopyOnWriteArrayList<>();
+
+    static CountDownLatch bothStarted;
+
+    static volatile boolean createdConcurrently;
+
+    @Singleton
+    public static class SlowA {
+        public SlowA() throws InterruptedException {
+            bothStarted.countDown();
+            createdConcurrently = bothStarted.await(5, TimeUnit.SECONDS);
+            creationOrder.add(SlowA.class);
+        }
+    }
+
+    @Singleton
+    public static class SlowB {
+        public SlowB() throws InterruptedException {
+            bothStarted.countDown();
+            createdConcurrently = bothStarted.await(5, TimeUnit.SECONDS);
+            creationOrder.add(SlowB.class);
+        }
+    }
+
+    public static class Prototype {
+        public Prototype(SlowB b) {
+        }
+    }
+
+    @Singleton
+    public static class Top {
+        public Top(SlowA a, Prototype prototype) {
+            creationOrder.add(Top.class);
+        }
+    }
+
+    public static class Root {
+        public Root(Top top, Provider<Lazy> lazy) {
+        }
+    }
+
+    @Singleton
+    public static class Lazy {
+        public Lazy() {
+            creationOrder.add(Lazy.class);
+        }
+    }
+
+    public static class Marked {
+        public Marked() {
+            creationOrder.add(Marked.class);
+        }
+    }
+
+    @Singleton
+    public static class Failing {
+        public Failing() {
+            throw new IllegalStateException("Too bad :-(");
+        }
+    }
+
+    @Singleton
+    public static class Connection {
+        public Connection() {
+        }
+
+        public Connection(String url) {
+            creationOrder.add(Connection.class);
+        }
+    }
+
+    public static class Repository {
+        final Connection connection;
+
+        public Repository(@Named("primary") Connection connection) {
+            this.connection = connection;
+        }
+    }
+
+    private EasyDI easyDI;
+
+    private ExecutorService executor;
+
+    @BeforeEach
+    void setup() {
+        easyDI = new EasyDI();
+        executor = Executors.newFixedThreadPool(4);
+        creationOrder.clear();
+        bothStarted = new CountDownLatch(2);
+        createdConcurrently = false;
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("independent singletons are created concurrently and before the singletons depending on them")
+    void success_dependencyOrder() throws Exception {
+        easyDI.markAsSingleton(Marked.class);
+
+        easyDI.initializeSingletonsEagerly(executor, Root.class).get(10, TimeUnit.SECONDS);
+
+        assertThat(createdConcurrently).isTrue();
+        assertThat(creationOrder).containsExactlyInAnyOrder(SlowA.class, SlowB.class, Top.class, Lazy.class, Marked.class);
+        assertThat(creationOrder.indexOf(Top.class)).isGreaterThan(creationOrder.indexOf(SlowA.class));
+        assertThat(creationOrder.indexOf(Top.class)).isGreaterThan(creationOrder.indexOf(SlowB.class));
+
+        // the singletons are not created again
+        easyDI.getInstance(Root.class);
+        assertThat(creationOrder).hasSize(5);
+    }
+
+    @Test
+    @DisplayName("qualified singletons are created by their binding")
+    void success_qualifiedSingleton() throws Exception {
+        easyDI.bindProvider(Key.of(Connection.class, "primary"), () -> new Connection("primary"));
+
+        easyDI.initializeSingletonsEagerly(executor, Repository.class).get(10, TimeUnit.SECONDS);
+
+        assertThat(creationOrder).containsExactly(Connection.class);
+        assertThat(easyDI.getInstance(Repository.class).connection)
+            .isSameAs(easyDI.getInstance(Key.of(Connection.class, "primary")));
+        assertThat(creationOrder).hasSize(1);
+    }
+
+    @Test
+    @DisplayName("a failing singleton completes the future exceptionally")
+    void fail_singletonThrowsException() {
+        assertThrows(ExecutionException.class, () -> {
+            easyDI.initializeSingletonsEagerly(executor, Failing.class).get(10, TimeUnit.SECONDS);
+        });
+    }
+}
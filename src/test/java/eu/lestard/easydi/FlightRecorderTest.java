@@ -0,0 +1,84 @@
+package eu.lestard.easydi;
+
+
+import jakarta.inject.Singleton;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedClass;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("Java Flight Recorder events")
+class FlightRecorderTest {
+
+    @Singleton
+    public static class MySingleton {
+    }
+
+    public static class Provided {
+    }
+
+    public static class Example {
+        public Example(MySingleton singleton, Provided provided) {
+        }
+    }
+
+    private EasyDI easyDI;
+
+    @BeforeEach
+    void setup() {
+        easyDI = new EasyDI();
+    }
+
+    private List<RecordedEvent> record(Consumer<EasyDI> action) throws Exception {
+        final Path file = Files.createTempFile("easydi", ".jfr");
+
+        try (Recording recording = new Recording()) {
+            recording.enable("EasyDI.Instantiate");
+            recording.enable("EasyDI.ProviderCall");
+            recording.enable("EasyDI.SingletonCreated");
+            recording.start();
+
+            action.accept(easyDI);
+
+            recording.stop();
+            recording.dump(file);
+
+            return RecordingFile.readAllEvents(file).stream()
+                .filter(event -> event.getEventType().getName().startsWith("EasyDI."))
+                .toList();
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    private static String describe(RecordedEvent event) {
+        final RecordedClass parent = event.getClass("parentType");
+
+        return event.getEventType().getName() + " " + event.getClass("type").getName()
+            + " " + (parent == null ? null : parent.getName()) + " " + event.getInt("depth");
+    }
+
+    @Test
+    @DisplayName("instantiations, provider calls and singletons are recorded with parent and depth")
+    void success_events() throws Exception {
+        easyDI.bindProvider(Provided.class, Provided::new);
+
+        final List<RecordedEvent> events = record(easyDI -> easyDI.getInstance(Example.class));
+
+        assertThat(events.stream().map(FlightRecorderTest::describe).toList()).containsExactlyInAnyOrder(
+            "EasyDI.Instantiate " + MySingleton.class.getName() + " " + Example.class.getName() + " 1",
+            "EasyDI.SingletonCreated " + MySingleton.class.getName() + " " + Example.class.getName() + " 1",
+            "EasyDI.ProviderCall " + Provided.class.getName() + " " + Example.class.getName() + " 1",
+            "EasyDI.Instantiate " + Example.class.getName() + " null 0");
+    }
+}
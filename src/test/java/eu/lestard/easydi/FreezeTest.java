@@ -0,0 +1,93 @@
+package eu.lestard.easydi;
+
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import jakarta.inject.Singleton;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@DisplayName("Freezing the configuration")
+class FreezeTest {
+
+    public interface MyInterface {
+    }
+
+    public static class ExampleOne implements MyInterface {
+    }
+
+    public static class ExampleTwo implements MyInterface {
+    }
+
+    @Singleton
+    public static class MySingleton {
+    }
+
+    private EasyDI easyDI;
+
+    @BeforeEach
+    void setup() {
+        easyDI = new EasyDI();
+    }
+
+    @Test
+    @DisplayName("the frozen injector uses the configuration")
+    void success_frozenConfiguration() {
+        easyDI.bindInterface(MyInterface.class, ExampleOne.class);
+        easyDI.markAsSingleton(ExampleOne.class);
+
+        final Injector injector = easyDI.freeze();
+
+        assertThat(injector.getInstance(MyInterface.class))
+            .isInstanceOf(ExampleOne.class)
+            .isSameAs(injector.getInstance(MyInterface.class));
+    }
+
+    @Test
+    @DisplayName("later changes of the configuration don't affect the frozen injector")
+    void success_laterChangesIgnored() {
+        easyDI.bindInterface(MyInterface.class, ExampleOne.class);
+
+        final Injector injector = easyDI.freeze();
+
+        easyDI.bindInterface(MyInterface.class, ExampleTwo.class);
+
+        assertThat(injector.getInstance(MyInterface.class)).isInstanceOf(ExampleOne.class);
+        assertThat(easyDI.getInstance(MyInterface.class)).isInstanceOf(ExampleTwo.class);
+    }
+
+    @Test
+    @DisplayName("singletons that already exist are shared with the frozen injector")
+    void success_existingSingletonsShared() {
+        final MySingleton singleton = easyDI.getInstance(MySingleton.class);
+
+        final Injector injector = easyDI.freeze();
+
+        assertThat(injector.getInstance(MySingleton.class)).isSameAs(singleton);
+    }
+
+    @Test
+    @DisplayName("singletons that are created after freezing are shared too")
+    void success_laterSingletonsShared() {
+        final Injector injector = easyDI.freeze();
+
+        final MySingleton singleton = injector.getInstance(MySingleton.class);
+
+        assertThat(easyDI.getInstance(MySingleton.class)).isSameAs(singleton);
+    }
+
+    @Test
+    @DisplayName("the frozen injector can't be configured anymore")
+    void fail_configureFrozenInjector() {
+        final EasyDI frozen = (EasyDI) easyDI.freeze();
+
+        IllegalStateException exception = assertThrows(IllegalStateException.class, () -> {
+            frozen.bindInterface(MyInterface.class, ExampleOne.class);
+        });
+
+        assertThat(exception).hasStackTraceContaining("frozen");
+    }
+}
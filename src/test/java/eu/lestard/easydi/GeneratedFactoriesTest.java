@@ -0,0 +1,180 @@
+package eu.lestard.easydi;
+
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import jakarta.inject.Inject;
+import jakarta.inject.Provider;
+import jakarta.inject.Singleton;
+
+import java.lang.annotation.Annotation;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * The test sources are compiled with the EasyDI annotation processor so that factories are generated
+ * for the classes in this test.
+ */
+@DisplayName("Generated factories")
+class GeneratedFactoriesTest {
+
+    public interface Service {
+    }
+
+    @Singleton
+    public static class SingletonService implements Service {
+    }
+
+    public static class Dependency {
+        public Dependency() {
+        }
+    }
+
+    public static class Example {
+        final Service service;
+        final Dependency dependency;
+        final Provider<Dependency> provider;
+
+        public Example() {
+            this(null, null, null);
+        }
+
+        @Inject
+        public Example(Service service, Dependency dependency, Provider<Dependency> provider) {
+            this.service = service;
+            this.dependency = dependency;
+            this.provider = provider;
+        }
+    }
+
+    public static class Failing {
+        public Failing() throws Exception {
+            throw new Exception("Too bad :-(");
+        }
+    }
+
+    public class Inner {
+        public Inner() {
+        }
+    }
+
+    /**
+     * A factory of an outdated index whose constructor doesn't exist anymore.
+     */
+    public static class OutdatedFactory implements GeneratedFactory<Dependency> {
+
+        @Override
+        public Dependency newInstance(Object[] arguments) {
+            throw new IllegalStateException("the outdated factory must not be used");
+        }
+
+        @Override
+        public Class<?>[] parameterTypes() {
+            return new Class<?>[] {String.class};
+        }
+
+        @Override
+        public Class<?>[][] typeArguments() {
+            return new Class<?>[][] {{}};
+        }
+
+        @Override
+        public Object[] qualifiers() {
+            return new Object[] {null};
+        }
+
+        @Override
+        public boolean singleton() {
+            return false;
+        }
+
+        @Override
+        public Class<? extends Annotation> scopeAnnotation() {
+            return null;
+        }
+    }
+
+    @Test
+    @DisplayName("a factory is generated and used for static nested classes")
+    void success_factoryIsUsed() throws Exception {
+        final Instantiator<Example> instantiator = InstantiationStrategy.GENERATED_FACTORIES
+            .createInstantiator(Example.class.getConstructor(Service.class, Dependency.class, Provider.class));
+
+        assertThat(instantiator.getClass().getName())
+            .isEqualTo("eu.lestard.easydi.GeneratedFactoriesTest_Example_EasyDIFactory");
+    }
+
+    @Test
+    @DisplayName("the factory describes the constructor that EasyDI would choose")
+    void success_describedConstructor() throws Exception {
+        final GeneratedFactories generatedFactories = (GeneratedFactories) InstantiationStrategy.GENERATED_FACTORIES;
+
+        final GeneratedFactories.DescribedConstructor<Example> described =
+            generatedFactories.describedConstructorFor(Example.class);
+
+        assertThat(described.constructor())
+            .isEqualTo(Example.class.getConstructor(Service.class, Dependency.class, Provider.class));
+        assertThat(described.factory().typeArguments()[2][0]).isEqualTo(Dependency.class);
+        assertThat(described.factory().singleton()).isFalse();
+        assertThat(generatedFactories.describedConstructorFor(SingletonService.class).factory().singleton()).isTrue();
+    }
+
+    @Test
+    @DisplayName("a factory is only used for the constructor it was generated for")
+    void success_otherConstructor() throws Exception {
+        final Instantiator<Example> instantiator = InstantiationStrategy.GENERATED_FACTORIES
+            .createInstantiator(Example.class.getConstructor());
+
+        assertThat(instantiator.getClass().getName()).doesNotContain("EasyDIFactory");
+        assertThat(GeneratedFactories.describe(Dependency.class, new OutdatedFactory())).isNull();
+    }
+
+    @Test
+    @DisplayName("without a factory the fallback is used")
+    void success_fallbackForInnerClass() throws Exception {
+        final Instantiator<Inner> instantiator = InstantiationStrategy.GENERATED_FACTORIES
+            .createInstantiator(Inner.class.getConstructor(GeneratedFactoriesTest.class));
+
+        assertThat(instantiator.getClass().getName()).doesNotContain("EasyDIFactory");
+    }
+
+    @Test
+    @DisplayName("generated factories and reflection behave identically")
+    void success_identicalBehaviour() {
+        for (InstantiationStrategy strategy : new InstantiationStrategy[] {
+            InstantiationStrategy.GENERATED_FACTORIES, InstantiationStrategy.REFLECTION}) {
+
+            final EasyDI easyDI = new EasyDI();
+            easyDI.setInstantiationStrategy(strategy);
+            easyDI.bindInterface(Service.class, SingletonService.class);
+
+            final Example first = easyDI.getInstance(Example.class);
+            final Example second = easyDI.getInstance(Example.class);
+
+            assertThat(first).isNotSameAs(second);
+            assertThat(first.service).isInstanceOf(SingletonService.class).isSameAs(second.service);
+            assertThat(first.dependency).isNotNull().isNotSameAs(second.dependency);
+            assertThat(first.provider.get()).isNotNull().isNotSameAs(first.dependency);
+        }
+    }
+
+    @Test
+    @DisplayName("exceptions of the constructor are reported identically")
+    void fail_identicalExceptions() {
+        for (InstantiationStrategy strategy : new InstantiationStrategy[] {
+            InstantiationStrategy.GENERATED_FACTORIES, InstantiationStrategy.REFLECTION}) {
+
+            final EasyDI easyDI = new EasyDI();
+            easyDI.setInstantiationStrategy(strategy);
+
+            IllegalStateException exception = assertThrows(IllegalStateException.class, () -> {
+                easyDI.getInstance(Failing.class);
+            });
+
+            assertThat(exception).hasStackTraceContaining("Exception was thrown during the instantiation")
+                .hasStackTraceContaining("Too bad :-(");
+        }
+    }
+}
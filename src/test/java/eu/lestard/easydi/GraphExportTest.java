@@ -0,0 +1,80 @@
+package eu.lestard.easydi;
+
+
+import jakarta.inject.Provider;
+import jakarta.inject.Singleton;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("Graph export")
+class GraphExportTest {
+
+    @Singleton
+    public static class Engine {
+    }
+
+    public static class Wheel {
+    }
+
+    public static class Radio {
+    }
+
+    public static class Car {
+        public Car(Engine engine, Wheel wheel, Provider<Radio> radio) {
+        }
+    }
+
+    private EasyDI easyDI;
+
+    @BeforeEach
+    void setup() {
+        easyDI = new EasyDI();
+    }
+
+    @Test
+    @DisplayName("the graph is written as DOT with scopes and provider edges")
+    void success_dot() throws IOException {
+        easyDI.getInstance(Car.class);
+
+        final StringBuilder dot = new StringBuilder();
+        easyDI.writeGraph(dot, GraphFormat.DOT);
+
+        assertThat(dot.toString()).startsWith("digraph EasyDI {");
+        assertThat(dot.toString()).contains("\"" + Engine.class.getName() + "\" [label=\"GraphExportTest$Engine\\nsingleton\"");
+        assertThat(dot.toString()).contains("\"" + Car.class.getName() + "\" -> \"" + Wheel.class.getName() + "\";");
+        assertThat(dot.toString())
+            .contains("\"" + Car.class.getName() + "\" -> \"" + Radio.class.getName() + "\" [style=dashed, label=\"provider\"];");
+    }
+
+    @Test
+    @DisplayName("the graph is written as JSON with instance counts and times when metrics are registered")
+    void success_jsonWithMetrics() throws IOException {
+        easyDI.setInjectionListener(new InjectionMetrics());
+        easyDI.getInstance(Car.class);
+        easyDI.getInstance(Car.class);
+
+        final StringBuilder json = new StringBuilder();
+        easyDI.writeGraph(json, GraphFormat.JSON);
+
+        assertThat(json.toString()).contains("{\"id\": \"" + Car.class.getName()
+            + "\", \"scope\": \"prototype\", \"resolvable\": true, \"instances\": 2, \"constructionNanos\": ");
+        assertThat(json.toString()).contains("{\"id\": \"" + Engine.class.getName()
+            + "\", \"scope\": \"singleton\", \"resolvable\": true, \"instances\": 1, ");
+        assertThat(json.toString()).contains("{\"from\": \"" + Car.class.getName() + "\", \"to\": \""
+            + Radio.class.getName() + "\", \"kind\": \"provider\"}");
+    }
+
+    @Test
+    @DisplayName("an empty graph is valid JSON")
+    void success_empty() throws IOException {
+        final StringBuilder json = new StringBuilder();
+        easyDI.writeGraph(json, GraphFormat.JSON);
+
+        assertThat(json.toString()).isEqualTo("{\n  \"nodes\": [],\n  \"edges\": []\n}\n");
+    }
+}
@@ -5,6 +5,7 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
 import jakarta.inject.Provider;
+import jakarta.inject.Singleton;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
@@ -29,6 +30,29 @@ class InjectedProviderTest {
         }
     }
 
+    @Singleton
+    public static class MySingleton {
+    }
+
+    public interface MyInterface {
+    }
+
+    public static class ExampleOne implements MyInterface {
+    }
+
+    public static class ExampleTwo implements MyInterface {
+    }
+
+    public static class MyClassWithProviders {
+        Provider<MySingleton> singletonProvider;
+        Provider<MyInterface> interfaceProvider;
+
+        public MyClassWithProviders(Provider<MySingleton> singletonProvider, Provider<MyInterface> interfaceProvider) {
+            this.singletonProvider = singletonProvider;
+            this.interfaceProvider = interfaceProvider;
+        }
+    }
+
     public static class MyFailClass {
 
         public MyFailClass(Provider provider) {
@@ -57,6 +81,38 @@ class InjectedProviderTest {
         assertThat(myDependency).isNotNull();
     }
 
+    @Test
+    @DisplayName("creates new instances for every call")
+    void success_provider_newInstances() {
+        final MyClass myClass = easyDI.getInstance(MyClass.class);
+
+        assertThat(myClass.provider.get()).isNotSameAs(myClass.provider.get());
+    }
+
+    @Test
+    @DisplayName("returns the same singleton as the context")
+    void success_provider_singleton() {
+        final MyClassWithProviders myClass = easyDI.getInstance(MyClassWithProviders.class);
+
+        final MySingleton singleton = myClass.singletonProvider.get();
+
+        assertThat(singleton).isNotNull()
+            .isSameAs(myClass.singletonProvider.get())
+            .isSameAs(easyDI.getInstance(MySingleton.class));
+    }
+
+    @Test
+    @DisplayName("respects configuration changes after the first call")
+    void success_provider_configurationChanged() {
+        easyDI.bindInterface(MyInterface.class, ExampleOne.class);
+
+        final MyClassWithProviders myClass = easyDI.getInstance(MyClassWithProviders.class);
+        assertThat(myClass.interfaceProvider.get()).isInstanceOf(ExampleOne.class);
+
+        easyDI.bindInterface(MyInterface.class, ExampleTwo.class);
+        assertThat(myClass.interfaceProvider.get()).isInstanceOf(ExampleTwo.class);
+    }
+
     @Test
     @DisplayName("fails when no Type is declared for Provider")
     void fail_provider_without_type() {
@@ -0,0 +1,145 @@
+package eu.lestard.easydi;
+
+
+import jakarta.inject.Singleton;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@DisplayName("Injection listeners and metrics")
+class InjectionListenerTest {
+
+    @Singleton
+    public static class MySingleton {
+    }
+
+    public static class Example {
+        public Example(MySingleton singleton) {
+        }
+    }
+
+    public static class Failing {
+        public Failing() {
+            throw new IllegalStateException("constructor fails");
+        }
+    }
+
+    public interface Missing {
+    }
+
+    public static class Provided {
+    }
+
+    public static class RecordingListener implements InjectionListener {
+        final List<String> events = new ArrayList<>();
+
+        @Override
+        public void instanceCreated(Class<?> type, long nanos) {
+            events.add("created " + type.getSimpleName());
+        }
+
+        @Override
+        public void providerCalled(Class<?> type, long nanos) {
+            events.add("provider " + type.getSimpleName());
+        }
+
+        @Override
+        public void singletonHit(Class<?> type) {
+            events.add("hit " + type.getSimpleName());
+        }
+
+        @Override
+        public void singletonMiss(Class<?> type) {
+            events.add("miss " + type.getSimpleName());
+        }
+
+        @Override
+        public void failed(Class<?> type, Throwable cause) {
+            events.add("failed " + type.getSimpleName());
+        }
+    }
+
+    private EasyDI easyDI;
+
+    @BeforeEach
+    void setup() {
+        easyDI = new EasyDI();
+    }
+
+    @Test
+    @DisplayName("the listener is notified about instances and singletons")
+    void success_events() {
+        final RecordingListener listener = new RecordingListener();
+        easyDI.setInjectionListener(listener);
+
+        easyDI.getInstance(Example.class);
+        easyDI.getInstance(Example.class);
+        easyDI.getInstance(MySingleton.class);
+
+        assertThat(listener.events).containsExactly(
+            "miss MySingleton", "created MySingleton", "created Example",
+            "hit MySingleton", "created Example",
+            "hit MySingleton");
+    }
+
+    @Test
+    @DisplayName("the listener is notified about providers and failures")
+    void success_providerAndFailures() {
+        final RecordingListener listener = new RecordingListener();
+        easyDI.setInjectionListener(listener);
+        easyDI.bindProvider(Provided.class, Provided::new);
+
+        easyDI.getInstance(Provided.class);
+        assertThrows(IllegalStateException.class, () -> easyDI.getInstance(Failing.class));
+        assertThrows(IllegalStateException.class, () -> easyDI.getInstance(Missing.class));
+
+        assertThat(listener.events).containsExactly("provider Provided", "failed Failing", "failed Missing");
+    }
+
+    @Test
+    @DisplayName("metrics are collected per type")
+    void success_metrics() {
+        final InjectionMetrics metrics = new InjectionMetrics();
+        easyDI.setInjectionListener(metrics);
+
+        for (int i = 0; i < 3; i++) {
+            easyDI.getInstance(Example.class);
+        }
+        assertThrows(IllegalStateException.class, () -> easyDI.getInstance(Failing.class));
+
+        final InjectionMetrics.TypeMetrics example = metrics.forType(Example.class);
+        assertThat(example.created()).isEqualTo(3);
+        assertThat(example.constructorLatency().count()).isEqualTo(3);
+        assertThat(example.constructorLatency().percentileNanos(50)).isGreaterThanOrEqualTo(0);
+
+        final InjectionMetrics.TypeMetrics singleton = metrics.forType(MySingleton.class);
+        assertThat(singleton.created()).isEqualTo(1);
+        assertThat(singleton.singletonMisses()).isEqualTo(1);
+        assertThat(singleton.singletonHits()).isEqualTo(2);
+
+        assertThat(metrics.forType(Failing.class).failures()).isEqualTo(1);
+        assertThat(metrics.forType(Missing.class).created()).isEqualTo(0);
+    }
+
+    @Test
+    @DisplayName("histogram percentiles are reported as upper bound of the bucket")
+    void success_histogram() {
+        final LatencyHistogram histogram = new LatencyHistogram();
+
+        for (int i = 0; i < 99; i++) {
+            histogram.record(100);
+        }
+        histogram.record(5000);
+
+        assertThat(histogram.count()).isEqualTo(100);
+        assertThat(histogram.percentileNanos(50)).isEqualTo(127);
+        assertThat(histogram.percentileNanos(100)).isEqualTo(8191);
+        assertThat(histogram.totalNanos()).isEqualTo(99 * 100 + 5000);
+    }
+}
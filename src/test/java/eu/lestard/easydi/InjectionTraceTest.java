@@ -0,0 +1,110 @@
+package eu.lestard.easydi;
+
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@DisplayName("Trace mode")
+class InjectionTraceTest {
+
+    public static class Engine {
+    }
+
+    public static class Fuel {
+    }
+
+    public static class Car {
+        public Car(Engine engine, Fuel fuel) {
+        }
+    }
+
+    private EasyDI easyDI;
+
+    private InjectionTrace trace;
+
+    @BeforeEach
+    void setup() {
+        easyDI = new EasyDI();
+        trace = new InjectionTrace(16);
+        easyDI.setInjectionTrace(trace);
+    }
+
+    @Test
+    @DisplayName("constructions are written as nested complete events with the thread")
+    void success_chromeTrace() throws IOException {
+        easyDI.bindProvider(Fuel.class, Fuel::new);
+        easyDI.getInstance(Car.class);
+
+        assertThat(trace.recordedEvents()).isEqualTo(3L);
+
+        final StringBuilder json = new StringBuilder();
+        trace.writeChromeTrace(json);
+        final String output = json.toString();
+
+        assertThat(output).startsWith("{\"traceEvents\": [");
+        assertThat(output).contains("{\"name\": \"Engine\", \"cat\": \"constructor\", \"ph\": \"X\", \"ts\": ");
+        assertThat(output).contains("{\"name\": \"Fuel\", \"cat\": \"provider\", \"ph\": \"X\", \"ts\": ");
+        assertThat(output).contains("\"args\": {\"type\": \"" + Car.class.getName() + "\", \"depth\": 0}}");
+        assertThat(output).contains("\"args\": {\"type\": \"" + Engine.class.getName() + "\", \"depth\": 1}}");
+        assertThat(output).contains("\"tid\": " + Thread.currentThread().getId()
+            + ", \"args\": {\"name\": \"" + Thread.currentThread().getName() + "\"}}");
+
+        // the parameters are created within the construction of the car and are written first.
+        assertThat(output.indexOf("\"Engine\"")).isLessThan(output.indexOf("\"Car\""));
+    }
+
+    @Test
+    @DisplayName("thread names are escaped in the JSON output")
+    void success_escapedThreadName() throws Exception {
+        final Thread thread = new Thread(() -> easyDI.getInstance(Engine.class), "worker \"1\"\n\t");
+        thread.start();
+        thread.join();
+
+        final StringBuilder json = new StringBuilder();
+        trace.writeChromeTrace(json);
+
+        assertThat(json.toString()).contains("\"args\": {\"name\": \"worker \\\"1\\\"\\n\\u0009\"}}");
+    }
+
+    @Test
+    @DisplayName("the oldest events are overwritten when the buffer is full")
+    void success_ringBuffer() throws IOException {
+        final InjectionTrace smallTrace = new InjectionTrace(3);
+        easyDI.setInjectionTrace(smallTrace);
+
+        for (int i = 0; i < 3; i++) {
+            easyDI.getInstance(Car.class);
+        }
+
+        assertThat(smallTrace.recordedEvents()).isEqualTo(9L);
+        assertThat(smallTrace.droppedEvents()).isEqualTo(5L);
+
+        final StringBuilder json = new StringBuilder();
+        smallTrace.writeChromeTrace(json);
+        assertThat(json.toString().split("\"ph\": \"X\"").length - 1).isEqualTo(4);
+
+        smallTrace.clear();
+        assertThat(smallTrace.recordedEvents()).isEqualTo(0L);
+    }
+
+    @Test
+    @DisplayName("nothing is recorded without a trace")
+    void success_disabled() {
+        easyDI.setInjectionTrace(null);
+        easyDI.getInstance(Car.class);
+
+        assertThat(trace.recordedEvents()).isEqualTo(0L);
+    }
+
+    @Test
+    @DisplayName("the capacity has to be positive")
+    void fail_capacity() {
+        assertThrows(IllegalArgumentException.class, () -> new InjectionTrace(0));
+    }
+}
@@ -0,0 +1,117 @@
+package eu.lestard.easydi;
+
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Constructor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@DisplayName("Instantiation strategies")
+class InstantiationStrategyTest {
+
+    public static class Dependency {
+        public Dependency() {
+        }
+    }
+
+    public static class Example {
+        final Dependency first;
+        final Dependency second;
+
+        public Example(Dependency first, Dependency second) {
+            this.first = first;
+            this.second = second;
+        }
+    }
+
+    static class NonPublic {
+        public NonPublic() {
+        }
+    }
+
+    public static class Failing {
+        public Failing() {
+            throw new IllegalArgumentException("Too bad :-(");
+        }
+    }
+
+    private EasyDI easyDI;
+
+    @BeforeEach
+    void setup() {
+        easyDI = new EasyDI();
+    }
+
+    @Test
+    @DisplayName("method handles create instances with all arguments")
+    void success_methodHandles() {
+        easyDI.setInstantiationStrategy(InstantiationStrategy.METHOD_HANDLES);
+
+        final Example instance = easyDI.getInstance(Example.class);
+
+        assertThat(instance.first).isNotNull().isNotSameAs(instance.second);
+        assertThat(instance.second).isNotNull();
+    }
+
+    @Test
+    @DisplayName("reflection creates instances with all arguments")
+    void success_reflection() {
+        easyDI.setInstantiationStrategy(InstantiationStrategy.REFLECTION);
+
+        final Example instance = easyDI.getInstance(Example.class);
+
+        assertThat(instance.first).isNotNull().isNotSameAs(instance.second);
+        assertThat(instance.second).isNotNull();
+    }
+
+    @Test
+    @DisplayName("method handles work for classes that aren't public")
+    void success_methodHandles_nonPublicClass() {
+        easyDI.setInstantiationStrategy(InstantiationStrategy.METHOD_HANDLES);
+
+        assertThat(easyDI.getInstance(NonPublic.class)).isNotNull();
+    }
+
+    @Test
+    @DisplayName("exceptions of the constructor are reported for both strategies")
+    void fail_constructorThrowsException() {
+        for (InstantiationStrategy strategy : new InstantiationStrategy[] {
+            InstantiationStrategy.METHOD_HANDLES, InstantiationStrategy.REFLECTION}) {
+
+            final EasyDI easyDI = new EasyDI();
+            easyDI.setInstantiationStrategy(strategy);
+
+            IllegalStateException exception = assertThrows(IllegalStateException.class, () -> {
+                easyDI.getInstance(Failing.class);
+            });
+
+            assertThat(exception).hasStackTraceContaining("Exception was thrown during the instantiation")
+                .hasStackTraceContaining("Too bad :-(");
+        }
+    }
+
+    @Test
+    @DisplayName("a custom strategy is called only once per constructor")
+    void success_customStrategy() {
+        AtomicInteger counter = new AtomicInteger(0);
+
+        easyDI.setInstantiationStrategy(new InstantiationStrategy() {
+            @Override
+            public <T> Instantiator<T> createInstantiator(Constructor<T> constructor) {
+                counter.incrementAndGet();
+                return InstantiationStrategy.REFLECTION.createInstantiator(constructor);
+            }
+        });
+
+        easyDI.getInstance(Example.class);
+        easyDI.getInstance(Example.class);
+
+        // one instantiator for Example and one for Dependency
+        assertThat(counter.get()).isEqualTo(2);
+    }
+}
@@ -0,0 +1,154 @@
+package eu.lestard.easydi;
+
+
+import jakarta.inject.Inject;
+import jakarta.inject.Named;
+import jakarta.inject.Provider;
+import jakarta.inject.Singleton;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@DisplayName("Field and method injection")
+class MemberInjectionTest {
+
+    @Singleton
+    public static class Service {
+    }
+
+    public static class Other {
+    }
+
+    public interface Missing {
+    }
+
+    public static class Base {
+        final List<String> injectionOrder = new ArrayList<>();
+
+        @Inject
+        Service baseService;
+
+        @Inject
+        void initBase(Other other) {
+            injectionOrder.add("base method");
+        }
+    }
+
+    public static class Client extends Base {
+        @Inject
+        private Service service;
+
+        @Inject
+        Provider<Other> otherProvider;
+
+        @Inject
+        Optional<Missing> missing;
+
+        Service setterService;
+        Other setterOther;
+
+        Service notInjected;
+
+        @Inject
+        public void setDependencies(Service service, Other other) {
+            injectionOrder.add("client method");
+            this.setterService = service;
+            this.setterOther = other;
+        }
+
+        Service getService() {
+            return service;
+        }
+    }
+
+    public static class Overriding extends Base {
+        @Override
+        void initBase(Other other) {
+            injectionOrder.add("overridden");
+        }
+    }
+
+    public static class NamedField {
+        @Inject
+        @Named("greeting")
+        String greeting;
+    }
+
+    public static class MissingField {
+        @Inject
+        Missing missing;
+    }
+
+    private EasyDI easyDI;
+
+    @BeforeEach
+    void setup() {
+        easyDI = new EasyDI();
+        easyDI.setMemberInjection(true);
+    }
+
+    @Test
+    @DisplayName("fields and methods annotated with @Inject are injected")
+    void success_fieldsAndMethods() {
+        final Client client = easyDI.getInstance(Client.class);
+        final Service service = easyDI.getInstance(Service.class);
+
+        assertThat(client.getService()).isSameAs(service);
+        assertThat(client.baseService).isSameAs(service);
+        assertThat(client.setterService).isSameAs(service);
+        assertThat(client.setterOther).isNotNull();
+        assertThat(client.otherProvider.get()).isInstanceOf(Other.class);
+        assertThat(client.missing).isEmpty();
+        assertThat(client.notInjected).isNull();
+    }
+
+    @Test
+    @DisplayName("members of superclasses are injected first")
+    void success_superclassFirst() {
+        final Client client = easyDI.getInstance(Client.class);
+
+        assertThat(client.injectionOrder).isEqualTo(List.of("base method", "client method"));
+    }
+
+    @Test
+    @DisplayName("methods that are overridden without @Inject are not injected")
+    void success_overriddenMethod() {
+        final Overriding overriding = easyDI.getInstance(Overriding.class);
+
+        assertThat(overriding.injectionOrder).isEmpty();
+        assertThat(overriding.baseService).isNotNull();
+    }
+
+    @Test
+    @DisplayName("injected fields can have qualifiers")
+    void success_qualifiedField() {
+        easyDI.bindInstance(Key.of(String.class, "greeting"), "hello");
+
+        assertThat(easyDI.getInstance(NamedField.class).greeting).isEqualTo("hello");
+    }
+
+    @Test
+    @DisplayName("members are not injected when member injection is disabled")
+    void success_disabled() {
+        easyDI.setMemberInjection(false);
+
+        assertThat(easyDI.getInstance(Client.class).getService()).isNull();
+    }
+
+    @Test
+    @DisplayName("fields that can't be resolved are an error")
+    void fail_missingField() {
+        IllegalStateException exception = assertThrows(IllegalStateException.class, () -> {
+            easyDI.getInstance(MissingField.class);
+        });
+
+        assertThat(exception).hasStackTraceContaining(Missing.class.getName());
+    }
+}
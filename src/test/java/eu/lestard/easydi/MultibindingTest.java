@@ -0,0 +1,181 @@
+package eu.lestard.easydi;
+
+
+import jakarta.inject.Singleton;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@DisplayName("Multibindings")
+class MultibindingTest {
+
+    public interface Handler {
+    }
+
+    @Singleton
+    public static class AuthHandler implements Handler {
+    }
+
+    @Singleton
+    public static class LoggingHandler implements Handler {
+    }
+
+    public static class PrototypeHandler implements Handler {
+    }
+
+    public static class Pipeline {
+        final List<Handler> handlers;
+
+        public Pipeline(List<Handler> handlers) {
+            this.handlers = handlers;
+        }
+    }
+
+    public static class SetPipeline {
+        final Set<Handler> handlers;
+
+        public SetPipeline(Set<Handler> handlers) {
+            this.handlers = handlers;
+        }
+    }
+
+    public static class Router {
+        final Map<String, Handler> handlers;
+
+        public Router(Map<String, Handler> handlers) {
+            this.handlers = handlers;
+        }
+    }
+
+    public static class FailingHandler implements Handler {
+        public FailingHandler(Missing missing) {
+        }
+    }
+
+    public interface Missing {
+    }
+
+    private EasyDI easyDI;
+
+    @BeforeEach
+    void setup() {
+        easyDI = new EasyDI();
+    }
+
+    @Test
+    @DisplayName("lists contain all bound implementations in the order of binding")
+    void success_list() {
+        easyDI.bindIntoSet(Handler.class, LoggingHandler.class);
+        easyDI.bindIntoSet(Handler.class, AuthHandler.class);
+
+        final Pipeline pipeline = easyDI.getInstance(Pipeline.class);
+
+        assertThat(pipeline.handlers).hasSize(2);
+        assertThat(pipeline.handlers.get(0)).isSameAs(easyDI.getInstance(LoggingHandler.class));
+        assertThat(pipeline.handlers.get(1)).isSameAs(easyDI.getInstance(AuthHandler.class));
+    }
+
+    @Test
+    @DisplayName("collections of singletons are created only once")
+    void success_singletonCollection() {
+        easyDI.bindIntoSet(Handler.class, LoggingHandler.class);
+        easyDI.bindIntoSet(Handler.class, AuthHandler.class);
+
+        assertThat(easyDI.getInstance(SetPipeline.class).handlers)
+            .isSameAs(easyDI.getInstance(SetPipeline.class).handlers);
+        assertThat(easyDI.getInstance(SetPipeline.class).handlers).hasSize(2);
+    }
+
+    @Test
+    @DisplayName("collections with prototypes are created for every injection")
+    void success_prototypeCollection() {
+        easyDI.bindIntoSet(Handler.class, AuthHandler.class);
+        easyDI.bindIntoSet(Handler.class, PrototypeHandler.class);
+
+        final List<Handler> first = easyDI.getInstance(Pipeline.class).handlers;
+        final List<Handler> second = easyDI.getInstance(Pipeline.class).handlers;
+
+        assertThat(first.get(0)).isSameAs(second.get(0));
+        assertThat(first.get(1)).isNotSameAs(second.get(1));
+    }
+
+    @Test
+    @DisplayName("maps contain all bound implementations by their names")
+    void success_map() {
+        easyDI.bindIntoMap(Handler.class, "auth", AuthHandler.class);
+        easyDI.bindIntoMap(Handler.class, "log", LoggingHandler.class);
+
+        final Router router = easyDI.getInstance(Router.class);
+
+        assertThat(router.handlers.get("auth")).isInstanceOf(AuthHandler.class);
+        assertThat(router.handlers.get("log")).isInstanceOf(LoggingHandler.class);
+    }
+
+    @Test
+    @DisplayName("collections of element types without bindings can't be resolved")
+    void fail_noBindings() {
+        assertThrows(IllegalStateException.class, () -> easyDI.getInstance(Pipeline.class));
+        assertThrows(IllegalStateException.class, () -> easyDI.getInstance(Router.class));
+
+        easyDI.bindIntoSet(Handler.class, AuthHandler.class);
+        assertThrows(IllegalStateException.class, () -> easyDI.getInstance(Router.class));
+    }
+
+    @Test
+    @DisplayName("bound collection types are used instead of multibindings")
+    void success_boundCollection() {
+        final List<Handler> handlers = List.of(new PrototypeHandler());
+        easyDI.bindProvider(List.class, () -> handlers);
+
+        assertThat(easyDI.getInstance(Pipeline.class).handlers).isSameAs(handlers);
+    }
+
+    @Test
+    @DisplayName("implementations that are added later are part of the collection")
+    void success_addedLater() {
+        easyDI.bindIntoSet(Handler.class, AuthHandler.class);
+        assertThat(easyDI.getInstance(Pipeline.class).handlers).hasSize(1);
+
+        easyDI.bindIntoSet(Handler.class, LoggingHandler.class);
+        assertThat(easyDI.getInstance(Pipeline.class).handlers).hasSize(2);
+    }
+
+    @Test
+    @DisplayName("children add implementations to the collections of the parent")
+    void success_child() {
+        easyDI.bindIntoSet(Handler.class, AuthHandler.class);
+
+        try (EasyDI child = easyDI.createChild()) {
+            child.bindIntoSet(Handler.class, LoggingHandler.class);
+
+            assertThat(child.getInstance(Pipeline.class).handlers).hasSize(2);
+        }
+
+        assertThat(easyDI.getInstance(Pipeline.class).handlers).hasSize(1);
+    }
+
+    @Test
+    @DisplayName("implementations that can't be instantiated are found by the validation")
+    void fail_validation() {
+        easyDI.bindIntoSet(Handler.class, FailingHandler.class);
+
+        IllegalStateException exception = assertThrows(IllegalStateException.class, () -> {
+            easyDI.validate(Pipeline.class);
+        });
+
+        assertThat(exception).hasMessageContaining(Missing.class.getName());
+    }
+
+    @Test
+    @DisplayName("only implementing classes can be bound into a multibinding")
+    void fail_bindInterface() {
+        assertThrows(IllegalArgumentException.class, () -> easyDI.bindIntoSet(Handler.class, Handler.class));
+    }
+}
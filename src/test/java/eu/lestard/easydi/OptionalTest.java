@@ -0,0 +1,156 @@
+package eu.lestard.easydi;
+
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@DisplayName("Optional lookup")
+class OptionalTest {
+
+    public interface Service {
+    }
+
+    public static class ServiceImpl implements Service {
+    }
+
+    public static class Client {
+        final Optional<Service> service;
+
+        public Client(Optional<Service> service) {
+            this.service = service;
+        }
+    }
+
+    public static class NeedsService {
+        public NeedsService(Service service) {
+        }
+    }
+
+    public static class OptionalCycleOne {
+        public OptionalCycleOne(Optional<OptionalCycleTwo> two) {
+        }
+    }
+
+    public static class OptionalCycleTwo {
+        public OptionalCycleTwo(OptionalCycleOne one) {
+        }
+    }
+
+    public static class Failing {
+        public Failing() {
+            throw new IllegalStateException("constructor fails");
+        }
+    }
+
+    public static class RawOptional {
+        public RawOptional(Optional optional) {
+        }
+    }
+
+    private EasyDI easyDI;
+
+    @BeforeEach
+    void setup() {
+        easyDI = new EasyDI();
+    }
+
+    @Test
+    @DisplayName("tryGetInstance returns an instance of a resolvable type")
+    void success_tryGetInstance() {
+        easyDI.bindInterface(Service.class, ServiceImpl.class);
+
+        assertThat(easyDI.tryGetInstance(Service.class)).containsInstanceOf(ServiceImpl.class);
+    }
+
+    @Test
+    @DisplayName("tryGetInstance returns an empty optional for missing types")
+    void success_tryGetInstance_missing() {
+        assertThat(easyDI.tryGetInstance(Service.class)).isEmpty();
+        assertThat(easyDI.tryGetInstance(NeedsService.class)).isEmpty();
+
+        // the result is cached but getInstance still explains the problem
+        assertThat(easyDI.tryGetInstance(NeedsService.class)).isEmpty();
+
+        IllegalStateException exception = assertThrows(IllegalStateException.class, () -> {
+            easyDI.getInstance(NeedsService.class);
+        });
+
+        assertThat(exception).hasStackTraceContaining("At least one of the constructor parameters of type ["
+            + Service.class + "] can't be instantiated")
+            .hasStackTraceContaining("It is an interface");
+    }
+
+    @Test
+    @DisplayName("tryGetInstance takes configuration changes into account")
+    void success_tryGetInstance_configurationChanged() {
+        assertThat(easyDI.tryGetInstance(NeedsService.class)).isEmpty();
+
+        easyDI.bindInterface(Service.class, ServiceImpl.class);
+
+        assertThat(easyDI.tryGetInstance(NeedsService.class)).isPresent();
+    }
+
+    @Test
+    @DisplayName("tryGetInstance still throws when the constructor fails")
+    void fail_tryGetInstance_constructorFails() {
+        IllegalStateException exception = assertThrows(IllegalStateException.class, () -> {
+            easyDI.tryGetInstance(Failing.class);
+        });
+
+        assertThat(exception).hasStackTraceContaining("constructor fails");
+    }
+
+    @Test
+    @DisplayName("optional constructor parameters are empty when the type is missing")
+    void success_optionalParameter_missing() {
+        final Client client = easyDI.getInstance(Client.class);
+
+        assertThat(client.service).isEmpty();
+    }
+
+    @Test
+    @DisplayName("optional constructor parameters contain an instance when the type is available")
+    void success_optionalParameter_available() {
+        easyDI.bindInterface(Service.class, ServiceImpl.class);
+
+        final Client client = easyDI.getInstance(Client.class);
+
+        assertThat(client.service).containsInstanceOf(ServiceImpl.class);
+    }
+
+    @Test
+    @DisplayName("a cycle through an optional parameter is still an error")
+    void fail_optionalParameter_cycle() {
+        assertThat(easyDI.tryGetInstance(OptionalCycleTwo.class)).isEmpty();
+
+        IllegalStateException exception = assertThrows(IllegalStateException.class, () -> {
+            easyDI.getInstance(OptionalCycleOne.class);
+        });
+
+        assertThat(exception).hasStackTraceContaining("cyclic dependency was detected: "
+            + OptionalCycleOne.class.getName() + " -> " + OptionalCycleTwo.class.getName() + " -> "
+            + OptionalCycleOne.class.getName());
+    }
+
+    @Test
+    @DisplayName("optional parameters without a type argument are an error")
+    void fail_rawOptional() {
+        IllegalStateException exception = assertThrows(IllegalStateException.class, () -> {
+            easyDI.getInstance(RawOptional.class);
+        });
+
+        assertThat(exception).hasStackTraceContaining("java.util.Optional without a type parameter");
+    }
+
+    @Test
+    @DisplayName("missing optional parameters are no problem for the validation")
+    void success_validate() {
+        easyDI.validate(Client.class);
+    }
+}
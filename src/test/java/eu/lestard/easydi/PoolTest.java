@@ -0,0 +1,174 @@
+package eu.lestard.easydi;
+
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@DisplayName("Pools")
+class PoolTest {
+
+    public static class Codec implements AutoCloseable {
+        boolean closed;
+
+        @Override
+        public void close() {
+            closed = true;
+        }
+    }
+
+    public static class Encoder {
+        final Pool<Codec> codecs;
+
+        public Encoder(Pool<Codec> codecs) {
+            this.codecs = codecs;
+        }
+    }
+
+    public static class Decoder {
+        final Pool<Codec> codecs;
+
+        public Decoder(Pool<Codec> codecs) {
+            this.codecs = codecs;
+        }
+    }
+
+    public interface Missing {
+    }
+
+    public static class MissingPool {
+        public MissingPool(Pool<Missing> pool) {
+        }
+    }
+
+    private EasyDI easyDI;
+
+    @BeforeEach
+    void setup() {
+        easyDI = new EasyDI();
+    }
+
+    @Test
+    @DisplayName("returned instances are borrowed again instead of creating new ones")
+    void success_reuse() {
+        final Pool<Codec> pool = easyDI.getInstance(Encoder.class).codecs;
+
+        final Codec codec;
+        try (Pool.Lease<Codec> lease = pool.borrow()) {
+            codec = lease.get();
+        }
+
+        try (Pool.Lease<Codec> lease = pool.borrow()) {
+            assertThat(lease.get()).isSameAs(codec);
+        }
+        assertThat(pool.createdCount()).isEqualTo(1L);
+        assertThat(pool.idleCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("all classes share the pool of a type")
+    void success_shared() {
+        assertThat(easyDI.getInstance(Encoder.class).codecs).isSameAs(easyDI.getInstance(Decoder.class).codecs);
+    }
+
+    @Test
+    @DisplayName("instances that exceed the pool size are closed when they are returned")
+    void success_maximumSize() {
+        easyDI.setPoolSize(Codec.class, 1);
+        final Pool<Codec> pool = easyDI.getInstance(Encoder.class).codecs;
+
+        final Pool.Lease<Codec> first = pool.borrow();
+        final Pool.Lease<Codec> second = pool.borrow();
+        final Codec firstCodec = first.get();
+        final Codec secondCodec = second.get();
+        assertThat(firstCodec).isNotSameAs(secondCodec);
+
+        first.close();
+        second.close();
+
+        assertThat(pool.maximumSize()).isEqualTo(1);
+        assertThat(pool.idleCount()).isEqualTo(1);
+        assertThat(firstCodec.closed).isFalse();
+        assertThat(secondCodec.closed).isTrue();
+    }
+
+    @Test
+    @DisplayName("closing EasyDI closes the idle instances")
+    void success_close() {
+        final Pool<Codec> pool = easyDI.getInstance(Encoder.class).codecs;
+
+        final Pool.Lease<Codec> lease = pool.borrow();
+        final Codec codec = lease.get();
+        lease.close();
+
+        easyDI.close();
+
+        assertThat(codec.closed).isTrue();
+        assertThat(pool.idleCount()).isEqualTo(0);
+    }
+
+    @Test
+    @DisplayName("concurrent borrows never hand out the same instance twice")
+    void success_concurrent() throws Exception {
+        easyDI.setPoolSize(Codec.class, 4);
+        final Pool<Codec> pool = easyDI.getInstance(Encoder.class).codecs;
+
+        final ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            final List<Future<Boolean>> results = new ArrayList<>();
+            final Set<Codec> borrowed = ConcurrentHashMap.newKeySet();
+
+            for (int i = 0; i < 8; i++) {
+                results.add(executor.submit(() -> {
+                    for (int j = 0; j < 1000; j++) {
+                        try (Pool.Lease<Codec> lease = pool.borrow()) {
+                            if (!borrowed.add(lease.get())) {
+                                return false;
+                            }
+                            borrowed.remove(lease.get());
+                        }
+                    }
+                    return true;
+                }));
+            }
+
+            for (Future<Boolean> result : results) {
+                assertThat(result.get(10, TimeUnit.SECONDS)).isTrue();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        assertThat(pool.idleCount()).isLessThanOrEqualTo(4);
+    }
+
+    @Test
+    @DisplayName("returned leases can't be used anymore")
+    void fail_returnedLease() {
+        final Pool.Lease<Codec> lease = easyDI.getInstance(Encoder.class).codecs.borrow();
+        lease.close();
+
+        assertThrows(IllegalStateException.class, lease::get);
+    }
+
+    @Test
+    @DisplayName("pooled types are validated lazily like providers")
+    void fail_missingPooledType() {
+        easyDI.getInstance(MissingPool.class);
+
+        assertThrows(IllegalStateException.class, () -> easyDI.validate(MissingPool.class));
+        assertThrows(IllegalArgumentException.class, () -> easyDI.setPoolSize(Codec.class, 0));
+    }
+}
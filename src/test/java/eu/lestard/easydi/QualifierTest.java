@@ -0,0 +1,205 @@
+package eu.lestard.easydi;
+
+
+import jakarta.inject.Named;
+import jakarta.inject.Provider;
+import jakarta.inject.Qualifier;
+import jakarta.inject.Singleton;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@DisplayName("Qualified bindings")
+class QualifierTest {
+
+    @Qualifier
+    @Retention(RetentionPolicy.RUNTIME)
+    public @interface Replica {
+    }
+
+    @Qualifier
+    @Retention(RetentionPolicy.RUNTIME)
+    public @interface Tenant {
+        String value();
+    }
+
+    public static class DataSource {
+        final String url;
+
+        public DataSource(String url) {
+            this.url = url;
+        }
+    }
+
+    public interface Cache {
+    }
+
+    public static class LocalCache implements Cache {
+    }
+
+    public static class Repository {
+        final DataSource primary;
+        final DataSource replica;
+        final Cache cache;
+
+        public Repository(@Named("primary") DataSource primary, @Replica DataSource replica,
+                          @Named("local") Cache cache) {
+            this.primary = primary;
+            this.replica = replica;
+            this.cache = cache;
+        }
+    }
+
+    public static class LazyRepository {
+        final Provider<DataSource> primary;
+        final Optional<DataSource> backup;
+
+        public LazyRepository(@Named("primary") Provider<DataSource> primary,
+                              @Named("backup") Optional<DataSource> backup) {
+            this.primary = primary;
+            this.backup = backup;
+        }
+    }
+
+    public static class TenantRepository {
+        final DataSource first;
+        final DataSource second;
+
+        public TenantRepository(@Tenant("first") DataSource first, @Tenant("second") DataSource second) {
+            this.first = first;
+            this.second = second;
+        }
+    }
+
+    @Singleton
+    public static class Connection {
+    }
+
+    public static class MissingQualifier {
+        public MissingQualifier(@Named("unknown") DataSource dataSource) {
+        }
+    }
+
+    private EasyDI easyDI;
+
+    @BeforeEach
+    void setup() {
+        easyDI = new EasyDI();
+    }
+
+    @Test
+    @DisplayName("named and custom qualifiers select different bindings of the same type")
+    void success_qualifiedParameters() {
+        easyDI.bindInstance(Key.of(DataSource.class, "primary"), new DataSource("primary"));
+        easyDI.bindProvider(Key.of(DataSource.class, Replica.class), () -> new DataSource("replica"));
+        easyDI.bindInterface(Key.of(Cache.class, "local"), LocalCache.class);
+
+        final Repository repository = easyDI.getInstance(Repository.class);
+
+        assertThat(repository.primary.url).isEqualTo("primary");
+        assertThat(repository.replica.url).isEqualTo("replica");
+        assertThat(repository.cache).isInstanceOf(LocalCache.class);
+    }
+
+    @Test
+    @DisplayName("qualified types can be requested directly and with providers and optionals")
+    void success_keysAndProviders() {
+        final DataSource primary = new DataSource("primary");
+        easyDI.bindInstance(Key.of(DataSource.class, "primary"), primary);
+
+        assertThat(easyDI.getInstance(Key.of(DataSource.class, "primary"))).isSameAs(primary);
+
+        final LazyRepository repository = easyDI.getInstance(LazyRepository.class);
+        assertThat(repository.primary.get()).isSameAs(primary);
+        assertThat(repository.backup).isEmpty();
+    }
+
+    @Test
+    @DisplayName("keys with the same type and qualifier are equal")
+    void success_equalKeys() {
+        assertThat(Key.of(DataSource.class, "primary")).isEqualTo(Key.of(DataSource.class, "primary"));
+        assertThat(Key.of(DataSource.class, Replica.class)).isEqualTo(Key.of(DataSource.class, Replica.class));
+        assertThat(Key.of(DataSource.class, "primary").hashCode())
+            .isEqualTo(Key.of(DataSource.class, "primary").hashCode());
+        assertThat(Key.of(DataSource.class, "primary")).isNotEqualTo(Key.of(DataSource.class, "replica"));
+    }
+
+    @Test
+    @DisplayName("the values of the members of custom qualifiers are part of the key")
+    void success_qualifierMembers() throws Exception {
+        final Tenant first = qualifierOfParameter(0);
+        final Tenant second = qualifierOfParameter(1);
+
+        easyDI.bindInstance(Key.of(DataSource.class, first), new DataSource("first"));
+        easyDI.bindInstance(Key.of(DataSource.class, second), new DataSource("second"));
+
+        final TenantRepository repository = easyDI.getInstance(TenantRepository.class);
+
+        assertThat(repository.first.url).isEqualTo("first");
+        assertThat(repository.second.url).isEqualTo("second");
+        assertThat(Key.of(DataSource.class, first)).isNotEqualTo(Key.of(DataSource.class, second));
+    }
+
+    @Test
+    @DisplayName("qualified providers of singletons are called once per qualifier")
+    void success_qualifiedSingletonProvider() {
+        easyDI.bindProvider(Key.of(Connection.class, "primary"), Connection::new);
+        easyDI.bindProvider(Key.of(Connection.class, "replica"), Connection::new);
+
+        final Connection primary = easyDI.getInstance(Key.of(Connection.class, "primary"));
+
+        assertThat(easyDI.getInstance(Key.of(Connection.class, "primary"))).isSameAs(primary);
+        assertThat(easyDI.getInstance(Key.of(Connection.class, "replica"))).isNotSameAs(primary);
+        assertThat(easyDI.getInstance(Connection.class)).isNotSameAs(primary);
+    }
+
+    @Test
+    @DisplayName("a qualified binding can wrap another qualified binding of the same class")
+    void success_wrappedQualifiedBinding() {
+        easyDI.bindProvider(Key.of(DataSource.class, "raw"), () -> new DataSource("raw"));
+        easyDI.bindProvider(Key.of(DataSource.class, "primary"),
+            () -> new DataSource("pooled " + easyDI.getInstance(Key.of(DataSource.class, "raw")).url));
+        easyDI.bindProvider(Key.of(DataSource.class, Replica.class),
+            () -> new DataSource("replica of " + easyDI.getInstance(LazyRepository.class).primary.get().url));
+
+        assertThat(easyDI.getInstance(Key.of(DataSource.class, "primary")).url).isEqualTo("pooled raw");
+        assertThat(easyDI.getInstance(Key.of(DataSource.class, Replica.class)).url)
+            .isEqualTo("replica of pooled raw");
+    }
+
+    @Test
+    @DisplayName("a missing qualified binding is an error that names the qualifier")
+    void fail_missingBinding() {
+        IllegalStateException exception = assertThrows(IllegalStateException.class, () -> {
+            easyDI.getInstance(MissingQualifier.class);
+        });
+
+        assertThat(exception).hasStackTraceContaining("no binding for this qualifier");
+        assertThat(exception).hasStackTraceContaining("@Named(\"unknown\")");
+    }
+
+    @Test
+    @DisplayName("only qualifier annotations can be used for keys")
+    void fail_noQualifierAnnotation() {
+        assertThrows(IllegalArgumentException.class, () -> Key.of(DataSource.class, Retention.class));
+        assertThrows(IllegalArgumentException.class, () -> Key.of(DataSource.class, Named.class));
+    }
+
+    @Test
+    @DisplayName("custom qualifiers with members can't be used without their values")
+    void fail_qualifierMembersMissing() {
+        assertThrows(IllegalArgumentException.class, () -> Key.of(DataSource.class, Tenant.class));
+    }
+
+    private static Tenant qualifierOfParameter(int index) throws NoSuchMethodException {
+        return TenantRepository.class.getConstructor(DataSource.class, DataSource.class)
+            .getParameters()[index].getAnnotation(Tenant.class);
+    }
+}
@@ -0,0 +1,80 @@
+package eu.lestard.easydi;
+
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("Cached resolution plans")
+class ResolutionPlanTest {
+
+    public interface MyInterface {
+    }
+
+    public static class ExampleOne implements MyInterface {
+    }
+
+    public static class ExampleTwo implements MyInterface {
+    }
+
+    public static class Example {
+        final MyInterface dep;
+
+        public Example(MyInterface dep) {
+            this.dep = dep;
+        }
+    }
+
+    private EasyDI easyDI;
+
+    @BeforeEach
+    void setup() {
+        easyDI = new EasyDI();
+    }
+
+    @Test
+    @DisplayName("repeated requests of a prototype still create new instances")
+    void success_cachedPlan_newInstances() {
+        easyDI.bindInterface(MyInterface.class, ExampleOne.class);
+
+        final Example instanceOne = easyDI.getInstance(Example.class);
+        final Example instanceTwo = easyDI.getInstance(Example.class);
+
+        assertThat(instanceOne).isNotSameAs(instanceTwo);
+        assertThat(instanceOne.dep).isInstanceOf(ExampleOne.class).isNotSameAs(instanceTwo.dep);
+    }
+
+    @Test
+    @DisplayName("changing the interface mapping after the first request is respected")
+    void success_rebindInterface() {
+        easyDI.bindInterface(MyInterface.class, ExampleOne.class);
+        assertThat(easyDI.getInstance(Example.class).dep).isInstanceOf(ExampleOne.class);
+
+        easyDI.bindInterface(MyInterface.class, ExampleTwo.class);
+        assertThat(easyDI.getInstance(Example.class).dep).isInstanceOf(ExampleTwo.class);
+    }
+
+    @Test
+    @DisplayName("adding a provider after the first request is respected")
+    void success_bindProviderAfterFirstRequest() {
+        final ExampleOne first = easyDI.getInstance(ExampleOne.class);
+
+        final ExampleOne bound = new ExampleOne();
+        easyDI.bindInstance(ExampleOne.class, bound);
+
+        assertThat(first).isNotSameAs(bound);
+        assertThat(easyDI.getInstance(ExampleOne.class)).isSameAs(bound);
+    }
+
+    @Test
+    @DisplayName("marking a type as singleton after the first request is respected")
+    void success_markAsSingletonAfterFirstRequest() {
+        assertThat(easyDI.getInstance(ExampleOne.class)).isNotSameAs(easyDI.getInstance(ExampleOne.class));
+
+        easyDI.markAsSingleton(ExampleOne.class);
+
+        assertThat(easyDI.getInstance(ExampleOne.class)).isSameAs(easyDI.getInstance(ExampleOne.class));
+    }
+}
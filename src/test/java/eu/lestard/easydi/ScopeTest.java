@@ -0,0 +1,155 @@
+package eu.lestard.easydi;
+
+
+import jakarta.inject.Provider;
+import jakarta.inject.Singleton;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@DisplayName("Custom scopes")
+class ScopeTest {
+
+    @RequestScoped
+    public static class RequestHelper {
+    }
+
+    public static class HandlerOne {
+        final RequestHelper helper;
+
+        public HandlerOne(RequestHelper helper) {
+            this.helper = helper;
+        }
+    }
+
+    public static class HandlerTwo {
+        final RequestHelper helper;
+        final HandlerOne handlerOne;
+
+        public HandlerTwo(RequestHelper helper, HandlerOne handlerOne) {
+            this.helper = helper;
+            this.handlerOne = handlerOne;
+        }
+    }
+
+    @Singleton
+    public static class SingletonService {
+        final Provider<RequestHelper> helperProvider;
+
+        public SingletonService(Provider<RequestHelper> helperProvider) {
+            this.helperProvider = helperProvider;
+        }
+    }
+
+    @jakarta.inject.Scope
+    @Retention(RetentionPolicy.RUNTIME)
+    public @interface Cached {
+    }
+
+    @Cached
+    public static class CachedThing {
+    }
+
+    public static class MapScope implements Scope {
+        final Map<Class<?>, Object> instances = new HashMap<>();
+
+        @Override
+        public <T> T get(Class<T> type, Provider<T> unscopedProvider) {
+            return type.cast(instances.computeIfAbsent(type, key -> unscopedProvider.get()));
+        }
+    }
+
+    private EasyDI easyDI;
+
+    private RequestScope requestScope;
+
+    @BeforeEach
+    void setup() {
+        easyDI = new EasyDI();
+        requestScope = new RequestScope();
+        easyDI.bindScope(RequestScoped.class, requestScope);
+    }
+
+    @Test
+    @DisplayName("request scoped instances are shared during a request")
+    void success_sharedDuringRequest() {
+        final HandlerTwo handler = requestScope.call(() -> easyDI.getInstance(HandlerTwo.class));
+
+        assertThat(handler.helper).isSameAs(handler.handlerOne.helper);
+    }
+
+    @Test
+    @DisplayName("every request gets new instances")
+    void success_newInstancePerRequest() {
+        final RequestHelper first = requestScope.call(() -> easyDI.getInstance(RequestHelper.class));
+        final RequestHelper second = requestScope.call(() -> easyDI.getInstance(RequestHelper.class));
+
+        assertThat(first).isNotSameAs(second);
+        assertThat(requestScope.isActive()).isFalse();
+    }
+
+    @Test
+    @DisplayName("nested requests get new instances and the outer request is restored afterwards")
+    void success_nestedRequests() {
+        requestScope.run(() -> {
+            final RequestHelper outer = easyDI.getInstance(RequestHelper.class);
+
+            final RequestHelper inner = requestScope.call(() -> easyDI.getInstance(RequestHelper.class));
+
+            assertThat(inner).isNotSameAs(outer);
+            assertThat(easyDI.getInstance(RequestHelper.class)).isSameAs(outer);
+        });
+    }
+
+    @Test
+    @DisplayName("singletons can use request scoped instances via a provider")
+    void success_providerInSingleton() {
+        final SingletonService service = easyDI.getInstance(SingletonService.class);
+
+        requestScope.run(() ->
+            assertThat(service.helperProvider.get()).isSameAs(easyDI.getInstance(RequestHelper.class)));
+    }
+
+    @Test
+    @DisplayName("request scoped instances can't be requested outside of a request")
+    void fail_noActiveRequest() {
+        IllegalStateException exception = assertThrows(IllegalStateException.class, () -> {
+            easyDI.getInstance(HandlerOne.class);
+        });
+
+        assertThat(exception).hasMessageContaining("no active request");
+    }
+
+    @Test
+    @DisplayName("custom scopes can be bound")
+    void success_customScope() {
+        easyDI.bindScope(Cached.class, new MapScope());
+
+        assertThat(easyDI.getInstance(CachedThing.class)).isSameAs(easyDI.getInstance(CachedThing.class));
+    }
+
+    @Test
+    @DisplayName("scope annotations without a bound scope are an error")
+    void fail_unboundScope() {
+        IllegalStateException exception = assertThrows(IllegalStateException.class, () -> {
+            easyDI.getInstance(CachedThing.class);
+        });
+
+        assertThat(exception).hasStackTraceContaining("there is no scope bound to this annotation");
+    }
+
+    @Test
+    @DisplayName("only scope annotations can be bound")
+    void fail_bindScope_noScopeAnnotation() {
+        assertThrows(IllegalArgumentException.class, () -> easyDI.bindScope(Retention.class, new MapScope()));
+        assertThrows(IllegalArgumentException.class, () -> easyDI.bindScope(Singleton.class, new MapScope()));
+    }
+}
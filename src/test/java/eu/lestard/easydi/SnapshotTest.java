@@ -0,0 +1,188 @@
+package eu.lestard.easydi;
+
+
+import jakarta.inject.Provider;
+import jakarta.inject.Singleton;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@DisplayName("Graph snapshots")
+class SnapshotTest {
+
+    public interface Engine {
+    }
+
+    public static class ElectricMotor implements Engine {
+    }
+
+    public static class CombustionEngine implements Engine {
+    }
+
+    @Singleton
+    public static class Garage {
+    }
+
+    public static class Wheel {
+    }
+
+    public static class Car {
+        final Engine engine;
+        final Garage garage;
+        final Provider<Wheel> wheels;
+        final Optional<Runnable> extra;
+
+        public Car(Engine engine, Garage garage, Provider<Wheel> wheels, Optional<Runnable> extra) {
+            this.engine = engine;
+            this.garage = garage;
+            this.wheels = wheels;
+            this.extra = extra;
+        }
+    }
+
+    public static class Bicycle {
+        final int gears;
+
+        public Bicycle(int gears) {
+            this.gears = gears;
+        }
+    }
+
+    public interface Plugin {
+    }
+
+    public static class LoggingPlugin implements Plugin {
+    }
+
+    public static class PluginHost {
+        final Set<Plugin> plugins;
+
+        public PluginHost(Set<Plugin> plugins) {
+            this.plugins = plugins;
+        }
+    }
+
+    private EasyDI easyDI;
+
+    @BeforeEach
+    void setup() {
+        easyDI = new EasyDI();
+    }
+
+    private byte[] createSnapshot() throws IOException {
+        final EasyDI buildTime = new EasyDI();
+        buildTime.bindInterface(Engine.class, ElectricMotor.class);
+
+        final ByteArrayOutputStream snapshot = new ByteArrayOutputStream();
+        buildTime.writeSnapshot(snapshot, Car.class);
+        return snapshot.toByteArray();
+    }
+
+    @Test
+    @DisplayName("the graph can be resolved from a snapshot")
+    void success_loadSnapshot() throws IOException {
+        easyDI.loadSnapshot(new ByteArrayInputStream(createSnapshot()));
+
+        final Car car = easyDI.getInstance(Car.class);
+
+        assertThat(car.engine).isInstanceOf(ElectricMotor.class);
+        assertThat(car.garage).isSameAs(easyDI.getInstance(Car.class).garage);
+        assertThat(car.wheels.get()).isNotNull();
+        assertThat(car.extra).isEmpty();
+    }
+
+    @Test
+    @DisplayName("the current configuration takes precedence over the snapshot")
+    void success_configurationWins() throws IOException {
+        easyDI.bindInterface(Engine.class, CombustionEngine.class);
+        final Garage garage = new Garage();
+        easyDI.bindInstance(Garage.class, garage);
+
+        easyDI.loadSnapshot(new ByteArrayInputStream(createSnapshot()));
+
+        final Car car = easyDI.getInstance(Car.class);
+        assertThat(car.engine).isInstanceOf(CombustionEngine.class);
+        assertThat(car.garage).isSameAs(garage);
+    }
+
+    @Test
+    @DisplayName("only the graph of the root types is part of the snapshot")
+    void success_onlyRootGraph() throws IOException {
+        final EasyDI buildTime = new EasyDI();
+        buildTime.bindInterface(Engine.class, CombustionEngine.class);
+        buildTime.getInstance(Engine.class);
+
+        final ByteArrayOutputStream snapshot = new ByteArrayOutputStream();
+        buildTime.writeSnapshot(snapshot, Wheel.class);
+
+        easyDI.loadSnapshot(new ByteArrayInputStream(snapshot.toByteArray()));
+
+        assertThat(easyDI.getInstance(Wheel.class)).isNotNull();
+        assertThrows(IllegalStateException.class, () -> easyDI.getInstance(Engine.class));
+    }
+
+    @Test
+    @DisplayName("constructors with primitive parameters are restored from the snapshot")
+    void success_primitiveParameter() throws IOException {
+        final EasyDI buildTime = new EasyDI();
+        buildTime.bindProvider(int.class, () -> 21);
+        buildTime.markAsSingleton(Bicycle.class);
+
+        final ByteArrayOutputStream snapshot = new ByteArrayOutputStream();
+        buildTime.writeSnapshot(snapshot, Bicycle.class);
+
+        easyDI.bindProvider(int.class, () -> 21);
+        easyDI.loadSnapshot(new ByteArrayInputStream(snapshot.toByteArray()));
+
+        // the singleton flag is only known from the snapshot
+        final Bicycle bicycle = easyDI.getInstance(Bicycle.class);
+        assertThat(bicycle.gears).isEqualTo(21);
+        assertThat(easyDI.getInstance(Bicycle.class)).isSameAs(bicycle);
+    }
+
+    @Test
+    @DisplayName("multibindings of the snapshot are only used when the configuration still has bindings")
+    void fail_multibindingWithoutBindings() throws IOException {
+        final EasyDI buildTime = new EasyDI();
+        buildTime.bindIntoSet(Plugin.class, LoggingPlugin.class);
+
+        final ByteArrayOutputStream snapshot = new ByteArrayOutputStream();
+        buildTime.writeSnapshot(snapshot, PluginHost.class);
+
+        easyDI.loadSnapshot(new ByteArrayInputStream(snapshot.toByteArray()));
+
+        assertThrows(IllegalStateException.class, () -> easyDI.getInstance(PluginHost.class));
+
+        easyDI.bindIntoSet(Plugin.class, LoggingPlugin.class);
+        assertThat(easyDI.getInstance(PluginHost.class).plugins).hasSize(1);
+    }
+
+    @Test
+    @DisplayName("a snapshot can't be written for an invalid graph")
+    void fail_writeSnapshot_invalidGraph() {
+        IllegalStateException exception = assertThrows(IllegalStateException.class, () -> {
+            easyDI.writeSnapshot(new ByteArrayOutputStream(), Car.class);
+        });
+
+        assertThat(exception).hasMessageContaining("It is an interface");
+    }
+
+    @Test
+    @DisplayName("streams that don't contain a snapshot are rejected")
+    void fail_loadSnapshot_noSnapshot() {
+        IOException exception = assertThrows(IOException.class, () -> {
+            easyDI.loadSnapshot(new ByteArrayInputStream(new byte[] {1, 2, 3, 4, 5, 6, 7, 8}));
+        });
+
+        assertThat(exception).hasMessageContaining("doesn't contain an EasyDI snapshot");
+    }
+}
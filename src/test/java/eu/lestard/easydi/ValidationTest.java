@@ -0,0 +1,121 @@
+package eu.lestard.easydi;
+
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import jakarta.inject.Inject;
+import jakarta.inject.Provider;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@DisplayName("Eager validation of the dependency graph")
+class ValidationTest {
+
+    public interface MyInterface {
+    }
+
+    public static class MyImplementation implements MyInterface {
+    }
+
+    public static class TwoInjectConstructors {
+        @Inject
+        public TwoInjectConstructors() {
+        }
+
+        @Inject
+        public TwoInjectConstructors(MyImplementation dep) {
+        }
+    }
+
+    public static class Root {
+        public Root(MyInterface dep, TwoInjectConstructors other) {
+        }
+    }
+
+    public static class CycleA {
+        public CycleA(CycleB b) {
+        }
+    }
+
+    public static class CycleB {
+        public CycleB(CycleC c) {
+        }
+    }
+
+    public static class CycleC {
+        public CycleC(CycleA a) {
+        }
+    }
+
+    public static class LazyA {
+        public LazyA(LazyB b) {
+        }
+    }
+
+    public static class LazyB {
+        public LazyB(Provider<LazyA> a) {
+        }
+    }
+
+    public static class LazyMissing {
+        public LazyMissing(Provider<MyInterface> provider) {
+        }
+    }
+
+    private EasyDI easyDI;
+
+    @BeforeEach
+    void setup() {
+        easyDI = new EasyDI();
+    }
+
+    @Test
+    @DisplayName("a valid graph passes the validation")
+    void success_validGraph() {
+        easyDI.bindInterface(MyInterface.class, MyImplementation.class);
+
+        easyDI.validate(LazyA.class, LazyMissing.class, MyInterface.class);
+
+        assertThat(easyDI.getInstance(LazyA.class)).isNotNull();
+    }
+
+    @Test
+    @DisplayName("all problems are reported together")
+    void fail_allProblemsReported() {
+        IllegalStateException exception = assertThrows(IllegalStateException.class, () -> {
+            easyDI.validate(Root.class);
+        });
+
+        assertThat(exception).hasMessageContaining("2 problem(s)")
+            .hasMessageContaining("use the 'bindInterface' method")
+            .hasMessageContaining("more than one public constructor marked with @Inject")
+            .hasMessageContaining("required by " + Root.class.getName());
+        assertThat(exception.getSuppressed()).hasSize(2);
+    }
+
+    @Test
+    @DisplayName("a cycle is reported with the full path")
+    void fail_cycleWithPath() {
+        IllegalStateException exception = assertThrows(IllegalStateException.class, () -> {
+            easyDI.validate(CycleA.class);
+        });
+
+        assertThat(exception).hasMessageContaining("cyclic dependency was detected: "
+            + CycleA.class.getName() + " -> " + CycleB.class.getName() + " -> "
+            + CycleC.class.getName() + " -> " + CycleA.class.getName());
+    }
+
+    @Test
+    @DisplayName("types that are only injected via provider are validated too")
+    void fail_problemBehindProvider() {
+        IllegalStateException exception = assertThrows(IllegalStateException.class, () -> {
+            easyDI.validate(LazyMissing.class);
+        });
+
+        assertThat(exception).hasMessageContaining("1 problem(s)")
+            .hasMessageContaining("It is an interface");
+    }
+}